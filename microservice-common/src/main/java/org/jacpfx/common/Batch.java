@@ -0,0 +1,27 @@
+package org.jacpfx.common;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Invokes an EVENTBUS operation with batches of messages instead of single messages. The parameters of the method are lists: List&lt;T&gt; receives
+ * the decoded message bodies and an optional List&lt;EBMessageReply&gt; the reply handles of the messages at the same position. Messages are
+ * collected per verticle instance until maxSize messages arrived or maxDelayMs passed since the first one. A List returned by the method is replied
+ * item by item to the original messages, a failure of the method fails all messages of the batch.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Batch {
+
+    /**
+     * @return the number of messages flushing a batch
+     */
+    int maxSize() default 100;
+
+    /**
+     * @return the maximum time in ms a message waits for its batch
+     */
+    long maxDelayMs() default 10;
+}
@@ -0,0 +1,48 @@
+package org.jacpfx.common;
+
+/**
+ * A serialized event bus reply together with the compression settings of the replying verticle. Receivers get the payload as byte[], see {@link BinaryReplyDecoder}.
+ */
+public class BinaryReply {
+
+    private final byte[] payload;
+    private final int compressionThreshold;
+    private final String address;
+
+    /**
+     * @param payload              the serialized reply
+     * @param compressionThreshold the payload size (in bytes) above which the reply is compressed when sent over the wire, {@link Compression#DISABLED} for no compression
+     * @param address              the event bus address of the request, used for compression statistics
+     */
+    public BinaryReply(byte[] payload, int compressionThreshold, String address) {
+        this.payload = payload;
+        this.compressionThreshold = compressionThreshold;
+        this.address = address;
+    }
+
+    /**
+     * Wraps a byte[] reply if compression is enabled, so it is compressed when sent over the wire. Without compression the reply is sent as it is
+     * with the built-in byte[] codec, receivers don't need the framework codecs then.
+     *
+     * @param reply                the reply
+     * @param compressionThreshold the compression threshold of the replying verticle
+     * @param address              the event bus address of the request
+     * @return the reply to send
+     */
+    public static Object of(final Object reply, final int compressionThreshold, final String address) {
+        if (!(reply instanceof byte[]) || compressionThreshold == Compression.DISABLED) return reply;
+        return new BinaryReply((byte[]) reply, compressionThreshold, address);
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+}
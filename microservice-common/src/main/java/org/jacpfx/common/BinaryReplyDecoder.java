@@ -0,0 +1,71 @@
+package org.jacpfx.common;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Event bus codec for binary replies. Local delivery passes a copy of the payload, clustered delivery compresses payloads above the compression
+ * threshold of the reply, so only replies which actually go over the wire pay for compression. The wire format starts with a flag byte telling a raw
+ * from a compressed payload, raw payloads are never inspected. The receiving side gets the original payload as byte[] in both cases.
+ */
+public class BinaryReplyDecoder implements MessageCodec<BinaryReply, byte[]> {
+
+    private static final byte NULL = 0;
+    private static final byte RAW = 1;
+    private static final byte COMPRESSED = 2;
+
+    @Override
+    public void encodeToWire(Buffer buffer, BinaryReply reply) {
+        final byte[] payload = reply.getPayload();
+        if (payload == null) {
+            buffer.appendByte(NULL);
+            return;
+        }
+        if (Compression.isRequired(payload.length, reply.getCompressionThreshold())) {
+            final byte[] deflated = Compression.deflate(payload, reply.getAddress());
+            if (deflated.length < payload.length) {
+                buffer.appendByte(COMPRESSED);
+                buffer.appendInt(payload.length);
+                BufferTool.appendBytes(buffer, deflated);
+                return;
+            }
+        }
+        buffer.appendByte(RAW);
+        BufferTool.appendBytes(buffer, payload);
+    }
+
+    @Override
+    public byte[] decodeFromWire(int pos, Buffer buffer) {
+        final BufferTool.Reader reader = new BufferTool.Reader(buffer, pos);
+        final byte kind = reader.readByte();
+        if (kind == NULL) return null;
+        if (kind == RAW) return reader.readBytes();
+        if (kind != COMPRESSED) throw new IllegalStateException("unknown binary reply kind " + kind);
+        try {
+            final int length = reader.readInt();
+            final byte[] deflated = reader.readBytes();
+            return Compression.inflate(deflated, 0, deflated.length, length);
+        } catch (IOException e) {
+            throw new IllegalStateException("unable to decode binary reply", e);
+        }
+    }
+
+    @Override
+    public byte[] transform(BinaryReply reply) {
+        final byte[] payload = reply.getPayload();
+        return payload != null ? Arrays.copyOf(payload, payload.length) : null;
+    }
+
+    @Override
+    public String name() {
+        return "BinaryReplyDecoder";
+    }
+
+    @Override
+    public byte systemCodecID() {
+        return -1;
+    }
+}
@@ -0,0 +1,339 @@
+package org.jacpfx.common;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import org.jacpfx.common.spi.ClassIdCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A field-level binary schema for application/octet-stream parameter types. The schema is derived once from the declared fields of a class, fields are
+ * read and written with MethodHandles, so no class descriptor is written per message and no java deserialization is involved.
+ * Schemas are only derived for classes registered locally with {@link #register(Class)}: services register their parameter types, clients register the
+ * types they exchange with a service. The {@link #descriptor()} of a schema is published in the Operation metadata, a receiver checks it against its
+ * local schema with {@link #verify(String...)}; descriptors of a peer never cause a class to be loaded or accessed. A client encodes a parameter with
+ * {@link #encode(Object)} only for an operation publishing the schema, all other payloads (replies, WebSocket bodies) are written by the configured
+ * codec, since their receiver may not have the schema. {@link #decode(byte[])} rejects payloads not written with the schema, unless
+ * "legacySchemaDecoding" is set for clients still sending java serialized parameters.
+ * The schema id is the hash of the descriptor, registration compares the full descriptors and rejects a schema whose id is taken by another schema.
+ * A class is supported if it declares a constructor taking all fields in declaration order, or a no-arg constructor and no final fields.
+ *
+ * @param <T> the schema type
+ */
+public class BinarySchema<T> {
+
+    /**
+     * The configuration key to accept parameters of schema types which were not written with the schema, they are decoded by the Serializer
+     */
+    public static final String LEGACY_DECODING_CONFIG_KEY = "legacySchemaDecoding";
+
+    private static final Map<Class<?>, BinarySchema<?>> BY_TYPE = new ConcurrentHashMap<>();
+    private static final Map<Integer, BinarySchema<?>> BY_ID = new ConcurrentHashMap<>();
+    private static final Map<String, BinarySchema<?>> BY_NAME = new ConcurrentHashMap<>();
+    private static final Logger log = LoggerFactory.getLogger(BinarySchema.class);
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static volatile boolean legacyDecoding;
+
+    private final Class<T> type;
+    private final String descriptor;
+    private final int id;
+    private final FieldAccess[] fields;
+    private final MethodHandle constructor;
+    private final boolean allFieldsConstructor;
+
+    private BinarySchema(Class<T> type, FieldAccess[] fields, MethodHandle constructor, boolean allFieldsConstructor) {
+        this.type = type;
+        this.fields = fields;
+        this.constructor = constructor;
+        this.allFieldsConstructor = allFieldsConstructor;
+        this.descriptor = type.getName() + Stream.of(fields).map(field -> field.name + ":" + field.type.getName()).collect(Collectors.joining(",", "{", "}"));
+        this.id = descriptor.hashCode();
+    }
+
+    /**
+     * Derives the schema of a class without registering it
+     *
+     * @param type the parameter class
+     * @param <T>  the parameter type
+     * @return the schema or empty if the class is not supported
+     */
+    public static <T> Optional<BinarySchema<T>> derive(final Class<T> type) {
+        if (!isCandidate(type)) return Optional.empty();
+        final Field[] declared = Stream.of(type.getDeclaredFields()).
+                filter(field -> !Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers())).
+                toArray(Field[]::new);
+        final Class<?>[] fieldTypes = Stream.of(declared).map(Field::getType).toArray(Class<?>[]::new);
+        try {
+            final FieldAccess[] fields = new FieldAccess[declared.length];
+            final Optional<Constructor<T>> allFields = findConstructor(type, fieldTypes);
+            final boolean useConstructor = allFields.isPresent();
+            if (!useConstructor && Stream.of(declared).anyMatch(field -> Modifier.isFinal(field.getModifiers()))) return Optional.empty();
+            final Constructor<T> constructor = useConstructor ? allFields.get() : findConstructor(type).orElse(null);
+            if (constructor == null) return Optional.empty();
+            constructor.setAccessible(true);
+            for (int i = 0; i < declared.length; i++) {
+                declared[i].setAccessible(true);
+                fields[i] = new FieldAccess(declared[i], useConstructor);
+            }
+            final MethodHandle handle = LOOKUP.unreflectConstructor(constructor).
+                    asSpreader(Object[].class, constructor.getParameterCount()).
+                    asType(MethodType.methodType(Object.class, Object[].class));
+            return Optional.of(new BinarySchema<>(type, fields, handle, useConstructor));
+        } catch (IllegalAccessException | SecurityException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Derives and registers the schema of a class
+     *
+     * @param type the parameter class
+     * @param <T>  the parameter type
+     * @return the registered schema or empty if the class is not supported
+     * @throws IllegalStateException if the schema id is already registered for a different schema
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Optional<BinarySchema<T>> register(final Class<T> type) {
+        final BinarySchema<?> existing = BY_TYPE.get(type);
+        if (existing != null) return Optional.of((BinarySchema<T>) existing);
+        return derive(type).map(BinarySchema::register);
+    }
+
+    /**
+     * Checks the schemas published by a remote service against the local schemas. Descriptors of classes without local schema are ignored, a different
+     * local schema or a schema id collision is logged; payloads of these types can't be exchanged with the service.
+     *
+     * @param descriptors the schema descriptors of an Operation
+     * @return true if all descriptors of locally registered classes match the local schema
+     */
+    public static boolean verify(final String... descriptors) {
+        if (descriptors == null) return true;
+        boolean matching = true;
+        for (String descriptor : descriptors) {
+            if (descriptor == null) continue;
+            final int index = descriptor.indexOf('{');
+            if (index < 0) throw new IllegalArgumentException("invalid schema descriptor: " + descriptor);
+            final BinarySchema<?> local = BY_NAME.get(descriptor.substring(0, index));
+            final BinarySchema<?> sameId = forId(descriptor.hashCode());
+            if (local != null && !local.descriptor.equals(descriptor)) {
+                log.warn("remote schema " + descriptor + " differs from local schema " + local.descriptor);
+                matching = false;
+            } else if (sameId != null && !sameId.descriptor.equals(descriptor)) {
+                log.warn("remote schema " + descriptor + " collides with local schema " + sameId.descriptor);
+                matching = false;
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * Applies the "legacySchemaDecoding" of the configuration, the switch is shared by all schemas of the JVM
+     *
+     * @param config the verticle configuration
+     */
+    public static void configure(final JsonObject config) {
+        if (config.containsKey(LEGACY_DECODING_CONFIG_KEY)) setLegacyDecoding(config.getBoolean(LEGACY_DECODING_CONFIG_KEY));
+    }
+
+    /**
+     * @param legacy true to decode parameters which were not written with their schema by the Serializer
+     */
+    public static void setLegacyDecoding(final boolean legacy) {
+        legacyDecoding = legacy;
+    }
+
+    public static boolean isLegacyDecoding() {
+        return legacyDecoding;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> BinarySchema<T> register(final BinarySchema<T> schema) {
+        final BinarySchema<?> existing = BY_ID.putIfAbsent(schema.id, schema);
+        if (existing != null && (!existing.descriptor.equals(schema.descriptor) || !existing.type.equals(schema.type)))
+            throw new IllegalStateException("schema id " + schema.id + " of " + schema.descriptor + " is already registered for " + existing.descriptor);
+        final BinarySchema<T> registered = existing != null ? (BinarySchema<T>) existing : schema;
+        BY_TYPE.putIfAbsent(schema.type, registered);
+        BY_NAME.putIfAbsent(schema.type.getName(), registered);
+        return registered;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> BinarySchema<T> forType(final Class<T> type) {
+        return (BinarySchema<T>) BY_TYPE.get(type);
+    }
+
+    public static BinarySchema<?> forId(final int id) {
+        return BY_ID.get(id);
+    }
+
+    public String descriptor() {
+        return descriptor;
+    }
+
+    public int id() {
+        return id;
+    }
+
+    public Class<T> type() {
+        return type;
+    }
+
+    /**
+     * Writes the fields of the value
+     *
+     * @param value the value
+     * @param out   the ClassIdCodec output
+     * @throws IOException
+     */
+    public void write(final Object value, final ClassIdCodec.Output out) throws IOException {
+        try {
+            for (FieldAccess field : fields) {
+                field.write(value, out);
+            }
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IOException("unable to write " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Reads the fields and creates the value
+     *
+     * @param in the ClassIdCodec input
+     * @return the value
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    public T read(final ClassIdCodec.Input in) throws IOException, ClassNotFoundException {
+        final Object[] values = new Object[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            values[i] = fields[i].read(in);
+        }
+        try {
+            if (allFieldsConstructor) return type.cast((Object) constructor.invokeExact(values));
+            final Object value = constructor.invokeExact(new Object[0]);
+            for (int i = 0; i < fields.length; i++) {
+                fields[i].set(value, values[i]);
+            }
+            return type.cast(value);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IOException("unable to create " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Encodes a parameter with this schema, use it only if the receiving operation publishes the schema. Fields of other types are written by the
+     * ClassIdCodec.
+     *
+     * @param value the parameter value
+     * @return the event bus payload
+     * @throws IOException
+     */
+    public byte[] encode(final T value) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        final ClassIdCodec.Output out = new ClassIdCodec.Output(bytes);
+        ClassIdCodec.writeSchemaHeader(out, id);
+        write(value, out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a parameter payload written with {@link #encode(Object)}. Other payloads are rejected, with "legacySchemaDecoding" they are passed to
+     * the Serializer.
+     *
+     * @param payload the event bus payload
+     * @return the parameter value
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    public T decode(byte[] payload) throws IOException, ClassNotFoundException {
+        payload = Compression.decompress(payload);
+        if (!ClassIdCodec.isSchemaPayload(payload, id)) {
+            if (!legacyDecoding) throw new StreamCorruptedException("payload of " + type.getName() + " was not written with its binary schema");
+            return type.cast(Serializer.deserialize(payload));
+        }
+        final ClassIdCodec.Input in = new ClassIdCodec.Input(new ByteArrayInputStream(payload, ClassIdCodec.SCHEMA_HEADER_LENGTH, payload.length - ClassIdCodec.SCHEMA_HEADER_LENGTH));
+        return read(in);
+    }
+
+    private static boolean isCandidate(final Class<?> type) {
+        return !type.isPrimitive() && !type.isArray() && !type.isInterface() && !type.isEnum() && !Modifier.isAbstract(type.getModifiers())
+                && !type.getName().startsWith("java.") && !ClassIdCodec.isRegistered(type)
+                && (type.getSuperclass() == null || type.getSuperclass().equals(Object.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Optional<Constructor<T>> findConstructor(final Class<T> type, final Class<?>... parameterTypes) {
+        return Stream.of(type.getDeclaredConstructors()).
+                filter(constructor -> Arrays.equals(constructor.getParameterTypes(), parameterTypes)).
+                map(constructor -> (Constructor<T>) constructor).
+                findFirst();
+    }
+
+    private static final class FieldAccess {
+        private final String name;
+        private final Class<?> type;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private FieldAccess(final Field field, final boolean viaConstructor) throws IllegalAccessException {
+            this.name = field.getName();
+            this.type = field.getType();
+            this.getter = LOOKUP.unreflectGetter(field).asType(MethodType.methodType(Object.class, Object.class));
+            this.setter = viaConstructor ? null : LOOKUP.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, Object.class));
+        }
+
+        private void write(final Object target, final ClassIdCodec.Output out) throws Throwable {
+            final Object value = (Object) getter.invokeExact(target);
+            if (type == int.class) out.writeInt((Integer) value);
+            else if (type == long.class) out.writeLong((Long) value);
+            else if (type == double.class) out.writeDouble((Double) value);
+            else if (type == float.class) out.writeFloat((Float) value);
+            else if (type == boolean.class) out.writeBoolean((Boolean) value);
+            else if (type == short.class) out.writeShort((Short) value);
+            else if (type == byte.class) out.writeByte((Byte) value);
+            else if (type == char.class) out.writeChar((Character) value);
+            else if (type == String.class) out.writeString((String) value);
+            else out.writeObject(value);
+        }
+
+        private Object read(final ClassIdCodec.Input in) throws IOException, ClassNotFoundException {
+            if (type == int.class) return in.readInt();
+            if (type == long.class) return in.readLong();
+            if (type == double.class) return in.readDouble();
+            if (type == float.class) return in.readFloat();
+            if (type == boolean.class) return in.readBoolean();
+            if (type == short.class) return in.readShort();
+            if (type == byte.class) return in.readByte();
+            if (type == char.class) return in.readChar();
+            if (type == String.class) return in.readString();
+            final Object value = in.readObject();
+            if (value != null && !type.isInstance(value)) throw new StreamCorruptedException("unexpected value for field " + name);
+            return value;
+        }
+
+        private void set(final Object target, final Object value) throws Throwable {
+            setter.invokeExact(target, value);
+        }
+    }
+}
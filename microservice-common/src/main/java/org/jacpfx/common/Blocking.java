@@ -0,0 +1,35 @@
+package org.jacpfx.common;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service operation as blocking, it is invoked on a bounded worker pool (bulkhead) instead of the event loop and the result is passed back to the
+ * verticle context. Operations without pool name get their own bulkhead, operations with the same pool name share one; size and queue of a shared pool
+ * are taken from the first operation. Requests exceeding the queue are rejected with failure code 503. Every verticle instance has its own bulkheads,
+ * a service deployed with N instances runs up to N times size invocations.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Blocking {
+
+    int DEFAULT_SIZE = 4;
+    int DEFAULT_QUEUE = 64;
+
+    /**
+     * @return the name of a shared bulkhead, empty for a bulkhead per operation
+     */
+    String pool() default "";
+
+    /**
+     * @return the number of worker threads
+     */
+    int size() default DEFAULT_SIZE;
+
+    /**
+     * @return the number of waiting invocations before requests are rejected
+     */
+    int queue() default DEFAULT_QUEUE;
+}
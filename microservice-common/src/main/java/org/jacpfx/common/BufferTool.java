@@ -0,0 +1,232 @@
+package org.jacpfx.common;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.buffer.Buffer;
+import org.jacpfx.common.spi.BinaryCodec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Helper to write and read length prefixed values in event bus wire buffers, used by the MessageCodec implementations
+ */
+public class BufferTool {
+
+    private static final int NULL_LENGTH = -1;
+    private static final int SCRATCH_CAPACITY = 1024;
+    private static final int SCRATCH_MAX_RETAINED = 1024 * 1024;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * Appends a nullable string as int length followed by UTF-8 bytes
+     *
+     * @param buffer the wire buffer
+     * @param value  the string to write
+     */
+    public static void appendString(final Buffer buffer, final String value) {
+        appendBytes(buffer, value != null ? value.getBytes(StandardCharsets.UTF_8) : null);
+    }
+
+    /**
+     * Appends a nullable byte array as int length followed by the raw bytes
+     *
+     * @param buffer the wire buffer
+     * @param value  the bytes to write
+     */
+    public static void appendBytes(final Buffer buffer, final byte[] value) {
+        if (value == null) {
+            buffer.appendInt(NULL_LENGTH);
+        } else {
+            buffer.appendInt(value.length).appendBytes(value);
+        }
+    }
+
+    /**
+     * Appends a non negative int in 7 bit groups, small values take a single byte
+     *
+     * @param buffer the wire buffer
+     * @param value  the value to write
+     */
+    public static void appendVarInt(final Buffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.appendByte((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.appendByte((byte) value);
+    }
+
+    /**
+     * Appends an object encoded with the codec as int length followed by the payload. The payload is written in place, without intermediate byte array.
+     *
+     * @param buffer the wire buffer
+     * @param value  the object to write
+     * @param codec  the binary codec
+     * @throws IOException
+     */
+    public static void appendSerialized(final Buffer buffer, final Object value, final BinaryCodec codec) throws IOException {
+        final int lengthPos = buffer.length();
+        buffer.appendInt(0);
+        Serializer.serialize(value, codec, buffer);
+        buffer.setInt(lengthPos, buffer.length() - lengthPos - 4);
+    }
+
+    /**
+     * Returns the reusable scratch buffer of the current thread (one per event loop), emptied. Return it with {@link #releaseScratch(Buffer)} when done;
+     * nested calls on the same thread get a fresh buffer.
+     *
+     * @return an empty buffer
+     */
+    public static Buffer acquireScratch() {
+        final Scratch scratch = SCRATCH.get();
+        if (scratch.inUse) return Buffer.buffer(SCRATCH_CAPACITY);
+        scratch.inUse = true;
+        scratch.byteBuf.clear();
+        return scratch.buffer;
+    }
+
+    /**
+     * Returns the scratch buffer for reuse, buffers grown above 1MB are dropped
+     *
+     * @param buffer the buffer returned by {@link #acquireScratch()}
+     */
+    public static void releaseScratch(final Buffer buffer) {
+        final Scratch scratch = SCRATCH.get();
+        if (scratch.buffer != buffer) return;
+        if (scratch.byteBuf.capacity() > SCRATCH_MAX_RETAINED) {
+            SCRATCH.remove();
+        } else {
+            scratch.inUse = false;
+        }
+    }
+
+    /**
+     * Returns an InputStream reading a slice of the buffer without copying it
+     *
+     * @param buffer the source buffer
+     * @param pos    the start position
+     * @param length the slice length
+     * @return the stream view of the slice
+     */
+    public static InputStream inputStream(final Buffer buffer, final int pos, final int length) {
+        final ByteBuf slice = buffer.getByteBuf().slice(pos, length);
+        return new InputStream() {
+            @Override
+            public int read() {
+                return slice.isReadable() ? slice.readByte() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (len == 0) return 0;
+                if (!slice.isReadable()) return -1;
+                final int count = Math.min(len, slice.readableBytes());
+                slice.readBytes(b, off, count);
+                return count;
+            }
+
+            @Override
+            public int available() {
+                return slice.readableBytes();
+            }
+        };
+    }
+
+    /**
+     * Returns an OutputStream appending to the buffer, to let stream based writers fill a Buffer without an intermediate copy
+     *
+     * @param buffer the target buffer
+     * @return the stream view of the buffer
+     */
+    public static OutputStream outputStream(final Buffer buffer) {
+        return new OutputStream() {
+            @Override
+            public void write(int b) {
+                buffer.appendByte((byte) b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                buffer.appendBytes(b, off, len);
+            }
+        };
+    }
+
+    /**
+     * Reads values from a wire buffer, starting at the position passed to MessageCodec.decodeFromWire
+     */
+    public static class Reader {
+        private final Buffer buffer;
+        private int pos;
+
+        public Reader(final Buffer buffer, final int pos) {
+            this.buffer = buffer;
+            this.pos = pos;
+        }
+
+        public byte readByte() {
+            return buffer.getByte(pos++);
+        }
+
+        public int readInt() {
+            final int value = buffer.getInt(pos);
+            pos += 4;
+            return value;
+        }
+
+        public int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = readByte();
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        public String readString() {
+            final int length = readInt();
+            if (length == NULL_LENGTH) return null;
+            final String value = buffer.getString(pos, pos + length, StandardCharsets.UTF_8.name());
+            pos += length;
+            return value;
+        }
+
+        public byte[] readBytes() {
+            final int length = readInt();
+            if (length == NULL_LENGTH) return null;
+            final byte[] bytes = buffer.getBytes(pos, pos + length);
+            pos += length;
+            return bytes;
+        }
+
+        /**
+         * Reads an object written by {@link #appendSerialized(Buffer, Object, BinaryCodec)} directly from the buffer
+         *
+         * @return the object
+         * @throws IOException
+         * @throws ClassNotFoundException
+         */
+        public Object readSerialized() throws IOException, ClassNotFoundException {
+            final int length = readInt();
+            final Object value = Serializer.deserialize(buffer, pos, length);
+            pos += length;
+            return value;
+        }
+
+        public int position() {
+            return pos;
+        }
+    }
+
+    private static final class Scratch {
+        private final ByteBuf byteBuf = Unpooled.buffer(SCRATCH_CAPACITY);
+        private final Buffer buffer = Buffer.buffer(byteBuf);
+        private boolean inUse;
+    }
+}
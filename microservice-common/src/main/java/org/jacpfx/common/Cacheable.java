@@ -0,0 +1,26 @@
+package org.jacpfx.common;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Caches the serialized replies of a REST_GET or EVENTBUS operation. REST_GET replies are keyed by the bound request parameters and answered with an
+ * ETag, a matching If-None-Match header gets 304 without body; EVENTBUS replies are keyed by the message body. Each verticle instance keeps up to
+ * maxEntries replies for ttl ms and evicts the least recently used ones first. Only pure reads should be cached.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Cacheable {
+
+    /**
+     * @return the time in ms a reply is served from the cache
+     */
+    long ttl() default 60000;
+
+    /**
+     * @return the number of cached replies
+     */
+    int maxEntries() default 1000;
+}
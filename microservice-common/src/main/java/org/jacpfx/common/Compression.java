@@ -0,0 +1,203 @@
+package org.jacpfx.common;
+
+import io.vertx.core.json.JsonObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Optional Deflater compression for event bus payloads. Payloads below the configured "compressionThreshold" (in bytes) are sent unchanged, so small
+ * messages pay nothing. Compressed Serializer payloads start with the {@link #ID} header byte followed by the original length, this id is reserved for
+ * compression and must not be used by a BinaryCodec. Compression ratio and time are collected per address, see {@link #statistics()}.
+ */
+public class Compression {
+
+    /**
+     * The configuration key for the size (in bytes) above which payloads are compressed
+     */
+    public static final String THRESHOLD_CONFIG_KEY = "compressionThreshold";
+    public static final int DISABLED = -1;
+    /**
+     * The configuration key for the maximum length (in bytes) of a decompressed payload, longer payloads are rejected before any memory is allocated
+     */
+    public static final String MAX_LENGTH_CONFIG_KEY = "maxDecompressedLength";
+    public static final int DEFAULT_MAX_LENGTH = 64 * 1024 * 1024;
+    public static final byte ID = 0x02;
+
+    private static final int HEADER_LENGTH = 5;
+    private static final String UNKNOWN_ADDRESS = "unknown";
+
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED));
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+    private static final Map<String, Stats> STATS = new ConcurrentHashMap<>();
+    private static volatile int maxLength = DEFAULT_MAX_LENGTH;
+
+    /**
+     * Applies the "maxDecompressedLength" of the configuration, the limit is shared by all decoders of the JVM
+     *
+     * @param config the verticle configuration
+     */
+    public static void configure(final JsonObject config) {
+        if (config.containsKey(MAX_LENGTH_CONFIG_KEY)) setMaxLength(config.getInteger(MAX_LENGTH_CONFIG_KEY));
+    }
+
+    /**
+     * @param length the maximum length (in bytes) of a decompressed payload
+     */
+    public static void setMaxLength(final int length) {
+        if (length < 1) throw new IllegalArgumentException(MAX_LENGTH_CONFIG_KEY + " must be at least one byte");
+        maxLength = length;
+    }
+
+    public static int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Checks if a payload of the given length must be compressed
+     *
+     * @param length    the payload length
+     * @param threshold the configured threshold, {@link #DISABLED} for no compression
+     * @return true if the payload must be compressed
+     */
+    public static boolean isRequired(final int length, final int threshold) {
+        return threshold != DISABLED && length >= threshold;
+    }
+
+    /**
+     * Compresses a Serializer payload above the threshold and prepends the compression header. Payloads which don't get smaller are returned unchanged.
+     *
+     * @param payload   the serialized payload
+     * @param threshold the configured threshold
+     * @param address   the event bus address, used for statistics
+     * @return the (possibly) compressed payload
+     */
+    public static byte[] compress(final byte[] payload, final int threshold, final String address) {
+        if (!isRequired(payload.length, threshold)) return payload;
+        final byte[] deflated = deflate(payload, address);
+        if (deflated.length + HEADER_LENGTH >= payload.length) return payload;
+        return ByteBuffer.allocate(HEADER_LENGTH + deflated.length).
+                put(ID).
+                putInt(payload.length).
+                put(deflated).
+                array();
+    }
+
+    /**
+     * Returns the original payload of a compressed Serializer payload, other payloads are returned unchanged
+     *
+     * @param payload the received payload
+     * @return the uncompressed payload
+     * @throws IOException if the compressed data is corrupt
+     */
+    public static byte[] decompress(final byte[] payload) throws IOException {
+        if (!isCompressed(payload)) return payload;
+        final int length = ByteBuffer.wrap(payload, 1, 4).getInt();
+        return inflate(payload, HEADER_LENGTH, payload.length - HEADER_LENGTH, length);
+    }
+
+    public static boolean isCompressed(final byte[] payload) {
+        return payload.length > HEADER_LENGTH && payload[0] == ID;
+    }
+
+    /**
+     * Deflates the data without header
+     *
+     * @param data    the data to compress
+     * @param address the event bus address, used for statistics
+     * @return the deflated data
+     */
+    public static byte[] deflate(final byte[] data, final String address) {
+        final long start = System.nanoTime();
+        final Deflater deflater = DEFLATER.get();
+        deflater.reset();
+        deflater.setInput(data);
+        deflater.finish();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 2));
+        final byte[] chunk = new byte[4096];
+        while (!deflater.finished()) {
+            out.write(chunk, 0, deflater.deflate(chunk));
+        }
+        final byte[] result = out.toByteArray();
+        stats(address).record(data.length, result.length, System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Inflates deflated data
+     *
+     * @param data           the deflated data
+     * @param offset         the start of the deflated data
+     * @param length         the length of the deflated data
+     * @param originalLength the length of the uncompressed data
+     * @return the uncompressed data
+     * @throws IOException if the compressed data is corrupt or the original length is negative or exceeds the maximum length
+     */
+    public static byte[] inflate(final byte[] data, final int offset, final int length, final int originalLength) throws IOException {
+        if (originalLength < 0 || originalLength > maxLength)
+            throw new IOException("invalid decompressed length " + originalLength + ", the maximum is " + maxLength + " bytes");
+        final Inflater inflater = INFLATER.get();
+        inflater.reset();
+        inflater.setInput(data, offset, length);
+        final byte[] result = new byte[originalLength];
+        try {
+            int pos = 0;
+            while (pos < originalLength && !inflater.finished()) {
+                final int read = inflater.inflate(result, pos, originalLength - pos);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                pos += read;
+            }
+            if (pos != originalLength) throw new IOException("truncated compressed payload");
+        } catch (DataFormatException e) {
+            throw new IOException(e);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the compression statistics per address: message count, uncompressed and compressed bytes, ratio and CPU time in microseconds
+     *
+     * @return the statistics
+     */
+    public static JsonObject statistics() {
+        final JsonObject result = new JsonObject();
+        STATS.forEach((address, stats) -> result.put(address, stats.toJson()));
+        return result;
+    }
+
+    private static Stats stats(final String address) {
+        return STATS.computeIfAbsent(address != null ? address : UNKNOWN_ADDRESS, key -> new Stats());
+    }
+
+    private static class Stats {
+        private final LongAdder messages = new LongAdder();
+        private final LongAdder rawBytes = new LongAdder();
+        private final LongAdder compressedBytes = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        private void record(final int raw, final int compressed, final long time) {
+            messages.increment();
+            rawBytes.add(raw);
+            compressedBytes.add(compressed);
+            nanos.add(time);
+        }
+
+        private JsonObject toJson() {
+            final long raw = rawBytes.sum();
+            final long compressed = compressedBytes.sum();
+            return new JsonObject().
+                    put("messages", messages.sum()).
+                    put("rawBytes", raw).
+                    put("compressedBytes", compressed).
+                    put("ratio", raw > 0 ? (double) compressed / raw : 1d).
+                    put("timeMicros", nanos.sum() / 1000);
+        }
+    }
+}
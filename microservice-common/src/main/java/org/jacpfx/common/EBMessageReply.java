@@ -2,9 +2,11 @@ package org.jacpfx.common;
 
 import io.vertx.core.eventbus.EventBus;
 import io.vertx.core.eventbus.Message;
+import org.jacpfx.common.spi.BinaryCodec;
 import org.jacpfx.common.spi.JSONConverter;
 
 import java.io.IOException;
+import java.util.function.Consumer;
 
 /**
  * Created by Andy Moncsek on 22.05.15.
@@ -15,9 +17,22 @@ public class EBMessageReply {
     private Message<?> message;
     private String consumes;
     private JSONConverter jsonConverter;
+    private BinaryCodec codec;
+    private int compressionThreshold;
+    private Consumer<Object> replyListener;
 
     public EBMessageReply(EventBus bus, Message<?> message,String consumes,JSONConverter jsonConverter) {
+        this(bus, message, consumes, jsonConverter, Serializer.getCodec(Serializer.DEFAULT_CODEC));
+    }
+
+    public EBMessageReply(EventBus bus, Message<?> message,String consumes,JSONConverter jsonConverter,BinaryCodec codec) {
+        this(bus, message, consumes, jsonConverter, codec, Compression.DISABLED);
+    }
+
+    public EBMessageReply(EventBus bus, Message<?> message,String consumes,JSONConverter jsonConverter,BinaryCodec codec,int compressionThreshold) {
         this.bus = bus;
+        this.codec = codec;
+        this.compressionThreshold = compressionThreshold;
         this.message = message;
         this.consumes = consumes;
         this.jsonConverter = jsonConverter;
@@ -26,22 +41,38 @@ public class EBMessageReply {
     public void reply(Object m) {
 
         if (isBinary(consumes)) {
-            this.message.reply(serializeResult(m));
+            send(serializeResult(m));
         } else if(isJSON(consumes)) {
             if (TypeTool.isCompatibleType(m.getClass())) {
-                this.message.reply(m);
+                send(m);
             } else {
-                this.message.reply(jsonConverter.convertToJSONString(m));
+                send(jsonConverter.convertToJSONString(m));
             }
         } else if (TypeTool.isCompatibleType(m.getClass())) {
-            this.message.reply(m);
+            send(m);
         }
     }
 
+    /**
+     * Sets a listener receiving every serialized reply, e.g. to cache it
+     *
+     * @param listener the reply listener
+     * @return this reply
+     */
+    public EBMessageReply onReply(Consumer<Object> listener) {
+        this.replyListener = listener;
+        return this;
+    }
+
+    private void send(Object reply) {
+        this.message.reply(BinaryReply.of(reply, compressionThreshold, message.address()));
+        if (replyListener != null) replyListener.accept(reply);
+    }
+
     private byte[] serializeResult(Object resultValue) {
         byte[] result = new byte[0];
         try {
-            result = Serializer.serialize(resultValue);
+            result = Serializer.serialize(resultValue, codec);
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -0,0 +1,86 @@
+package org.jacpfx.common;
+
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.json.JsonObject;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The tunable options of the router and self hosted http servers, configured in the "httpServer" object of the verticle config, e.g.
+ * {"httpServer": {"acceptBacklog": 8192, "idleTimeout": 60, "compressionSupported": true}}. Unset options keep the Vert.x defaults. The profile is
+ * validated when the verticle starts, an unknown key or an invalid value fails the deployment.
+ */
+public class HttpServerProfile {
+
+    /**
+     * The configuration key of the server profile object
+     */
+    public static final String CONFIG_KEY = "httpServer";
+    public static final String TCP_NO_DELAY = "tcpNoDelay";
+    public static final String TCP_KEEP_ALIVE = "tcpKeepAlive";
+    public static final String REUSE_ADDRESS = "reuseAddress";
+    public static final String ACCEPT_BACKLOG = "acceptBacklog";
+    public static final String SEND_BUFFER_SIZE = "sendBufferSize";
+    public static final String RECEIVE_BUFFER_SIZE = "receiveBufferSize";
+    /**
+     * Idle timeout in seconds, closes kept alive connections without traffic; 0 keeps them open
+     */
+    public static final String IDLE_TIMEOUT = "idleTimeout";
+    public static final String MAX_WEBSOCKET_FRAME_SIZE = "maxWebsocketFrameSize";
+    public static final String COMPRESSION_SUPPORTED = "compressionSupported";
+
+    private static final List<String> KEYS = Arrays.asList(TCP_NO_DELAY, TCP_KEEP_ALIVE, REUSE_ADDRESS, ACCEPT_BACKLOG, SEND_BUFFER_SIZE,
+            RECEIVE_BUFFER_SIZE, IDLE_TIMEOUT, MAX_WEBSOCKET_FRAME_SIZE, COMPRESSION_SUPPORTED);
+
+    private HttpServerProfile() {
+    }
+
+    /**
+     * Creates the http server options of a verticle
+     *
+     * @param config the verticle config
+     * @param host   the host to listen on
+     * @param port   the port to listen on
+     * @return the server options
+     * @throws IllegalArgumentException if the profile contains an unknown key or an invalid value
+     */
+    public static HttpServerOptions createOptions(final JsonObject config, final String host, final int port) {
+        final JsonObject profile = profile(config);
+        final HttpServerOptions options = new HttpServerOptions().setHost(host).setPort(port);
+        if (profile.containsKey(TCP_NO_DELAY)) options.setTcpNoDelay(getBoolean(profile, TCP_NO_DELAY));
+        if (profile.containsKey(TCP_KEEP_ALIVE)) options.setTcpKeepAlive(getBoolean(profile, TCP_KEEP_ALIVE));
+        if (profile.containsKey(REUSE_ADDRESS)) options.setReuseAddress(getBoolean(profile, REUSE_ADDRESS));
+        if (profile.containsKey(ACCEPT_BACKLOG)) options.setAcceptBacklog(getInteger(profile, ACCEPT_BACKLOG, 1));
+        if (profile.containsKey(SEND_BUFFER_SIZE)) options.setSendBufferSize(getInteger(profile, SEND_BUFFER_SIZE, 1));
+        if (profile.containsKey(RECEIVE_BUFFER_SIZE)) options.setReceiveBufferSize(getInteger(profile, RECEIVE_BUFFER_SIZE, 1));
+        if (profile.containsKey(IDLE_TIMEOUT)) options.setIdleTimeout(getInteger(profile, IDLE_TIMEOUT, 0));
+        if (profile.containsKey(MAX_WEBSOCKET_FRAME_SIZE)) options.setMaxWebsocketFrameSize(getInteger(profile, MAX_WEBSOCKET_FRAME_SIZE, 1));
+        if (profile.containsKey(COMPRESSION_SUPPORTED)) options.setCompressionSupported(getBoolean(profile, COMPRESSION_SUPPORTED));
+        return options;
+    }
+
+    private static JsonObject profile(final JsonObject config) {
+        final Object profile = config.getValue(CONFIG_KEY);
+        if (profile == null) return new JsonObject();
+        if (!(profile instanceof JsonObject)) throw new IllegalArgumentException(CONFIG_KEY + " must be an object");
+        ((JsonObject) profile).fieldNames().stream().filter(key -> !KEYS.contains(key)).findFirst().ifPresent(key -> {
+            throw new IllegalArgumentException("unknown " + CONFIG_KEY + " option: " + key + ", supported options are " + KEYS);
+        });
+        return (JsonObject) profile;
+    }
+
+    private static boolean getBoolean(final JsonObject profile, final String key) {
+        final Object value = profile.getValue(key);
+        if (!(value instanceof Boolean)) throw new IllegalArgumentException(CONFIG_KEY + "." + key + " must be a boolean: " + value);
+        return (Boolean) value;
+    }
+
+    private static int getInteger(final JsonObject profile, final String key, final int min) {
+        final Object value = profile.getValue(key);
+        if (!(value instanceof Integer) || (Integer) value < min) {
+            throw new IllegalArgumentException(CONFIG_KEY + "." + key + " must be an integer >= " + min + ": " + value);
+        }
+        return (Integer) value;
+    }
+}
@@ -0,0 +1,16 @@
+package org.jacpfx.common;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a REST_GET operation as idempotent, concurrent requests with the same parameters are coalesced into a single invocation and its result is
+ * sent to all of them. The service coalesces per verticle instance; the flag is published in the Operation descriptor, so the router also forwards
+ * only one of the identical requests on a route. Operations returning a stream can not be coalesced.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Idempotent {
+}
@@ -0,0 +1,27 @@
+package org.jacpfx.common;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limits the outstanding invocations of a service operation. The service runs at most maxInFlight invocations at a time and keeps up to maxQueued
+ * further requests waiting, more requests are rejected immediately with failure code {@link org.jacpfx.common.constants.GlobalKeyHolder#OVERLOADED}.
+ * The limits apply per verticle instance, a service deployed with N instances accepts N times the limits. The Operation descriptor publishes the sum
+ * of all instances, so the router answers 503 with Retry-After without sending the request once all instances are saturated.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface InFlightLimit {
+
+    /**
+     * @return the number of concurrently running invocations
+     */
+    int maxInFlight();
+
+    /**
+     * @return the number of requests waiting for a running invocation to complete
+     */
+    int maxQueued() default 0;
+}
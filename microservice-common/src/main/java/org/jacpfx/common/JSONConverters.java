@@ -0,0 +1,47 @@
+package org.jacpfx.common;
+
+import org.jacpfx.common.spi.GSonConverter;
+import org.jacpfx.common.spi.GSonStreamingConverter;
+import org.jacpfx.common.spi.JSONConverter;
+
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Provides the {@link JSONConverter} implementations loaded by ServiceLoader. Converters are shared, so implementations must be thread safe.
+ */
+public class JSONConverters {
+
+    /**
+     * The configuration key to select a converter by name
+     */
+    public static final String CONVERTER_CONFIG_KEY = "jsonConverter";
+    public static final String DEFAULT_CONVERTER = GSonConverter.NAME;
+
+    private static final Map<String, JSONConverter> CONVERTERS_BY_NAME = new ConcurrentHashMap<>();
+
+    static {
+        addConverter(new GSonConverter());
+        addConverter(new GSonStreamingConverter());
+        for (JSONConverter converter : ServiceLoader.load(JSONConverter.class)) {
+            addConverter(converter);
+        }
+    }
+
+    private static void addConverter(final JSONConverter converter) {
+        CONVERTERS_BY_NAME.putIfAbsent(converter.name(), converter);
+    }
+
+    /**
+     * Returns the converter registered with the given name
+     *
+     * @param name the converter name
+     * @return the converter
+     */
+    public static JSONConverter getConverter(final String name) {
+        final JSONConverter converter = CONVERTERS_BY_NAME.get(name);
+        if (converter == null) throw new IllegalArgumentException("no JSON converter found with name: " + name);
+        return converter;
+    }
+}
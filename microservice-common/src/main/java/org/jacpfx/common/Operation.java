@@ -24,6 +24,10 @@ public class Operation implements Serializable{
     private final String[] produces;
     private final String[] consumes;
     private final String[] parameter;
+    private String[] schema;
+    private int maxInFlight;
+    private int maxQueued;
+    private boolean idempotent;
     private transient  Vertx vertx;
     private transient HttpClient client;
 
@@ -60,6 +64,10 @@ public class Operation implements Serializable{
 
     public Operation(Operation op,Vertx vertx) {
         this(op.name,op.description,op.url,op.type,op.produces,op.consumes,op.serviceName,op.connectionHost,op.connectionPort,vertx,op.parameter);
+        this.schema = op.schema;
+        this.maxInFlight = op.maxInFlight;
+        this.maxQueued = op.maxQueued;
+        this.idempotent = op.idempotent;
     }
 
     public String getUrl() {
@@ -79,6 +87,54 @@ public class Operation implements Serializable{
         return parameter;
     }
 
+    /**
+     * Returns the binary schema descriptors of the operation parameters, see {@link BinarySchema}
+     * @return the schema descriptors or null if no parameter is schema encoded
+     */
+    public String[] getSchema() {
+        return schema;
+    }
+
+    public void setSchema(String[] schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * Returns the number of concurrently running invocations, see {@link InFlightLimit}
+     * @return the limit or 0 if the operation is not limited
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Returns the number of requests waiting for a running invocation, see {@link InFlightLimit}
+     * @return the number of waiting requests
+     */
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    public void setMaxQueued(int maxQueued) {
+        this.maxQueued = maxQueued;
+    }
+
+    /**
+     * Returns true if concurrent identical requests are coalesced, see {@link Idempotent}
+     * @return true for idempotent operations
+     */
+    public boolean isIdempotent() {
+        return idempotent;
+    }
+
+    public void setIdempotent(boolean idempotent) {
+        this.idempotent = idempotent;
+    }
+
     public String[] getProduces() {
         return produces;
     }
@@ -1,27 +1,47 @@
 package org.jacpfx.common;
 
+import io.vertx.core.MultiMap;
+
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 
 /**
  * Created by amo on 27.10.14.
+ * A single named parameter or the request parameters of a service call, the latter are kept in a {@link ParameterMap}.
  */
 public class Parameter<T> implements Serializable{
-    private  List<Parameter<T>> all = new ArrayList<>();
+    private final ParameterMap<T> all;
     private String name;
     private T value;
 
     public Parameter(String name, T value) {
         this.name = name;
         this.value = value;
-
+        this.all = null;
     }
 
     public Parameter(List<Parameter<T>> all) {
-       this.all.addAll(all);
+        this.all = new ParameterMap<>(all.size());
+        all.forEach(p -> {
+            if (p.getName() != null) this.all.add(p.getName(), p.getValue());
+            else if (p.getParameters() != null) p.getParameters().forEach(this.all::add);
+        });
+    }
+
+    public Parameter(ParameterMap<T> all) {
+        this.all = all;
+    }
 
+    /**
+     * Creates the parameter entity of http request parameters or form attributes
+     *
+     * @param params the request parameters
+     * @return the parameter entity
+     */
+    public static Parameter<String> of(MultiMap params) {
+        return new Parameter<>(ParameterMap.of(params));
     }
 
     public String getName() {
@@ -34,11 +54,23 @@ public class Parameter<T> implements Serializable{
 
     public T getValue(String name) {
         if(this.name!=null && this.name.equals(name)) return this.value;
-        final Optional<Parameter<T>> first = all.stream().filter(p -> p.getName().equals(name)).findFirst();
-        return first.isPresent()?first.get().getValue():null;
+        return all != null ? all.get(name) : null;
     }
 
-    public List<Parameter<T>> getAll() {
+    /**
+     * @return the parameter map, null for a single named parameter
+     */
+    public ParameterMap<T> getParameters() {
         return all;
     }
+
+    /**
+     * @return a copy of all contained parameters as single named parameters, a repeated name is contained once per value
+     */
+    public List<Parameter<T>> getAll() {
+        if (all == null) return Collections.emptyList();
+        final List<Parameter<T>> parameters = new ArrayList<>(all.size());
+        all.forEach((n, v) -> parameters.add(new Parameter<>(n, v)));
+        return parameters;
+    }
 }
@@ -7,27 +7,22 @@ import java.io.IOException;
 
 /**
  * Created by Andy Moncsek on 09.12.14.
+ * Event bus codec for request parameters. Local delivery passes the parameter instance, clustered delivery writes the name and value followed by the length prefixed name/value pairs of the ParameterMap; non String values are encoded with the Serializer.
  */
-public class ParameterDecoder implements MessageCodec<Parameter,Parameter> {
+public class ParameterDecoder implements MessageCodec<Parameter, Parameter> {
+
+    private static final byte VALUE_NULL = 0;
+    private static final byte VALUE_STRING = 1;
+    private static final byte VALUE_ENCODED = 2;
+
     @Override
     public void encodeToWire(Buffer buffer, Parameter parameter) {
-        try {
-            buffer.appendBytes(Serializer.serialize(parameter));
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        appendParameter(buffer, parameter);
     }
 
     @Override
     public Parameter decodeFromWire(int pos, Buffer buffer) {
-        try {
-            return (Parameter) Serializer.deserialize(buffer.getBytes());
-        } catch (IOException e) {
-            e.printStackTrace();
-        } catch (ClassNotFoundException e) {
-            e.printStackTrace();
-        }
-        return null;
+        return readParameter(new BufferTool.Reader(buffer, pos));
     }
 
     @Override
@@ -44,4 +39,59 @@ public class ParameterDecoder implements MessageCodec<Parameter,Parameter> {
     public byte systemCodecID() {
         return -1;
     }
+
+    private void appendParameter(final Buffer buffer, final Parameter<?> parameter) {
+        BufferTool.appendString(buffer, parameter.getName());
+        appendValue(buffer, parameter.getValue());
+        final ParameterMap<?> all = parameter.getParameters();
+        final int size = all != null ? all.size() : 0;
+        buffer.appendInt(size);
+        for (int i = 0; i < size; i++) {
+            BufferTool.appendString(buffer, all.name(i));
+            appendValue(buffer, all.value(i));
+        }
+    }
+
+    private void appendValue(final Buffer buffer, final Object value) {
+        if (value == null) {
+            buffer.appendByte(VALUE_NULL);
+        } else if (value instanceof String) {
+            buffer.appendByte(VALUE_STRING);
+            BufferTool.appendString(buffer, (String) value);
+        } else {
+            buffer.appendByte(VALUE_ENCODED);
+            try {
+                BufferTool.appendSerialized(buffer, value, Serializer.getCodec(Serializer.DEFAULT_CODEC));
+            } catch (IOException e) {
+                throw new IllegalStateException("unable to encode parameter value", e);
+            }
+        }
+    }
+
+    private Parameter<Object> readParameter(final BufferTool.Reader reader) {
+        final String name = reader.readString();
+        final Object value = readValue(reader);
+        final int size = reader.readInt();
+        if (name != null) return new Parameter<>(name, value);
+        final ParameterMap<Object> all = new ParameterMap<>(size);
+        for (int i = 0; i < size; i++) {
+            all.add(reader.readString(), readValue(reader));
+        }
+        return new Parameter<>(all);
+    }
+
+    private Object readValue(final BufferTool.Reader reader) {
+        switch (reader.readByte()) {
+            case VALUE_STRING:
+                return reader.readString();
+            case VALUE_ENCODED:
+                try {
+                    return reader.readSerialized();
+                } catch (IOException | ClassNotFoundException e) {
+                    throw new IllegalStateException("unable to decode parameter value", e);
+                }
+            default:
+                return null;
+        }
+    }
 }
@@ -0,0 +1,173 @@
+package org.jacpfx.common;
+
+import io.vertx.core.MultiMap;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Array backed request parameter container. Names and values are kept in insertion order, lookups go through an open addressed index table with
+ * linear probing, so {@link #get(String)} is O(1) regardless of the number of parameters. Repeated names (e.g. ?id=1&id=2) keep all their values,
+ * like {@link Parameter#getValue(String)} the first value of a name wins on lookup; {@link #getAll(String)} returns all of them.
+ *
+ * @param <T> the value type
+ */
+public final class ParameterMap<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private static final int MIN_TABLE_SIZE = 8;
+
+    private String[] names;
+    private Object[] values;
+    private int[] slots;
+    private int size;
+
+    public ParameterMap() {
+        this(MIN_TABLE_SIZE / 2);
+    }
+
+    /**
+     * @param expectedSize the expected number of parameters
+     */
+    public ParameterMap(final int expectedSize) {
+        final int capacity = Math.max(expectedSize, 1);
+        this.names = new String[capacity];
+        this.values = new Object[capacity];
+        this.slots = new int[tableSize(capacity)];
+    }
+
+    /**
+     * Creates the parameter map of http request parameters or form attributes
+     *
+     * @param params the request parameters
+     * @return the parameter map
+     */
+    public static ParameterMap<String> of(final MultiMap params) {
+        final ParameterMap<String> map = new ParameterMap<>(params.size());
+        for (Map.Entry<String, String> entry : params) {
+            map.add(entry.getKey(), entry.getValue());
+        }
+        return map;
+    }
+
+    /**
+     * Adds a parameter, the value of a name that is already contained is kept as additional value
+     *
+     * @param name  the parameter name
+     * @param value the parameter value
+     * @return false if the name is already contained
+     */
+    public boolean add(final String name, final T value) {
+        Objects.requireNonNull(name, "parameter name must not be null");
+        final int slot = find(name);
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        names[size] = name;
+        values[size] = value;
+        size++;
+        if (slots[slot] != 0) return false;
+        slots[slot] = size;
+        if (size * 2 > slots.length) rehash(slots.length * 2);
+        return true;
+    }
+
+    /**
+     * @param name the parameter name
+     * @return the parameter value, null if not contained
+     */
+    @SuppressWarnings("unchecked")
+    public T get(final String name) {
+        if (name == null) return null;
+        final int index = slots[find(name)];
+        return index != 0 ? (T) values[index - 1] : null;
+    }
+
+    /**
+     * @param name the parameter name
+     * @return all values of the name in insertion order, empty if not contained
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> getAll(final String name) {
+        final List<T> result = new ArrayList<>(1);
+        if (!contains(name)) return result;
+        for (int i = slots[find(name)] - 1; i < size; i++) {
+            if (names[i].equals(name)) result.add((T) values[i]);
+        }
+        return result;
+    }
+
+    public boolean contains(final String name) {
+        return name != null && slots[find(name)] != 0;
+    }
+
+    /**
+     * @return the number of parameters, including repeated names
+     */
+    public int size() {
+        return size;
+    }
+
+    public String name(final int index) {
+        checkIndex(index);
+        return names[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    public T value(final int index) {
+        checkIndex(index);
+        return (T) values[index];
+    }
+
+    /**
+     * Passes all parameters in insertion order
+     *
+     * @param consumer the name/value consumer
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(final BiConsumer<String, ? super T> consumer) {
+        for (int i = 0; i < size; i++) {
+            consumer.accept(names[i], (T) values[i]);
+        }
+    }
+
+    private int find(final String name) {
+        final int mask = slots.length - 1;
+        int slot = hash(name) & mask;
+        while (slots[slot] != 0 && !names[slots[slot] - 1].equals(name)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(final int tableSize) {
+        slots = new int[tableSize];
+        for (int i = 0; i < size; i++) {
+            final int slot = find(names[i]);
+            if (slots[slot] == 0) slots[slot] = i + 1;
+        }
+    }
+
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+    }
+
+    private static int hash(final String name) {
+        final int h = name.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSize(final int capacity) {
+        int tableSize = MIN_TABLE_SIZE;
+        while (tableSize < capacity * 2) {
+            tableSize <<= 1;
+        }
+        return tableSize;
+    }
+}
@@ -0,0 +1,303 @@
+package org.jacpfx.common;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.EncodeException;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.jacpfx.common.constants.GlobalKeyHolder;
+import org.jacpfx.common.spi.JSONAdapter;
+import org.jacpfx.common.spi.JSONConverter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Encodes REST responses into a Buffer and ends the response with a Content-Length header. JSON is written compact, straight into the Buffer;
+ * pretty printing is only available for debugging, set "debug" and "prettyPrint" to true. Overloaded responses (503) carry a Retry-After header of
+ * "retryAfter" seconds (default 1). Streamed results are sent over the event bus in chunks of at least "chunkSize" bytes (default 8192).
+ */
+public class ResponseEncoder {
+
+    public static final String PRETTY_PRINT_CONFIG_KEY = "prettyPrint";
+    public static final String RETRY_AFTER_CONFIG_KEY = "retryAfter";
+    public static final int DEFAULT_RETRY_AFTER = 1;
+    public static final String CHUNK_SIZE_CONFIG_KEY = "chunkSize";
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+    public static final int NOT_MODIFIED = 304;
+    public static final int INTERNAL_SERVER_ERROR = 500;
+    public static final int SERVICE_UNAVAILABLE = 503;
+    public static final int GATEWAY_TIMEOUT = 504;
+
+    private final JSONConverter converter;
+    private final boolean prettyPrint;
+    private final String retryAfter;
+    private final int chunkSize;
+    private final Gson prettyGson;
+    private final Map<Class<?>, JSONAdapter<Object>> adapters = new ConcurrentHashMap<>();
+
+    public ResponseEncoder(JSONConverter converter) {
+        this(converter, false);
+    }
+
+    public ResponseEncoder(JsonObject config, JSONConverter converter) {
+        this(converter, config.getBoolean("debug", false) && config.getBoolean(PRETTY_PRINT_CONFIG_KEY, false),
+                config.getInteger(RETRY_AFTER_CONFIG_KEY, DEFAULT_RETRY_AFTER), config.getInteger(CHUNK_SIZE_CONFIG_KEY, DEFAULT_CHUNK_SIZE));
+    }
+
+    public ResponseEncoder(JSONConverter converter, boolean prettyPrint) {
+        this(converter, prettyPrint, DEFAULT_RETRY_AFTER, DEFAULT_CHUNK_SIZE);
+    }
+
+    public ResponseEncoder(JSONConverter converter, boolean prettyPrint, int retryAfter, int chunkSize) {
+        this.converter = converter;
+        this.prettyPrint = prettyPrint;
+        this.retryAfter = String.valueOf(retryAfter);
+        this.chunkSize = chunkSize;
+        this.prettyGson = prettyPrint ? new GsonBuilder().setPrettyPrinting().create() : null;
+    }
+
+    /**
+     * Encodes the value and ends the response, a null value ends the response without body
+     *
+     * @param response the http response
+     * @param value    the service result
+     */
+    public void end(final HttpServerResponse response, final Object value) {
+        final Buffer body = encode(value);
+        if (body == null) {
+            response.end();
+            return;
+        }
+        response.putHeader("Content-Length", String.valueOf(body.length()));
+        response.end(body);
+    }
+
+    /**
+     * Ends the response of a cached result with its ETag, a request with a matching If-None-Match header is answered with 304 and no body
+     *
+     * @param request the http request
+     * @param body    the encoded result
+     * @param etag    the ETag of the result
+     */
+    public void endCached(final HttpServerRequest request, final Buffer body, final String etag) {
+        final HttpServerResponse response = request.response();
+        response.putHeader("ETag", etag);
+        if (matches(request.headers().get("If-None-Match"), etag)) {
+            response.setStatusCode(NOT_MODIFIED).end();
+        } else {
+            end(response, body);
+        }
+    }
+
+    private static boolean matches(final String ifNoneMatch, final String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String tag : ifNoneMatch.split(",")) {
+            final String value = tag.trim();
+            if (value.equals("*") || value.equals(etag) || value.equals("W/" + etag)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a service reply is the first chunk of a streamed result
+     *
+     * @param reply the reply message
+     * @return true if the reply carries the chunked header
+     */
+    public static boolean isChunked(final Message<?> reply) {
+        return reply.headers().contains(GlobalKeyHolder.CHUNKED);
+    }
+
+    /**
+     * Writes a streamed result chunk by chunk to the response. Every chunk is acknowledged with a reply as soon as the write queue of the response
+     * accepts more data, the service answers the acknowledgement with the next chunk, so at most one chunk is buffered. The response is ended with
+     * the last chunk and closed if the service fails in between.
+     *
+     * @param response the http response
+     * @param chunk    the reply message carrying the chunk
+     * @param timeout  the timeout waiting for the next chunk
+     */
+    public void endChunked(final HttpServerResponse response, final Message<?> chunk, final int timeout) {
+        endChunked(response, chunk, timeout, null);
+    }
+
+    /**
+     * Writes a streamed result like {@link #endChunked(HttpServerResponse, Message, int)}. If the client closes the connection, the chunk waiting
+     * for its acknowledgement is failed, so the service closes the stream.
+     *
+     * @param response   the http response
+     * @param chunk      the reply message carrying the first chunk
+     * @param timeout    the timeout waiting for the next chunk
+     * @param endHandler called once when the stream is complete, failed or the connection closed, may be null
+     */
+    public void endChunked(final HttpServerResponse response, final Message<?> chunk, final int timeout, final Handler<Void> endHandler) {
+        if (!response.isChunked()) response.setChunked(true);
+        final String contentType = chunk.headers().get(GlobalKeyHolder.CONTENT_TYPE);
+        if (contentType != null && !response.headWritten() && noContentType(response)) response.putHeader("Content-Type", contentType);
+        final ChunkedResponse stream = new ChunkedResponse(response, timeout, endHandler);
+        response.closeHandler(v -> stream.closed());
+        stream.write(chunk);
+    }
+
+    /**
+     * @return the minimal size of a chunk of a streamed result in bytes
+     */
+    public int chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Ends the response of a failed service call. Client and server errors of the service (failure codes 400-599, e.g. a missing or invalid
+     * request parameter) are passed with their status code and message. A timed out request ends with 504, a request without service handler with
+     * 503 and all other failures with 500.
+     *
+     * @param response the http response
+     * @param cause    the failure of the event bus request
+     */
+    public void fail(final HttpServerResponse response, final Throwable cause) {
+        if (cause instanceof ReplyException) {
+            final ReplyException failure = (ReplyException) cause;
+            if (failure.failureType() == ReplyFailure.RECIPIENT_FAILURE && failure.failureCode() == GlobalKeyHolder.OVERLOADED) {
+                overloaded(response, cause.getMessage());
+                return;
+            }
+            response.setStatusCode(failureStatus(failure)).end(String.valueOf(cause.getMessage()));
+            return;
+        }
+        response.setStatusCode(INTERNAL_SERVER_ERROR).end(String.valueOf(cause.getMessage()));
+    }
+
+    private static int failureStatus(final ReplyException failure) {
+        switch (failure.failureType()) {
+            case TIMEOUT:
+                return GATEWAY_TIMEOUT;
+            case NO_HANDLERS:
+                return SERVICE_UNAVAILABLE;
+            default:
+                final int code = failure.failureCode();
+                return code >= 400 && code < 600 ? code : INTERNAL_SERVER_ERROR;
+        }
+    }
+
+    /**
+     * Ends the response of a request rejected by an in-flight limit with 503 and a Retry-After header
+     *
+     * @param response the http response
+     * @param message  the response body
+     */
+    public void overloaded(final HttpServerResponse response, final String message) {
+        response.setStatusCode(GlobalKeyHolder.OVERLOADED).putHeader("Retry-After", retryAfter).end(String.valueOf(message));
+    }
+
+    /**
+     * Encodes a service result, Buffer and byte[] values are passed as they are, Strings and primitive wrappers are written as text and all other values as JSON
+     *
+     * @param value the service result
+     * @return the encoded value or null for a null value
+     */
+    public Buffer encode(final Object value) {
+        if (value == null) return null;
+        if (value instanceof Buffer) return (Buffer) value;
+        if (value instanceof byte[]) return Buffer.buffer((byte[]) value);
+        if (value instanceof String) return Buffer.buffer((String) value, StandardCharsets.UTF_8.name());
+        if (value instanceof JsonObject || value instanceof JsonArray) return encodeJson(value);
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character)
+            return Buffer.buffer(value.toString(), StandardCharsets.UTF_8.name());
+        if (prettyPrint) return Buffer.buffer(prettyGson.toJson(value), StandardCharsets.UTF_8.name());
+        return adapter(value.getClass()).toJSONBuffer(value);
+    }
+
+    private Buffer encodeJson(final Object value) {
+        final Buffer buffer = Buffer.buffer();
+        try {
+            (prettyPrint ? Json.prettyMapper : Json.mapper).writeValue(BufferTool.outputStream(buffer), value);
+        } catch (IOException e) {
+            throw new EncodeException("Failed to encode as JSON: " + e.getMessage());
+        }
+        return buffer;
+    }
+
+    @SuppressWarnings("unchecked")
+    private JSONAdapter<Object> adapter(final Class<?> type) {
+        return adapters.computeIfAbsent(type, t -> (JSONAdapter<Object>) converter.getAdapter(t));
+    }
+
+    /**
+     * The state of a streamed response, all methods run on the context of the response.
+     */
+    private static final class ChunkedResponse {
+        private final HttpServerResponse response;
+        private final int timeout;
+        private final Handler<Void> endHandler;
+        private Message<?> draining;
+        private boolean ended;
+
+        private ChunkedResponse(HttpServerResponse response, int timeout, Handler<Void> endHandler) {
+            this.response = response;
+            this.timeout = timeout;
+            this.endHandler = endHandler;
+        }
+
+        private void write(final Message<?> chunk) {
+            final Buffer body = (Buffer) chunk.body();
+            if (body != null && body.length() > 0) response.write(body);
+            if (GlobalKeyHolder.LAST_CHUNK.equals(chunk.headers().get(GlobalKeyHolder.CHUNKED))) {
+                response.end();
+                end();
+            } else if (response.writeQueueFull()) {
+                draining = chunk;
+                response.drainHandler(v -> {
+                    draining = null;
+                    acknowledge(chunk);
+                });
+            } else {
+                acknowledge(chunk);
+            }
+        }
+
+        private void acknowledge(final Message<?> chunk) {
+            chunk.reply(null, new DeliveryOptions().setSendTimeout(timeout), (AsyncResult<Message<Object>> next) -> {
+                if (next.failed()) {
+                    response.close();
+                    end();
+                } else if (ended) {
+                    next.result().fail(INTERNAL_SERVER_ERROR, "connection closed");
+                } else {
+                    write(next.result());
+                }
+            });
+        }
+
+        private void closed() {
+            if (ended) return;
+            if (draining != null) draining.fail(INTERNAL_SERVER_ERROR, "connection closed");
+            draining = null;
+            end();
+        }
+
+        private void end() {
+            if (ended) return;
+            ended = true;
+            if (endHandler != null) endHandler.handle(null);
+        }
+    }
+
+    /** An operation without @Produces leaves an empty content type behind. */
+    public static boolean noContentType(HttpServerResponse response) {
+        final String contentType = response.headers().get("Content-Type");
+        return contentType == null || contentType.isEmpty();
+    }
+}
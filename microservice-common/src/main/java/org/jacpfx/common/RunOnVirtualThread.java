@@ -0,0 +1,16 @@
+package org.jacpfx.common;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs service operations on virtual threads (Java 21 and newer), the result is passed back to the verticle context. Annotate a ServiceVerticle to
+ * run all its operations on virtual threads or single operations; @Blocking on an operation takes precedence. On older JVMs the operations run on a
+ * worker bulkhead with the @Blocking defaults.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface RunOnVirtualThread {
+}
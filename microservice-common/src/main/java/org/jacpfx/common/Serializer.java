@@ -1,22 +1,117 @@
 package org.jacpfx.common;
 
+import io.vertx.core.buffer.Buffer;
+import org.jacpfx.common.spi.BinaryCodec;
+import org.jacpfx.common.spi.ClassIdCodec;
+import org.jacpfx.common.spi.JavaSerializationCodec;
+
 import java.io.*;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
+ * Serializes event bus payloads with a {@link BinaryCodec}. Codecs are loaded by ServiceLoader, deserialization selects the codec by the first byte of the payload.
+ * Payloads compressed by {@link Compression} are inflated before decoding. The Buffer based methods write into a caller supplied buffer and read from a
+ * buffer slice, without intermediate byte arrays.
  * Created by amo on 04.12.14.
  */
 public class Serializer {
+
+    /**
+     * The configuration key to select a codec by name
+     */
+    public static final String CODEC_CONFIG_KEY = "binaryCodec";
+    public static final String DEFAULT_CODEC = ClassIdCodec.NAME;
+
+    private static final Map<String, BinaryCodec> CODECS_BY_NAME = new ConcurrentHashMap<>();
+    private static final BinaryCodec[] CODECS_BY_ID = new BinaryCodec[256];
+    private static final BinaryCodec FALLBACK = new JavaSerializationCodec();
+    private static final BinaryCodec CLASS_ID = new ClassIdCodec();
+
+    static {
+        addCodec(FALLBACK);
+        addCodec(CLASS_ID);
+        for (BinaryCodec codec : ServiceLoader.load(BinaryCodec.class)) {
+            addCodec(codec);
+        }
+    }
+
+    private static void addCodec(final BinaryCodec codec) {
+        if (codec.id() == Compression.ID) throw new IllegalStateException("codec id is reserved for compression: " + codec.name());
+        if (CODECS_BY_NAME.putIfAbsent(codec.name(), codec) == null) {
+            CODECS_BY_ID[codec.id() & 0xFF] = codec;
+        }
+    }
+
+    /**
+     * Returns the codec registered with the given name
+     *
+     * @param name the codec name
+     * @return the codec
+     */
+    public static BinaryCodec getCodec(final String name) {
+        final BinaryCodec codec = CODECS_BY_NAME.get(name);
+        if (codec == null) throw new IllegalArgumentException("no binary codec found with name: " + name);
+        return codec;
+    }
+
     public static byte[] serialize(Object obj) throws IOException {
-        final ByteArrayOutputStream b = new ByteArrayOutputStream();
-        final ObjectOutputStream o = new ObjectOutputStream(b);
-        o.writeObject(obj);
-        o.close();
-        return b.toByteArray();
+        return serialize(obj, getCodec(DEFAULT_CODEC));
+    }
+
+    /**
+     * Serializes the object with the given codec. The payload is written to the reusable scratch buffer of the current thread and copied once into the result.
+     *
+     * @param obj   the object
+     * @param codec the configured codec
+     * @return the payload
+     * @throws IOException
+     */
+    public static byte[] serialize(Object obj, BinaryCodec codec) throws IOException {
+        final Buffer scratch = BufferTool.acquireScratch();
+        try {
+            return serialize(obj, codec, scratch).getBytes();
+        } finally {
+            BufferTool.releaseScratch(scratch);
+        }
+    }
+
+    /**
+     * Appends the serialized object to a caller supplied buffer, no intermediate byte array is created
+     *
+     * @param obj    the object
+     * @param codec  the configured codec
+     * @param target the target buffer
+     * @return the target buffer
+     * @throws IOException
+     */
+    public static Buffer serialize(Object obj, BinaryCodec codec, Buffer target) throws IOException {
+        codec.encode(obj, target);
+        return target;
     }
 
     public static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
-        final ByteArrayInputStream b = new ByteArrayInputStream(bytes);
-        final ObjectInputStream o = new ObjectInputStream(b);
-        return o.readObject();
+        if (Compression.isCompressed(bytes)) bytes = Compression.decompress(bytes);
+        final BinaryCodec codec = bytes.length > 0 ? CODECS_BY_ID[bytes[0] & 0xFF] : null;
+        return (codec != null ? codec : FALLBACK).decode(bytes);
+    }
+
+    /**
+     * Deserializes a payload from a buffer slice without copying it, compressed payloads are inflated first
+     *
+     * @param buffer the source buffer
+     * @param pos    the start of the payload
+     * @param length the payload length
+     * @return the object
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    public static Object deserialize(Buffer buffer, int pos, int length) throws IOException, ClassNotFoundException {
+        if (length == 0) return FALLBACK.decode(buffer, pos, length);
+        final byte id = buffer.getByte(pos);
+        if (id == Compression.ID) return deserialize(buffer.getBytes(pos, pos + length));
+        final BinaryCodec codec = CODECS_BY_ID[id & 0xFF];
+        return (codec != null ? codec : FALLBACK).decode(buffer, pos, length);
     }
-}
\ No newline at end of file
+}
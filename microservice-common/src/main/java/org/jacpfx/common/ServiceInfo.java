@@ -26,6 +26,8 @@ public class ServiceInfo implements Serializable {
 
     private final Integer port;
     private final Operation[] operations;
+    private int instances = 1;
+    private String[] instanceAddresses;
     private transient Vertx vertx;
 
     public ServiceInfo(String serviceName, Operation... operations) {
@@ -58,6 +60,8 @@ public class ServiceInfo implements Serializable {
                         map(op -> new Operation(op, vertx)).
                         collect(Collectors.toList()).
                         toArray(new Operation[info.operations.length]));
+        this.instances = info.instances;
+        this.instanceAddresses = info.instanceAddresses;
     }
 
     public String getLastConnection() {
@@ -92,6 +96,28 @@ public class ServiceInfo implements Serializable {
         return description;
     }
 
+    /**
+     * @return the number of verticle instances serving the service
+     */
+    public int getInstances() {
+        return instances;
+    }
+
+    public void setInstances(int instances) {
+        this.instances = instances;
+    }
+
+    /**
+     * @return the event bus addresses of the single service instances, each instance replies its diagnostics
+     */
+    public String[] getInstanceAddresses() {
+        return instanceAddresses;
+    }
+
+    public void setInstanceAddresses(String[] instanceAddresses) {
+        this.instanceAddresses = instanceAddresses;
+    }
+
 
     public Stream<Operation> getOperations(final String name) {
         return Stream.of(operations).filter(op -> op.getName().equalsIgnoreCase(name));
@@ -126,7 +152,13 @@ public class ServiceInfo implements Serializable {
                 map(operation -> addOperation(operation,vertx)).
                 collect(Collectors.toList());
 
-        return new ServiceInfo(serviceName, lastConnection, hostName, serviceURL, description, vertx,port,operations.toArray(new Operation[operations.size()]));
+        final ServiceInfo serviceInfo = new ServiceInfo(serviceName, lastConnection, hostName, serviceURL, description, vertx, port, operations.toArray(new Operation[operations.size()]));
+        serviceInfo.setInstances(info.getInteger("instances", 1));
+        final JsonArray instanceAddresses = info.getJsonArray("instanceAddresses");
+        if (instanceAddresses != null) {
+            serviceInfo.setInstanceAddresses(instanceAddresses.stream().map(String::valueOf).toArray(String[]::new));
+        }
+        return serviceInfo;
     }
 
     private static Operation addOperation(JsonObject operation,Vertx vertx) {
@@ -158,7 +190,10 @@ public class ServiceInfo implements Serializable {
 
     public  ServiceInfo buildFromServiceInfo(String serviceURL, Operation ...operations) {
 
-        return new ServiceInfo(serviceName,lastConnection,hostName,serviceURL,description,port,operations);
+        final ServiceInfo serviceInfo = new ServiceInfo(serviceName, lastConnection, hostName, serviceURL, description, port, operations);
+        serviceInfo.setInstances(instances);
+        serviceInfo.setInstanceAddresses(instanceAddresses);
+        return serviceInfo;
     }
 
 
@@ -172,6 +207,10 @@ public class ServiceInfo implements Serializable {
         tmp.put("serviceURL", info.getServiceURL());
         tmp.put("description", info.getDescription());
         tmp.put("port", info.getPort());
+        tmp.put("instances", info.getInstances());
+        if (info.getInstanceAddresses() != null) {
+            tmp.put("instanceAddresses", new JsonArray(Arrays.asList((Object[]) info.getInstanceAddresses())));
+        }
         tmp.put("operations", operationsArray);
         return tmp;
     }
@@ -231,6 +270,7 @@ public class ServiceInfo implements Serializable {
                 ", serviceURL='" + serviceURL + '\'' +
                 ", description='" + description + '\'' +
                 ", port=" + port +
+                ", instances=" + instances +
                 ", operations=" + Arrays.toString(operations) +
                 ", vertx=" + vertx +
                 '}';
@@ -0,0 +1,34 @@
+package org.jacpfx.common;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+
+/**
+ * Event bus codec for the registry content, clustered delivery uses the {@link ServiceInfoWireFormat} with one string table for all services.
+ */
+public class ServiceInfoHolderDecoder implements MessageCodec<ServiceInfoHolder, ServiceInfoHolder> {
+    @Override
+    public void encodeToWire(Buffer buffer, ServiceInfoHolder holder) {
+        ServiceInfoWireFormat.writeServiceInfoHolder(buffer, holder);
+    }
+
+    @Override
+    public ServiceInfoHolder decodeFromWire(int pos, Buffer buffer) {
+        return ServiceInfoWireFormat.readServiceInfoHolder(buffer, pos);
+    }
+
+    @Override
+    public ServiceInfoHolder transform(ServiceInfoHolder holder) {
+        return holder;
+    }
+
+    @Override
+    public String name() {
+        return "ServiceInfoHolderDecoder";
+    }
+
+    @Override
+    public byte systemCodecID() {
+        return -1;
+    }
+}
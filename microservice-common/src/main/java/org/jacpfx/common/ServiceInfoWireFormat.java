@@ -0,0 +1,256 @@
+package org.jacpfx.common;
+
+import io.vertx.core.buffer.Buffer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Versioned binary format for service descriptors (ServiceInfo, Operation, ServiceInfoHolder).
+ * Layout: version byte, string table (count followed by the distinct strings), body. The body references strings by their table index + 1 (0 = null), so
+ * service names, URLs and mime types repeated across operations and services are written only once.
+ * Every version from {@link #MIN_VERSION} on can be read and written, fields unknown to a version are skipped when writing and keep their defaults when
+ * reading. Versions: 1 initial, 2 operation schema, 3 operation in-flight limits, 4 service instances, 5 idempotent operations.
+ */
+public class ServiceInfoWireFormat {
+
+    public static final byte VERSION = 5;
+    public static final byte MIN_VERSION = 1;
+
+    private static final byte SCHEMA_VERSION = 2;
+    private static final byte LIMITS_VERSION = 3;
+    private static final byte INSTANCES_VERSION = 4;
+    private static final byte IDEMPOTENT_VERSION = 5;
+
+    private static final int NO_PORT = 0;
+
+    /**
+     * Appends a ServiceInfo to the buffer
+     *
+     * @param buffer the wire buffer
+     * @param info   the service descriptor
+     */
+    public static void writeServiceInfo(final Buffer buffer, final ServiceInfo info) {
+        writeServiceInfo(buffer, info, VERSION);
+    }
+
+    /**
+     * Appends a ServiceInfo to the buffer in the given version, e.g. for peers running an earlier build
+     *
+     * @param buffer  the wire buffer
+     * @param info    the service descriptor
+     * @param version the wire format version
+     */
+    public static void writeServiceInfo(final Buffer buffer, final ServiceInfo info, final byte version) {
+        final Writer writer = new Writer(version);
+        writer.writeServiceInfo(info);
+        writer.appendTo(buffer);
+    }
+
+    /**
+     * Reads a ServiceInfo starting at the given position
+     *
+     * @param buffer the wire buffer
+     * @param pos    the start position
+     * @return the service descriptor
+     */
+    public static ServiceInfo readServiceInfo(final Buffer buffer, final int pos) {
+        return new Reader(buffer, pos).readServiceInfo();
+    }
+
+    /**
+     * Appends all ServiceInfos of the holder to the buffer, sharing one string table
+     *
+     * @param buffer the wire buffer
+     * @param holder the registry content
+     */
+    public static void writeServiceInfoHolder(final Buffer buffer, final ServiceInfoHolder holder) {
+        writeServiceInfoHolder(buffer, holder, VERSION);
+    }
+
+    /**
+     * Appends all ServiceInfos of the holder to the buffer in the given version, sharing one string table
+     *
+     * @param buffer  the wire buffer
+     * @param holder  the registry content
+     * @param version the wire format version
+     */
+    public static void writeServiceInfoHolder(final Buffer buffer, final ServiceInfoHolder holder, final byte version) {
+        final Writer writer = new Writer(version);
+        final List<ServiceInfo> infos = holder.getAll();
+        BufferTool.appendVarInt(writer.body, infos.size());
+        infos.forEach(writer::writeServiceInfo);
+        writer.appendTo(buffer);
+    }
+
+    /**
+     * Reads a ServiceInfoHolder starting at the given position
+     *
+     * @param buffer the wire buffer
+     * @param pos    the start position
+     * @return the registry content
+     */
+    public static ServiceInfoHolder readServiceInfoHolder(final Buffer buffer, final int pos) {
+        final Reader reader = new Reader(buffer, pos);
+        final int size = reader.in.readVarInt();
+        final List<ServiceInfo> infos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            infos.add(reader.readServiceInfo());
+        }
+        return new ServiceInfoHolder(infos);
+    }
+
+    private static byte checkVersion(final byte version) {
+        if (version < MIN_VERSION || version > VERSION) throw new IllegalStateException("unsupported service info wire format version: " + version);
+        return version;
+    }
+
+    private static class Writer {
+        private final Map<String, Integer> strings = new LinkedHashMap<>();
+        private final Buffer body = Buffer.buffer();
+        private final byte version;
+
+        private Writer(final byte version) {
+            this.version = checkVersion(version);
+        }
+
+        private void writeServiceInfo(final ServiceInfo info) {
+            writeString(info.getServiceName());
+            writeString(info.getLastConnection());
+            writeString(info.getHostName());
+            writeString(info.getServiceURL());
+            writeString(info.getDescription());
+            BufferTool.appendVarInt(body, info.getPort() != null ? info.getPort() + 1 : NO_PORT);
+            final Operation[] operations = info.getOperations();
+            BufferTool.appendVarInt(body, operations.length);
+            for (Operation operation : operations) {
+                writeOperation(operation);
+            }
+            if (version < INSTANCES_VERSION) return;
+            BufferTool.appendVarInt(body, info.getInstances());
+            writeStringArray(info.getInstanceAddresses());
+        }
+
+        private void writeOperation(final Operation operation) {
+            writeString(operation.getName());
+            writeString(operation.getDescription());
+            writeString(operation.getUrl());
+            writeString(operation.getType());
+            writeStringArray(operation.getProduces());
+            writeStringArray(operation.getConsumes());
+            writeString(operation.getServiceName());
+            writeString(operation.getConnectionHost());
+            BufferTool.appendVarInt(body, operation.getConnectionPort());
+            writeStringArray(operation.getParameter());
+            if (version >= SCHEMA_VERSION) writeStringArray(operation.getSchema());
+            if (version >= LIMITS_VERSION) {
+                BufferTool.appendVarInt(body, operation.getMaxInFlight());
+                BufferTool.appendVarInt(body, operation.getMaxQueued());
+            }
+            if (version >= IDEMPOTENT_VERSION) body.appendByte((byte) (operation.isIdempotent() ? 1 : 0));
+        }
+
+        private void writeStringArray(final String[] values) {
+            if (values == null) {
+                BufferTool.appendVarInt(body, 0);
+                return;
+            }
+            BufferTool.appendVarInt(body, values.length + 1);
+            for (String value : values) {
+                writeString(value);
+            }
+        }
+
+        private void writeString(final String value) {
+            if (value == null) {
+                BufferTool.appendVarInt(body, 0);
+                return;
+            }
+            Integer index = strings.get(value);
+            if (index == null) {
+                index = strings.size();
+                strings.put(value, index);
+            }
+            BufferTool.appendVarInt(body, index + 1);
+        }
+
+        private void appendTo(final Buffer buffer) {
+            buffer.appendByte(version);
+            BufferTool.appendVarInt(buffer, strings.size());
+            strings.keySet().forEach(value -> BufferTool.appendString(buffer, value));
+            buffer.appendBuffer(body);
+        }
+    }
+
+    private static class Reader {
+        private final BufferTool.Reader in;
+        private final String[] strings;
+        private final byte version;
+
+        private Reader(final Buffer buffer, final int pos) {
+            this.in = new BufferTool.Reader(buffer, pos);
+            this.version = checkVersion(in.readByte());
+            this.strings = new String[in.readVarInt()];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = in.readString();
+            }
+        }
+
+        private ServiceInfo readServiceInfo() {
+            final String serviceName = readString();
+            final String lastConnection = readString();
+            final String hostName = readString();
+            final String serviceURL = readString();
+            final String description = readString();
+            final int port = in.readVarInt();
+            final Operation[] operations = new Operation[in.readVarInt()];
+            for (int i = 0; i < operations.length; i++) {
+                operations[i] = readOperation();
+            }
+            final ServiceInfo info = new ServiceInfo(serviceName, lastConnection, hostName, serviceURL, description, port != NO_PORT ? port - 1 : null, operations);
+            if (version >= INSTANCES_VERSION) {
+                info.setInstances(in.readVarInt());
+                info.setInstanceAddresses(readStringArray());
+            }
+            return info;
+        }
+
+        private Operation readOperation() {
+            final String name = readString();
+            final String description = readString();
+            final String url = readString();
+            final String type = readString();
+            final String[] produces = readStringArray();
+            final String[] consumes = readStringArray();
+            final String serviceName = readString();
+            final String connectionHost = readString();
+            final int connectionPort = in.readVarInt();
+            final String[] parameter = readStringArray();
+            final Operation operation = new Operation(name, description, url, type, produces, consumes, serviceName, connectionHost, connectionPort, null, parameter);
+            if (version >= SCHEMA_VERSION) operation.setSchema(readStringArray());
+            if (version >= LIMITS_VERSION) {
+                operation.setMaxInFlight(in.readVarInt());
+                operation.setMaxQueued(in.readVarInt());
+            }
+            if (version >= IDEMPOTENT_VERSION) operation.setIdempotent(in.readByte() != 0);
+            return operation;
+        }
+
+        private String[] readStringArray() {
+            final int size = in.readVarInt();
+            if (size == 0) return null;
+            final String[] values = new String[size - 1];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = readString();
+            }
+            return values;
+        }
+
+        private String readString() {
+            final int index = in.readVarInt();
+            return index == 0 ? null : strings[index - 1];
+        }
+    }
+}
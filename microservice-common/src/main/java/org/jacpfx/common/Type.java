@@ -1,8 +1,30 @@
 package org.jacpfx.common;
 
+import io.vertx.core.http.HttpMethod;
+
 /**
  * Created by amo on 29.10.14.
  */
 public enum Type {
-   WEBSOCKET, EVENTBUS, REST_POST,REST_GET
+   WEBSOCKET, EVENTBUS, REST_POST,REST_GET, REST_PUT, REST_DELETE, REST_PATCH;
+
+    /**
+     * @return the http method of a REST operation, null for other operation types
+     */
+    public HttpMethod httpMethod() {
+        switch (this) {
+            case REST_GET:
+                return HttpMethod.GET;
+            case REST_POST:
+                return HttpMethod.POST;
+            case REST_PUT:
+                return HttpMethod.PUT;
+            case REST_DELETE:
+                return HttpMethod.DELETE;
+            case REST_PATCH:
+                return HttpMethod.PATCH;
+            default:
+                return null;
+        }
+    }
 }
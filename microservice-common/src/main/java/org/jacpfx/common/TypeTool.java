@@ -81,9 +81,9 @@ public class TypeTool {
 
     public static String trySerializeToString(Object o) {
         if (o instanceof JsonObject) {
-           return JsonObject.class.cast(o).encodePrettily();
+           return JsonObject.class.cast(o).encode();
         } else if(o instanceof JsonArray) {
-            return JsonArray.class.cast(o).encodePrettily();
+            return JsonArray.class.cast(o).encode();
         } else if(o instanceof Character
                 || o instanceof Double
                 || o instanceof Float
@@ -113,20 +113,21 @@ public class TypeTool {
 
     public static byte[] serialize(Object obj) throws IOException {
         final ByteArrayOutputStream b = new ByteArrayOutputStream();
-        final ObjectOutputStream o = new ObjectOutputStream(b);
-        o.writeObject(obj);
+        try (ObjectOutputStream o = new ObjectOutputStream(b)) {
+            o.writeObject(obj);
+        }
         return b.toByteArray();
     }
 
     public static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
-        final ByteArrayInputStream b = new ByteArrayInputStream(bytes);
-        final ObjectInputStream o = new ObjectInputStream(b);
-        return o.readObject();
+        try (ObjectInputStream o = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return o.readObject();
+        }
     }
 
     public static <T> T typedDeserialize(byte[] bytes, Class<T> clazz) throws IOException, ClassNotFoundException {
-        final ByteArrayInputStream b = new ByteArrayInputStream(bytes);
-        final ObjectInputStream o = new ObjectInputStream(b);
-        return clazz.cast(o.readObject());
+        try (ObjectInputStream o = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return clazz.cast(o.readObject());
+        }
     }
 }
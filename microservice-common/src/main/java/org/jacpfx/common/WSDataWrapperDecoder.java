@@ -0,0 +1,48 @@
+package org.jacpfx.common;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+
+/**
+ * Event bus codec for incoming WebSocket frames. Local delivery passes the wrapper instance, clustered delivery writes the endpoint ids followed by the raw frame bytes.
+ */
+public class WSDataWrapperDecoder implements MessageCodec<WSDataWrapper, WSDataWrapper> {
+
+    @Override
+    public void encodeToWire(Buffer buffer, WSDataWrapper wrapper) {
+        appendEndpoint(buffer, wrapper.getEndpoint());
+        BufferTool.appendBytes(buffer, wrapper.getData());
+    }
+
+    @Override
+    public WSDataWrapper decodeFromWire(int pos, Buffer buffer) {
+        final BufferTool.Reader reader = new BufferTool.Reader(buffer, pos);
+        final WSEndpoint endpoint = readEndpoint(reader);
+        return new WSDataWrapper(endpoint, reader.readBytes());
+    }
+
+    @Override
+    public WSDataWrapper transform(WSDataWrapper wrapper) {
+        return wrapper;
+    }
+
+    @Override
+    public String name() {
+        return "WSDataWrapperDecoder";
+    }
+
+    @Override
+    public byte systemCodecID() {
+        return -1;
+    }
+
+    static void appendEndpoint(final Buffer buffer, final WSEndpoint endpoint) {
+        BufferTool.appendString(buffer, endpoint.getBinaryHandlerId());
+        BufferTool.appendString(buffer, endpoint.getTextHandlerId());
+        BufferTool.appendString(buffer, endpoint.getUrl());
+    }
+
+    static WSEndpoint readEndpoint(final BufferTool.Reader reader) {
+        return new WSEndpoint(reader.readString(), reader.readString(), reader.readString());
+    }
+}
@@ -3,8 +3,8 @@ package org.jacpfx.common;
 import io.vertx.core.eventbus.EventBus;
 import io.vertx.core.json.JsonObject;
 import org.jacpfx.common.constants.GlobalKeyHolder;
+import org.jacpfx.common.spi.BinaryCodec;
 
-import java.io.IOException;
 import java.io.Serializable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
@@ -22,17 +22,26 @@ public class WSMessageReply {
     private final EventBus bus;
     private final String localReply, replyToAll, replyToAllButSender, selfHostedPostfix;
     private final boolean selfhosted;
+    private final BinaryCodec codec;
+    private final int compressionThreshold;
 
     public WSMessageReply() {
        this(null,null,null,null,null,null,false);
     }
 
     public WSMessageReply(WSEndpoint endpoint, EventBus bus, JsonObject config) {
-        this(endpoint, bus, config.getString("wsReplyPath", GlobalKeyHolder.WS_REPLY), config.getString("wsReplyToAllPath", GlobalKeyHolder.WS_REPLY_TO_ALL), config.getString("wsReplyToAllButSenderPath", GlobalKeyHolder.WS_REPLY_TO_ALL_BUT_ME), config.getString("selfhosted-host",""),config.getBoolean("selfhosted",false));
+        this(endpoint, bus, config.getString("wsReplyPath", GlobalKeyHolder.WS_REPLY), config.getString("wsReplyToAllPath", GlobalKeyHolder.WS_REPLY_TO_ALL), config.getString("wsReplyToAllButSenderPath", GlobalKeyHolder.WS_REPLY_TO_ALL_BUT_ME), config.getString("selfhosted-host",""),config.getBoolean("selfhosted",false),
+                Serializer.getCodec(config.getString(Serializer.CODEC_CONFIG_KEY, Serializer.DEFAULT_CODEC)), config.getInteger(Compression.THRESHOLD_CONFIG_KEY, Compression.DISABLED));
     }
 
     public WSMessageReply(WSEndpoint endpoint, EventBus bus, String localReply, String replyToAll, String replyToAllButSender,String selfHostedPostfix, boolean selfhosted) {
+        this(endpoint, bus, localReply, replyToAll, replyToAllButSender, selfHostedPostfix, selfhosted, null, Compression.DISABLED);
+    }
+
+    public WSMessageReply(WSEndpoint endpoint, EventBus bus, String localReply, String replyToAll, String replyToAllButSender,String selfHostedPostfix, boolean selfhosted, BinaryCodec codec, int compressionThreshold) {
         this.endpoint = endpoint;
+        this.codec = codec;
+        this.compressionThreshold = compressionThreshold;
         this.bus = bus;
         this.selfHostedPostfix = selfHostedPostfix;
         this.selfhosted = selfhosted;
@@ -57,30 +66,24 @@ public class WSMessageReply {
 
     private void replyAsyncExecution(final String url, Supplier<Serializable> execute,WSReply to) {
        CompletableFuture.supplyAsync(execute, EXECUTOR).
-               thenApplyAsync(val -> serializeResult(val, to)).
-               thenAcceptAsync(serializedResult -> bus.send(url, serializedResult));
+               thenApplyAsync(val -> wrapResult(val, to)).
+               thenAcceptAsync(wrappedResult -> bus.send(url, wrappedResult));
     }
 
-    private byte[] serializeResult(Serializable resultValue, WSReply to) {
-        byte[] result = new byte[0];
-        try {
-            result = Serializer.serialize(new WSMessageWrapper(endpoint, resultValue, resultValue.getClass(), to));
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return result;
+    private WSMessageWrapper wrapResult(Serializable resultValue, WSReply to) {
+        return new WSMessageWrapper(endpoint, resultValue, resultValue.getClass(), to, codec, compressionThreshold);
     }
 
     public void reply(Serializable message) {
-        bus.send(this.localReply, serializeResult(message, WSReply.SENDER));
+        bus.send(this.localReply, wrapResult(message, WSReply.SENDER));
 
     }
 
     public void replyToAll(Serializable message) {
-        bus.send(this.replyToAll, serializeResult(message, WSReply.ALL));
+        bus.send(this.replyToAll, wrapResult(message, WSReply.ALL));
     }
 
     public void replyToAllButSender(Serializable message) {
-        bus.send(this.replyToAllButSender, serializeResult(message, WSReply.ALL_BUT_SENDER));
+        bus.send(this.replyToAllButSender, wrapResult(message, WSReply.ALL_BUT_SENDER));
     }
 }
@@ -1,5 +1,7 @@
 package org.jacpfx.common;
 
+import org.jacpfx.common.spi.BinaryCodec;
+
 import java.io.Serializable;
 
 /**
@@ -11,12 +13,26 @@ public class WSMessageWrapper implements Serializable{
     private final Class<?> bodyType;
     private final WSReply replyeType;
     private final WSEndpoint endpoint;
+    private final transient BinaryCodec codec;
+    private final transient int compressionThreshold;
 
     public WSMessageWrapper(final WSEndpoint endpoint,Serializable body,Class<?> bodyType,WSReply replyeType) {
+        this(endpoint, body, bodyType, replyeType, null, Compression.DISABLED);
+    }
+
+    /**
+     * Creates a wrapper encoded with the settings of the replying verticle when it is sent over the wire
+     *
+     * @param codec                the binary codec for the body, null for the event bus default
+     * @param compressionThreshold the body size (in bytes) above which the body is compressed, ignored without codec
+     */
+    public WSMessageWrapper(final WSEndpoint endpoint,Serializable body,Class<?> bodyType,WSReply replyeType,BinaryCodec codec,int compressionThreshold) {
          this.body = body;
         this.bodyType = bodyType;
         this.replyeType = replyeType;
         this.endpoint = endpoint;
+        this.codec = codec;
+        this.compressionThreshold = compressionThreshold;
     }
 
     public Serializable getBody() {
@@ -34,4 +50,15 @@ public class WSMessageWrapper implements Serializable{
     public WSEndpoint getEndpoint() {
         return endpoint;
     }
+
+    /**
+     * @return the binary codec of the replying verticle, null for the event bus default
+     */
+    public BinaryCodec getCodec() {
+        return codec;
+    }
+
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
 }
@@ -0,0 +1,152 @@
+package org.jacpfx.common;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+import org.jacpfx.common.spi.BinaryCodec;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Event bus codec for WebSocket replies. Local delivery passes the wrapper instance, clustered delivery writes a header (endpoint ids, reply type) followed by the raw body bytes.
+ * The body type is not written, the receiver takes it from the decoded body.
+ * String and byte[] bodies are written as they are, all other bodies are encoded with the BinaryCodec of the wrapper. Bodies above the compression threshold of the wrapper are deflated.
+ * Wrappers without own settings use the codec and threshold of this decoder.
+ */
+public class WSMessageWrapperDecoder implements MessageCodec<WSMessageWrapper, WSMessageWrapper> {
+
+    private static final byte BODY_NULL = 0;
+    private static final byte BODY_STRING = 1;
+    private static final byte BODY_BYTES = 2;
+    private static final byte BODY_ENCODED = 3;
+    private static final byte BODY_COMPRESSED = (byte) 0x80;
+
+    private final BinaryCodec codec;
+    private final int compressionThreshold;
+
+    public WSMessageWrapperDecoder() {
+        this(Serializer.getCodec(Serializer.DEFAULT_CODEC));
+    }
+
+    public WSMessageWrapperDecoder(BinaryCodec codec) {
+        this(codec, Compression.DISABLED);
+    }
+
+    public WSMessageWrapperDecoder(BinaryCodec codec, int compressionThreshold) {
+        this.codec = codec;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public void encodeToWire(Buffer buffer, WSMessageWrapper wrapper) {
+        WSDataWrapperDecoder.appendEndpoint(buffer, wrapper.getEndpoint());
+        buffer.appendByte((byte) (wrapper.getReplyeType() != null ? wrapper.getReplyeType().ordinal() : -1));
+        final Serializable body = wrapper.getBody();
+        final BinaryCodec codec = wrapper.getCodec() != null ? wrapper.getCodec() : this.codec;
+        final int compressionThreshold = wrapper.getCodec() != null ? wrapper.getCompressionThreshold() : this.compressionThreshold;
+        if (body == null) {
+            buffer.appendByte(BODY_NULL);
+        } else if (body instanceof String) {
+            appendBody(buffer, BODY_STRING, ((String) body).getBytes(StandardCharsets.UTF_8), wrapper.getEndpoint(), compressionThreshold);
+        } else if (body instanceof byte[]) {
+            appendBody(buffer, BODY_BYTES, (byte[]) body, wrapper.getEndpoint(), compressionThreshold);
+        } else {
+            try {
+                appendEncodedBody(buffer, body, wrapper.getEndpoint(), codec, compressionThreshold);
+            } catch (IOException e) {
+                throw new IllegalStateException("unable to encode WebSocket reply", e);
+            }
+        }
+    }
+
+    private static void appendEncodedBody(final Buffer buffer, final Serializable body, final WSEndpoint endpoint, final BinaryCodec codec,
+                                          final int compressionThreshold) throws IOException {
+        if (compressionThreshold == Compression.DISABLED) {
+            buffer.appendByte(BODY_ENCODED);
+            BufferTool.appendSerialized(buffer, body, codec);
+            return;
+        }
+        final Buffer scratch = BufferTool.acquireScratch();
+        try {
+            Serializer.serialize(body, codec, scratch);
+            if (Compression.isRequired(scratch.length(), compressionThreshold)) {
+                appendBody(buffer, BODY_ENCODED, scratch.getBytes(), endpoint, compressionThreshold);
+            } else {
+                buffer.appendByte(BODY_ENCODED);
+                buffer.appendInt(scratch.length());
+                buffer.appendBuffer(scratch);
+            }
+        } finally {
+            BufferTool.releaseScratch(scratch);
+        }
+    }
+
+    private static void appendBody(final Buffer buffer, final byte kind, final byte[] body, final WSEndpoint endpoint, final int compressionThreshold) {
+        if (Compression.isRequired(body.length, compressionThreshold)) {
+            final byte[] deflated = Compression.deflate(body, endpoint != null ? endpoint.getUrl() : null);
+            if (deflated.length < body.length) {
+                buffer.appendByte((byte) (kind | BODY_COMPRESSED));
+                buffer.appendInt(body.length);
+                BufferTool.appendBytes(buffer, deflated);
+                return;
+            }
+        }
+        buffer.appendByte(kind);
+        BufferTool.appendBytes(buffer, body);
+    }
+
+    @Override
+    public WSMessageWrapper decodeFromWire(int pos, Buffer buffer) {
+        final BufferTool.Reader reader = new BufferTool.Reader(buffer, pos);
+        final WSEndpoint endpoint = WSDataWrapperDecoder.readEndpoint(reader);
+        final byte replyType = reader.readByte();
+        try {
+            final Serializable body = readBody(reader);
+            return new WSMessageWrapper(endpoint,
+                    body,
+                    body != null ? body.getClass() : null,
+                    replyType >= 0 ? WSReply.values()[replyType] : null);
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("unable to decode WebSocket reply", e);
+        }
+    }
+
+    private Serializable readBody(final BufferTool.Reader reader) throws IOException, ClassNotFoundException {
+        final byte kind = reader.readByte();
+        if (kind == BODY_NULL) return null;
+        if (kind == BODY_ENCODED) return (Serializable) reader.readSerialized();
+        final byte[] body = (kind & BODY_COMPRESSED) != 0 ? readCompressed(reader) : reader.readBytes();
+        switch (kind & ~BODY_COMPRESSED) {
+            case BODY_STRING:
+                return new String(body, StandardCharsets.UTF_8);
+            case BODY_BYTES:
+                return body;
+            case BODY_ENCODED:
+                return (Serializable) Serializer.deserialize(body);
+            default:
+                return null;
+        }
+    }
+
+    private byte[] readCompressed(final BufferTool.Reader reader) throws IOException {
+        final int length = reader.readInt();
+        final byte[] deflated = reader.readBytes();
+        return Compression.inflate(deflated, 0, deflated.length, length);
+    }
+
+    @Override
+    public WSMessageWrapper transform(WSMessageWrapper wrapper) {
+        return wrapper;
+    }
+
+    @Override
+    public String name() {
+        return "WSMessageWrapperDecoder";
+    }
+
+    @Override
+    public byte systemCodecID() {
+        return -1;
+    }
+}
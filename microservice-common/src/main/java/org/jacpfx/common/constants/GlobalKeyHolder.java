@@ -11,6 +11,24 @@ public class GlobalKeyHolder {
     public static final String SERVICE_HOLDER = "serviceHolder";
     public static final String REGISTRY_MAP_KEY = "registry";
     public static final int DEFAULT_SERVICE_TIMEOUT = 10000;
+    /**
+     * The failure code of requests rejected by an overloaded service operation, answered with http status 503
+     */
+    public static final int OVERLOADED = 503;
+    /**
+     * The header of the chunk messages of a streamed REST response, the value is CHUNK or LAST_CHUNK for the last one
+     */
+    public static final String CHUNKED = "chunked";
+    public static final String CHUNK = "chunk";
+    public static final String LAST_CHUNK = "last";
+    /**
+     * The header of the first chunk message carrying the content type of the streamed result
+     */
+    public static final String CONTENT_TYPE = "contentType";
+    /**
+     * The header of cached REST replies, the value is the ETag of the reply body
+     */
+    public static final String ETAG = "etag";
     public static final String WS_REPLY = "ws.reply";
     public static final String WS_REPLY_TO_ALL = "ws.replyToAll";
     public static final String WS_REPLY_TO_ALL_BUT_ME = "ws.replyToAllButMe";
@@ -1,24 +1,29 @@
 package org.jacpfx.common.handler;
 
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
 import io.vertx.core.VoidHandler;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.eventbus.EventBus;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServerRequest;
+import org.jacpfx.common.JSONConverters;
 import org.jacpfx.common.Parameter;
-import org.jacpfx.common.Serializer;
-import org.jacpfx.common.TypeTool;
+import org.jacpfx.common.ResponseEncoder;
+import org.jacpfx.common.constants.GlobalKeyHolder;
 import org.jacpfx.common.util.CustomRouteMatcher;
 
-import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Created by Andy Moncsek on 26.03.15.
@@ -28,36 +33,116 @@ public class LocalRESTHandler {
     private final CustomRouteMatcher routeMatcher;
     private final int defaultServiceTimeout;
     private final Set<String> registeredRoutes;
+    private final ResponseEncoder responseEncoder;
 
     public LocalRESTHandler(CustomRouteMatcher routeMatcher, int defaultServiceTimeout, Set<String> registeredRoutes) {
+        this(routeMatcher, defaultServiceTimeout, registeredRoutes, new ResponseEncoder(JSONConverters.getConverter(JSONConverters.DEFAULT_CONVERTER)));
+    }
+
+    public LocalRESTHandler(CustomRouteMatcher routeMatcher, int defaultServiceTimeout, Set<String> registeredRoutes, ResponseEncoder responseEncoder) {
         this.routeMatcher = routeMatcher;
+        this.responseEncoder = responseEncoder;
         this.defaultServiceTimeout = defaultServiceTimeout;
         this.registeredRoutes = registeredRoutes;
     }
 
     public void handleRESTGetRegistration(final EventBus eventBus, final String url, final String[] mimes) {
-        routeMatcher.matchMethod(HttpMethod.GET, url, request ->
+        handleRESTGetRegistration(eventBus, url, mimes, 0, 0);
+    }
+
+    /**
+     * registers a REST GET route, with an in-flight limit the route answers 503 with Retry-After as soon as maxInFlight + maxQueued requests are outstanding
+     *
+     * @param eventBus    the vert.x event bus
+     * @param url         the request URL
+     * @param mimes       the service mime types
+     * @param maxInFlight the in-flight limit of the operation, 0 for unlimited
+     * @param maxQueued   the queue limit of the operation
+     */
+    public void handleRESTGetRegistration(final EventBus eventBus, final String url, final String[] mimes, final int maxInFlight, final int maxQueued) {
+        handleRESTRegistration(HttpMethod.GET, eventBus, url, mimes, maxInFlight, maxQueued);
+    }
+
+    public void handleRESTPostRegistration(final EventBus eventBus, final String url, final String[] mimes) {
+        handleRESTPostRegistration(eventBus, url, mimes, 0, 0);
+    }
+
+    /**
+     * registers a REST POST route, with an in-flight limit the route answers 503 with Retry-After as soon as maxInFlight + maxQueued requests are outstanding
+     *
+     * @param eventBus    the vert.x event bus
+     * @param url         the request URL
+     * @param mimes       the service mime types
+     * @param maxInFlight the in-flight limit of the operation, 0 for unlimited
+     * @param maxQueued   the queue limit of the operation
+     */
+    public void handleRESTPostRegistration(final EventBus eventBus, final String url, final String[] mimes, final int maxInFlight, final int maxQueued) {
+        handleRESTRegistration(HttpMethod.POST, eventBus, url, mimes, maxInFlight, maxQueued);
+    }
+
+    /**
+     * registers a REST route, GET requests pass the request parameters, other methods the request and form parameters once the body is read
+     *
+     * @param method      the http method
+     * @param eventBus    the vert.x event bus
+     * @param url         the request URL
+     * @param mimes       the service mime types
+     * @param maxInFlight the in-flight limit of the operation, 0 for unlimited
+     * @param maxQueued   the queue limit of the operation
+     */
+    public void handleRESTRegistration(final HttpMethod method, final EventBus eventBus, final String url, final String[] mimes, final int maxInFlight, final int maxQueued) {
+        handleRESTRegistration(method, eventBus, url, mimes, maxInFlight, maxQueued, false);
+    }
+
+    /**
+     * registers a REST route, GET requests pass the request parameters, other methods the request and form parameters once the body is read.
+     * Concurrent identical GET requests to an idempotent operation are sent once, the reply is passed to all of them.
+     *
+     * @param method      the http method
+     * @param eventBus    the vert.x event bus
+     * @param url         the request URL
+     * @param mimes       the service mime types
+     * @param maxInFlight the in-flight limit of the operation, 0 for unlimited
+     * @param maxQueued   the queue limit of the operation
+     * @param idempotent  true to coalesce identical GET requests
+     */
+    public void handleRESTRegistration(final HttpMethod method, final EventBus eventBus, final String url, final String[] mimes, final int maxInFlight, final int maxQueued,
+                                       final boolean idempotent) {
+        final AtomicInteger outstanding = maxInFlight > 0 ? new AtomicInteger() : null;
+        if (method == HttpMethod.GET) {
+            final Map<String, List<HttpServerRequest>> flights = idempotent ? new HashMap<>() : null;
+            routeMatcher.matchMethod(method, url, request -> {
+                        final String flightKey = flights != null ? flightKey(request) : null;
+                        if (flightKey != null && !joinFlight(flights, flightKey, request)) return;
                         handleRestRequest(eventBus,
                                 request,
                                 url,
-                                getParameterEntity(request.params()),
+                                Parameter.of(request.params()),
                                 Arrays.asList(mimes),
-                                defaultServiceTimeout)
-        );
-    }
-
-    public void handleRESTPostRegistration(final EventBus eventBus, final String url, final String[] mimes) {
-        routeMatcher.matchMethod(HttpMethod.POST, url, request -> {
+                                defaultServiceTimeout,
+                                outstanding,
+                                maxInFlight + maxQueued,
+                                flights,
+                                flightKey);
+                    }
+            );
+            return;
+        }
+        routeMatcher.matchMethod(method, url, request -> {
                     request.setExpectMultipart(true);
                     request.endHandler(new VoidHandler() {
                         public void handle() {
-                            final MultiMap attrs = request.formAttributes();
+                            final MultiMap attrs = MultiMap.caseInsensitiveMultiMap().addAll(request.params()).addAll(request.formAttributes());
                             handleRestRequest(eventBus,
                                     request,
                                     url,
-                                    getParameterEntity(attrs),
+                                    Parameter.of(attrs),
                                     Arrays.asList(mimes),
-                                    defaultServiceTimeout);
+                                    defaultServiceTimeout,
+                                    outstanding,
+                                    maxInFlight + maxQueued,
+                                    null,
+                                    null);
                         }
                     });
                 }
@@ -71,43 +156,94 @@ public class LocalRESTHandler {
         }
     }
 
+    /**
+     * @return the key of identical GET requests, the request uri and the accepted mime type
+     */
+    private static String flightKey(final HttpServerRequest request) {
+        return request.uri() + "\n" + request.headers().get("Accept");
+    }
+
+    /**
+     * Adds a GET request to the requests waiting for the reply to an identical request
+     *
+     * @return true if no identical request is pending and the request has to be sent
+     */
+    private static boolean joinFlight(final Map<String, List<HttpServerRequest>> flights, final String key, final HttpServerRequest request) {
+        final List<HttpServerRequest> waiting = flights.get(key);
+        if (waiting != null) {
+            waiting.add(request);
+            return false;
+        }
+        flights.put(key, new ArrayList<>());
+        return true;
+    }
+
     /**
      * handles REST requests
      *
-     * @param eventBus   the vert.x event bus
-     * @param request    the http request
-     * @param url        the request URL
-     * @param parameters the request parameters
-     * @param mimes      the service mime types
-     * @param timeout    the default timeout
+     * @param eventBus    the vert.x event bus
+     * @param request     the http request
+     * @param url         the request URL
+     * @param parameters  the request parameters
+     * @param mimes       the service mime types
+     * @param timeout     the default timeout
+     * @param outstanding the outstanding requests of the route, null when unlimited
+     * @param limit       the maximum of outstanding requests
+     * @param flights     the requests waiting for identical requests, null if the route is not coalesced
+     * @param flightKey   the key of the waiting requests, null if the request is not coalesced
      */
     private void handleRestRequest(final EventBus eventBus,
                                    HttpServerRequest request,
                                    final String url,
                                    final Parameter parameters,
                                    final List<String> mimes,
-                                   final int timeout) {
+                                   final int timeout,
+                                   final AtomicInteger outstanding,
+                                   final int limit,
+                                   final Map<String, List<HttpServerRequest>> flights,
+                                   final String flightKey) {
+        if (outstanding != null && outstanding.incrementAndGet() > limit) {
+            outstanding.decrementAndGet();
+            responseEncoder.overloaded(request.response(), "too many requests for " + url);
+            if (flightKey != null) flights.remove(flightKey).forEach(r -> responseEncoder.overloaded(r.response(), "too many requests for " + url));
+            return;
+        }
         eventBus.
                 send(
                         url,
-                        getSerializedParameters(parameters),
+                        parameters,
                         new DeliveryOptions().setSendTimeout(timeout),
-                        event -> createRestResponse(request, mimes, event));
+                        event -> {
+                            // a streamed reply keeps its slot until the last chunk is written
+                            final Handler<Void> release = outstanding != null ? v -> outstanding.decrementAndGet() : null;
+                            final boolean streamed = event.succeeded() && ResponseEncoder.isChunked(event.result());
+                            if (release != null && !streamed) release.handle(null);
+                            createRestResponse(request, mimes, event, streamed ? release : null);
+                            if (flightKey != null) completeFlight(eventBus, url, parameters, mimes, timeout, outstanding, limit, flights.remove(flightKey), event);
+                        });
     }
 
-
-    private byte[] getSerializedParameters(final Parameter parameters) {
-        byte[] parameter = new byte[0];
-        try {
-            parameter = Serializer.serialize(parameters);
-        } catch (IOException e) {
-            e.printStackTrace();
+    /**
+     * passes the reply to the waiting identical requests, a streamed reply can only be piped to one response, so they are sent on their own
+     */
+    private void completeFlight(final EventBus eventBus,
+                                final String url,
+                                final Parameter parameters,
+                                final List<String> mimes,
+                                final int timeout,
+                                final AtomicInteger outstanding,
+                                final int limit,
+                                final List<HttpServerRequest> waiting,
+                                final AsyncResult<Message<Object>> event) {
+        if (event.succeeded() && ResponseEncoder.isChunked(event.result())) {
+            waiting.forEach(r -> handleRestRequest(eventBus, r, url, parameters, mimes, timeout, outstanding, limit, null, null));
+        } else {
+            waiting.forEach(r -> createRestResponse(r, mimes, event, null));
         }
-        return parameter;
     }
 
 
-    private void createRestResponse(HttpServerRequest request, final List<String> mimes, AsyncResult<Message<Object>> event) {
+    private void createRestResponse(HttpServerRequest request, final List<String> mimes, AsyncResult<Message<Object>> event, Handler<Void> endHandler) {
         if (mimes != null && mimes.size() > 0) {
             final String accept = request.headers().get("Accept");
             if (accept != null) {
@@ -119,40 +255,27 @@ public class LocalRESTHandler {
             }
         }
 
-        handleRESTEvent(event, request);
+        handleRESTEvent(event, request, endHandler);
     }
 
 
     /**
-     * handles REST events (POST,GET,...)
+     * handles REST events (POST,GET,...), streamed results are piped through chunk by chunk, cached results are answered with their ETag
      *
-     * @param event   the async event
-     * @param request the HTTP request
+     * @param event      the async event
+     * @param request    the HTTP request
+     * @param endHandler called at the end of a streamed result, may be null
      */
-    private void handleRESTEvent(AsyncResult<Message<Object>> event, HttpServerRequest request) {
-        if (event.succeeded()) {
-            final Object result = event.result().body();
-            if (result == null) request.response().end();
-            final String stringResult = TypeTool.trySerializeToString(result);
-            if (stringResult != null) {
-                request.response().end(stringResult);
-            } else {
-                request.response().end();
-            }
-
+    private void handleRESTEvent(AsyncResult<Message<Object>> event, HttpServerRequest request, Handler<Void> endHandler) {
+        if (event.succeeded() && ResponseEncoder.isChunked(event.result())) {
+            responseEncoder.endChunked(request.response(), event.result(), defaultServiceTimeout, endHandler);
+        } else if (event.succeeded() && event.result().headers().contains(GlobalKeyHolder.ETAG)) {
+            responseEncoder.endCached(request, (Buffer) event.result().body(), event.result().headers().get(GlobalKeyHolder.ETAG));
+        } else if (event.succeeded()) {
+            responseEncoder.end(request.response(), event.result().body());
         } else {
-            // TODO define configurable ERROR message
-            request.response().end("error");
+            responseEncoder.fail(request.response(), event.cause());
         }
     }
 
-    private Parameter<String> getParameterEntity(final MultiMap params) {
-        final List<Parameter<String>> parameters = params.
-                entries().
-                stream().
-                map(entry -> new Parameter<>(entry.getKey(), entry.getValue())).
-                collect(Collectors.toList());
-        return new Parameter<>(parameters);
-    }
-
 }
@@ -12,6 +12,7 @@ import io.vertx.core.shareddata.AsyncMap;
 import io.vertx.core.shareddata.SharedData;
 import org.jacpfx.common.*;
 import org.jacpfx.common.constants.GlobalKeyHolder;
+import org.jacpfx.common.spi.BinaryCodec;
 
 import java.io.IOException;
 import java.util.Arrays;
@@ -27,9 +28,15 @@ public class WSClusterHandler implements WebSocketHandler {
     private static final Logger log = LoggerFactory.getLogger(WSClusterHandler.class);
 
     private final Vertx vertx;
+    private final BinaryCodec codec;
 
     public WSClusterHandler(Vertx vertx) {
+        this(vertx, Serializer.getCodec(Serializer.DEFAULT_CODEC));
+    }
+
+    public WSClusterHandler(Vertx vertx, BinaryCodec codec) {
         this.vertx = vertx;
+        this.codec = codec;
     }
 
 
@@ -42,18 +49,18 @@ public class WSClusterHandler implements WebSocketHandler {
     }
 
     @Override
-    public void replyToWSCaller(Message<byte[]> message) {
+    public void replyToWSCaller(Message<WSMessageWrapper> message) {
         try {
             log("REDIRECT: " + this);
-            final WSMessageWrapper wrapper = (WSMessageWrapper) Serializer.deserialize(message.body());
+            final WSMessageWrapper wrapper = message.body();
             final String stringResult = TypeTool.trySerializeToString(wrapper.getBody());
             if (stringResult != null) {
                 vertx.eventBus().send(wrapper.getEndpoint().getTextHandlerId(), stringResult);
             } else {
-                vertx.eventBus().send(wrapper.getEndpoint().getBinaryHandlerId(), Serializer.serialize(wrapper.getBody()));
+                vertx.eventBus().send(wrapper.getEndpoint().getBinaryHandlerId(), Serializer.serialize(wrapper.getBody(), codec));
             }
 
-        } catch (IOException | ClassNotFoundException e) {
+        } catch (IOException e) {
             e.printStackTrace();
         }
     }
@@ -146,13 +153,8 @@ public class WSClusterHandler implements WebSocketHandler {
     }
 
     private void sendToWSService(final ServerWebSocket serverSocket, final EventBus eventBus, final String path, final WSEndpoint endpoint) {
-        serverSocket.handler(handler -> {
-                    try {
-                        eventBus.send(path, Serializer.serialize(new WSDataWrapper(endpoint, handler.getBytes())), new DeliveryOptions().setSendTimeout(GlobalKeyHolder.DEFAULT_SERVICE_TIMEOUT));
-                    } catch (IOException e) {
-                        e.printStackTrace();
-                    }
-                }
+        serverSocket.handler(handler ->
+                        eventBus.send(path, new WSDataWrapper(endpoint, handler.getBytes()), new DeliveryOptions().setSendTimeout(GlobalKeyHolder.DEFAULT_SERVICE_TIMEOUT))
 
 
         );
@@ -185,12 +187,12 @@ public class WSClusterHandler implements WebSocketHandler {
 
 
 
-    public void replyToAllWS(Message<byte[]> message) {
+    public void replyToAllWS(Message<WSMessageWrapper> message) {
         try {
             log("Reply to all: " + this);
-            final WSMessageWrapper wrapper = (WSMessageWrapper) Serializer.deserialize(message.body());
+            final WSMessageWrapper wrapper = message.body();
             final String stringResult = TypeTool.trySerializeToString(wrapper.getBody());
-            final byte[] payload = stringResult != null ? stringResult.getBytes() : Serializer.serialize(wrapper.getBody());
+            final byte[] payload = stringResult != null ? stringResult.getBytes() : Serializer.serialize(wrapper.getBody(), codec);
             this.vertx.sharedData().<String, WSEndpointHolder>getClusterWideMap(WS_REGISTRY, onSuccess(registryMap -> registryMap.get(WS_ENDPOINT_HOLDER, wsEndpointHolder -> {
                 if (wsEndpointHolder.succeeded() && wsEndpointHolder.result() != null) {
                     final List<WSEndpoint> all = wsEndpointHolder.result().getAll();
@@ -211,7 +213,7 @@ public class WSClusterHandler implements WebSocketHandler {
             })
             ));
 
-        } catch (IOException | ClassNotFoundException e) {
+        } catch (IOException e) {
             e.printStackTrace();
         }
     }
@@ -11,6 +11,7 @@ import io.vertx.core.shareddata.LocalMap;
 import io.vertx.core.shareddata.SharedData;
 import org.jacpfx.common.*;
 import org.jacpfx.common.constants.GlobalKeyHolder;
+import org.jacpfx.common.spi.BinaryCodec;
 
 import java.io.IOException;
 import java.util.Arrays;
@@ -29,9 +30,15 @@ public class WSLocalHandler implements WebSocketHandler {
 
 
     private final Vertx vertx;
+    private final BinaryCodec codec;
 
     public WSLocalHandler(Vertx vertx) {
+        this(vertx, Serializer.getCodec(Serializer.DEFAULT_CODEC));
+    }
+
+    public WSLocalHandler(Vertx vertx, BinaryCodec codec) {
         this.vertx = vertx;
+        this.codec = codec;
     }
 
 
@@ -50,40 +57,43 @@ public class WSLocalHandler implements WebSocketHandler {
         final String binaryHandlerID = serverSocket.binaryHandlerID();
         final String textHandlerID = serverSocket.textHandlerID();
         final LocalMap<String, byte[]> wsRegistry = sharedData.getLocalMap(WS_REGISTRY);
-        final WSEndpointHolder holder = getWSEndpointHolderFromSharedData(wsRegistry);
-        if (holder != null) {
-            final List<WSEndpoint> all = holder.getAll();
-            final Optional<WSEndpoint> first = all.parallelStream().filter(e -> e.getBinaryHandlerId().equals(binaryHandlerID) && e.getTextHandlerId().equals(textHandlerID)).findFirst();
-            first.ifPresent(endpoint -> {
-                holder.remove(endpoint);
-                wsRegistry.replace(WS_ENDPOINT_HOLDER, serialize(holder));
-                log("OK REMOVE: " + serverSocket.binaryHandlerID());
-            });
+        // the instances of a self hosted service update the registry from different event loops
+        synchronized (wsRegistry) {
+            final WSEndpointHolder holder = getWSEndpointHolderFromSharedData(wsRegistry);
+            if (holder != null) {
+                final List<WSEndpoint> all = holder.getAll();
+                final Optional<WSEndpoint> first = all.parallelStream().filter(e -> e.getBinaryHandlerId().equals(binaryHandlerID) && e.getTextHandlerId().equals(textHandlerID)).findFirst();
+                first.ifPresent(endpoint -> {
+                    holder.remove(endpoint);
+                    wsRegistry.replace(WS_ENDPOINT_HOLDER, serialize(holder));
+                    log("OK REMOVE: " + serverSocket.binaryHandlerID());
+                });
+            }
         }
     }
 
 
 
     @Override
-    public void replyToWSCaller(Message<byte[]> message) {
+    public void replyToWSCaller(Message<WSMessageWrapper> message) {
         try {
             log("REDIRECT: " + this);
-            final WSMessageWrapper wrapper = (WSMessageWrapper) Serializer.deserialize(message.body());
+            final WSMessageWrapper wrapper = message.body();
             final String stringResult = TypeTool.trySerializeToString(wrapper.getBody());
-            replyToEndpoint(stringResult, Serializer.serialize(wrapper.getBody()), wrapper.getEndpoint());
+            replyToEndpoint(stringResult, stringResult != null ? null : Serializer.serialize(wrapper.getBody(), codec), wrapper.getEndpoint());
 
-        } catch (IOException | ClassNotFoundException e) {
+        } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
     @Override
-    public void replyToAllWS(Message<byte[]> message) {
+    public void replyToAllWS(Message<WSMessageWrapper> message) {
         try {
             log("Reply to all: " + this);
-            final WSMessageWrapper wrapper = (WSMessageWrapper) Serializer.deserialize(message.body());
+            final WSMessageWrapper wrapper = message.body();
             final String stringResult = TypeTool.trySerializeToString(wrapper.getBody());
-            final byte[] payload = stringResult != null ? stringResult.getBytes() : Serializer.serialize(wrapper.getBody());
+            final byte[] payload = stringResult != null ? stringResult.getBytes() : Serializer.serialize(wrapper.getBody(), codec);
 
             final SharedData sharedData = this.vertx.sharedData();
             final LocalMap<String, byte[]> wsRegistry = sharedData.getLocalMap(WS_REGISTRY);
@@ -99,7 +109,7 @@ public class WSLocalHandler implements WebSocketHandler {
             }
 
 
-        } catch (IOException | ClassNotFoundException e) {
+        } catch (IOException e) {
             e.printStackTrace();
         }
     }
@@ -137,11 +147,11 @@ public class WSLocalHandler implements WebSocketHandler {
     private void createEndpointDefinitionAndRegister(ServerWebSocket serverSocket) {
         final SharedData sharedData = this.vertx.sharedData();
         final LocalMap<String, byte[]> wsRegistry = sharedData.getLocalMap(WS_REGISTRY);
-        final WSEndpointHolder holder = getWSEndpointHolderFromSharedData(wsRegistry);
         final String path = serverSocket.path();
         final WSEndpoint endpoint = new WSEndpoint(serverSocket.binaryHandlerID(), serverSocket.textHandlerID(), path);
-
-        replaceOrAddEndpoint(wsRegistry, holder, endpoint);
+        synchronized (wsRegistry) {
+            replaceOrAddEndpoint(wsRegistry, getWSEndpointHolderFromSharedData(wsRegistry), endpoint);
+        }
 
         sendToWSService(serverSocket, path, endpoint);
 
@@ -174,12 +184,8 @@ public class WSLocalHandler implements WebSocketHandler {
     private void sendToWSService(final ServerWebSocket serverSocket, final String path, final WSEndpoint endpoint) {
         final EventBus eventBus = vertx.eventBus();
         serverSocket.handler(handler -> {
-                    try {
-                        log("send WS:+ " + endpoint.getUrl());
-                        eventBus.send(path, Serializer.serialize(new WSDataWrapper(endpoint, handler.getBytes())), new DeliveryOptions().setSendTimeout(GlobalKeyHolder.DEFAULT_SERVICE_TIMEOUT));
-                    } catch (IOException e) {
-                        e.printStackTrace();
-                    }
+                    log("send WS:+ " + endpoint.getUrl());
+                    eventBus.send(path, new WSDataWrapper(endpoint, handler.getBytes()), new DeliveryOptions().setSendTimeout(GlobalKeyHolder.DEFAULT_SERVICE_TIMEOUT));
                 }
 
 
@@ -5,6 +5,7 @@ import io.vertx.core.Handler;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.http.ServerWebSocket;
 import org.jacpfx.common.Serializer;
+import org.jacpfx.common.WSMessageWrapper;
 
 import java.io.IOException;
 import java.util.function.Consumer;
@@ -23,9 +24,9 @@ public interface WebSocketHandler {
 
     void findRouteSocketInRegistryAndRemove(ServerWebSocket serverSocket);
 
-    void replyToWSCaller(Message<byte[]> message);
+    void replyToWSCaller(Message<WSMessageWrapper> message);
 
-    void replyToAllWS(Message<byte[]> message);
+    void replyToAllWS(Message<WSMessageWrapper> message);
 
     default byte[] serialize(Object payload) {
         try {
@@ -0,0 +1,56 @@
+package org.jacpfx.common.spi;
+
+import io.vertx.core.buffer.Buffer;
+
+import java.io.IOException;
+
+/**
+ * This is a SPI interface for binary codec implementations. A codec is used for all binary event bus payloads (REST parameters, WebSocket frames, ServiceInfo, replies).
+ * Implementations are loaded by ServiceLoader and selected by name with the "binaryCodec" configuration key.
+ * The first byte of every encoded payload must be the codec id, so a receiver is able to decode payloads of every registered codec. The id 0x02 is reserved for compressed payloads.
+ */
+public interface BinaryCodec {
+
+    /**
+     * The unique codec id, written as first byte of every payload
+     *
+     * @return the codec id
+     */
+    byte id();
+
+    /**
+     * The codec name used in the verticle configuration
+     *
+     * @return the codec name
+     */
+    String name();
+
+    byte[] encode(final Object object) throws IOException;
+
+    Object decode(final byte[] bytes) throws IOException, ClassNotFoundException;
+
+    /**
+     * Appends the encoded object to the target buffer, override to write without an intermediate byte array
+     *
+     * @param object the object to encode
+     * @param target the target buffer
+     * @throws IOException
+     */
+    default void encode(final Object object, final Buffer target) throws IOException {
+        target.appendBytes(encode(object));
+    }
+
+    /**
+     * Decodes an object from a buffer slice, override to read without copying the slice
+     *
+     * @param buffer the source buffer
+     * @param pos    the start of the payload
+     * @param length the payload length
+     * @return the decoded object
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    default Object decode(final Buffer buffer, final int pos, final int length) throws IOException, ClassNotFoundException {
+        return decode(buffer.getBytes(pos, pos + length));
+    }
+}
@@ -0,0 +1,442 @@
+package org.jacpfx.common.spi;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.jacpfx.common.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A registration based codec. Every registered type is written as a small class id followed by the fields written by its TypeSerializer, instead of the full class descriptor written by java.io serialization.
+ * Types without registration are embedded as java serialized block, so every Serializable object can still be transported. Payloads written by
+ * {@link BinarySchema#encode(Object)} start with a schema header, the schema id followed by the fields.
+ * Sender and receiver must register the same types with the same ids, ids below {@link #FIRST_USER_ID} are reserved for framework types.
+ */
+public class ClassIdCodec implements BinaryCodec {
+
+    public static final String NAME = "class-id";
+    public static final byte ID = 0x01;
+    public static final int FIRST_USER_ID = 64;
+    public static final int SCHEMA_HEADER_LENGTH = 6;
+
+    private static final byte NULL = 0;
+    private static final byte REGISTERED = 1;
+    private static final byte SERIALIZED = 2;
+    private static final byte SCHEMA = 3;
+
+    private static final Map<Class<?>, Registration<?>> BY_TYPE = new ConcurrentHashMap<>();
+    private static final Map<Integer, Registration<?>> BY_ID = new ConcurrentHashMap<>();
+    private static final JavaSerializationCodec FALLBACK = new JavaSerializationCodec();
+
+    static {
+        registerFrameworkTypes();
+    }
+
+    /**
+     * Writes and reads the fields of a registered type
+     *
+     * @param <T> the registered type
+     */
+    public interface TypeSerializer<T> {
+        void write(final T value, final Output out) throws IOException;
+
+        T read(final Input in) throws IOException, ClassNotFoundException;
+    }
+
+    /**
+     * Registers a type with a class id. Register the same id on all nodes sending or receiving this type.
+     *
+     * @param classId    the class id, must be >= FIRST_USER_ID for application types
+     * @param type       the registered class
+     * @param serializer the serializer for the type
+     * @param <T>        the registered type
+     */
+    public static <T> void register(final int classId, final Class<T> type, final TypeSerializer<T> serializer) {
+        if (classId < FIRST_USER_ID) throw new IllegalArgumentException("class ids below " + FIRST_USER_ID + " are reserved");
+        registerType(classId, type, serializer);
+    }
+
+    public static boolean isRegistered(final Class<?> type) {
+        return BY_TYPE.containsKey(type);
+    }
+
+    /**
+     * Checks if the payload contains a single value written with the given schema
+     *
+     * @param payload  the encoded payload
+     * @param schemaId the schema id
+     * @return true if the payload starts with the schema header
+     */
+    public static boolean isSchemaPayload(final byte[] payload, final int schemaId) {
+        return payload.length >= SCHEMA_HEADER_LENGTH && payload[0] == ID && payload[1] == SCHEMA
+                && ((payload[2] & 0xFF) << 24 | (payload[3] & 0xFF) << 16 | (payload[4] & 0xFF) << 8 | (payload[5] & 0xFF)) == schemaId;
+    }
+
+    /**
+     * Writes the header of a payload encoded with a {@link BinarySchema}
+     *
+     * @param out      the output
+     * @param schemaId the schema id
+     * @throws IOException
+     */
+    public static void writeSchemaHeader(final Output out, final int schemaId) throws IOException {
+        out.writeByte(ID);
+        out.writeByte(SCHEMA);
+        out.writeInt(schemaId);
+    }
+
+    private static <T> void registerType(final int classId, final Class<T> type, final TypeSerializer<T> serializer) {
+        final Registration<T> registration = new Registration<>(classId, type, serializer);
+        final Registration<?> existing = BY_ID.putIfAbsent(classId, registration);
+        if (existing != null && !existing.type.equals(type))
+            throw new IllegalArgumentException("class id " + classId + " is already registered for " + existing.type.getName());
+        BY_TYPE.put(type, registration);
+    }
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] encode(Object object) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        write(object, new Output(bytes));
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Object decode(byte[] bytes) throws IOException, ClassNotFoundException {
+        return read(new Input(new ByteArrayInputStream(bytes)));
+    }
+
+    @Override
+    public void encode(Object object, Buffer target) throws IOException {
+        write(object, new Output(BufferTool.outputStream(target)));
+    }
+
+    @Override
+    public Object decode(Buffer buffer, int pos, int length) throws IOException, ClassNotFoundException {
+        return read(new Input(BufferTool.inputStream(buffer, pos, length)));
+    }
+
+    private static void write(final Object object, final Output out) throws IOException {
+        out.writeByte(ID);
+        out.writeObject(object);
+        out.flush();
+    }
+
+    private static Object read(final Input in) throws IOException, ClassNotFoundException {
+        if (in.readByte() != ID) throw new StreamCorruptedException("payload was not written by " + NAME + " codec");
+        return in.readObject();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeValue(final Object value, final Output out) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+            return;
+        }
+        final Registration<Object> registration = (Registration<Object>) BY_TYPE.get(value.getClass());
+        if (registration != null) {
+            out.writeByte(REGISTERED);
+            out.writeVarInt(registration.id);
+            registration.serializer.write(value, out);
+            return;
+        }
+        final byte[] serialized = FALLBACK.encode(value);
+        out.writeByte(SERIALIZED);
+        out.writeVarInt(serialized.length);
+        out.write(serialized);
+    }
+
+    private static Object readValue(final Input in) throws IOException, ClassNotFoundException {
+        final byte tag = in.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case REGISTERED:
+                final int classId = in.readVarInt();
+                final Registration<?> registration = BY_ID.get(classId);
+                if (registration == null) throw new ClassNotFoundException("no type registered for class id " + classId);
+                return registration.serializer.read(in);
+            case SCHEMA:
+                final int schemaId = in.readInt();
+                final BinarySchema<?> schema = BinarySchema.forId(schemaId);
+                if (schema == null) throw new ClassNotFoundException("no binary schema registered with id " + schemaId + ", register the type with BinarySchema.register(Class)");
+                return schema.read(in);
+            case SERIALIZED:
+                final byte[] serialized = new byte[in.readVarInt()];
+                in.readFully(serialized);
+                return FALLBACK.decode(serialized);
+            default:
+                throw new StreamCorruptedException("unknown value tag " + tag);
+        }
+    }
+
+    private static void registerFrameworkTypes() {
+        registerType(1, String.class, serializer((v, out) -> out.writeString(v), Input::readString));
+        registerType(2, Integer.class, serializer((v, out) -> out.writeInt(v), Input::readInt));
+        registerType(3, Long.class, serializer((v, out) -> out.writeLong(v), Input::readLong));
+        registerType(4, Double.class, serializer((v, out) -> out.writeDouble(v), Input::readDouble));
+        registerType(5, Float.class, serializer((v, out) -> out.writeFloat(v), Input::readFloat));
+        registerType(6, Short.class, serializer((v, out) -> out.writeShort(v), Input::readShort));
+        registerType(7, Byte.class, serializer((v, out) -> out.writeByte(v), Input::readByte));
+        registerType(8, Character.class, serializer((v, out) -> out.writeChar(v), Input::readChar));
+        registerType(9, Boolean.class, serializer((v, out) -> out.writeBoolean(v), Input::readBoolean));
+        registerType(10, byte[].class, serializer((v, out) -> out.writeBytes(v), Input::readBytes));
+        registerType(11, String[].class, serializer((v, out) -> out.writeStringArray(v), Input::readStringArray));
+        registerType(12, JsonObject.class, serializer((v, out) -> out.writeString(v.encode()), in -> new JsonObject(in.readString())));
+        registerType(13, JsonArray.class, serializer((v, out) -> out.writeString(v.encode()), in -> new JsonArray(in.readString())));
+        registerType(14, ArrayList.class, serializer((v, out) -> out.writeList(v), in -> new ArrayList<>(in.readList())));
+
+        registerType(20, WSEndpoint.class, serializer((v, out) -> {
+            out.writeString(v.getBinaryHandlerId());
+            out.writeString(v.getTextHandlerId());
+            out.writeString(v.getUrl());
+        }, in -> new WSEndpoint(in.readString(), in.readString(), in.readString())));
+        registerType(21, WSReply.class, serializer((v, out) -> out.writeVarInt(v.ordinal()), in -> WSReply.values()[in.readVarInt()]));
+        registerType(22, WSDataWrapper.class, serializer((v, out) -> {
+            out.writeObject(v.getEndpoint());
+            out.writeBytes(v.getData());
+        }, in -> new WSDataWrapper((WSEndpoint) in.readObject(), in.readBytes())));
+        registerType(23, WSMessageWrapper.class, serializer((v, out) -> {
+            out.writeObject(v.getEndpoint());
+            out.writeObject(v.getBody());
+            out.writeObject(v.getReplyeType());
+        }, in -> {
+            // the body type is taken from the body, class names from the wire are never loaded
+            final WSEndpoint endpoint = (WSEndpoint) in.readObject();
+            final Serializable body = (Serializable) in.readObject();
+            final WSReply replyType = (WSReply) in.readObject();
+            return new WSMessageWrapper(endpoint, body, body != null ? body.getClass() : null, replyType);
+        }));
+        registerType(24, WSEndpointHolder.class, serializer((v, out) -> out.writeList(v.getAll()), in -> {
+            final WSEndpointHolder holder = new WSEndpointHolder();
+            for (Object endpoint : in.readList()) holder.add((WSEndpoint) endpoint);
+            return holder;
+        }));
+        registerType(25, Parameter.class, serializer((v, out) -> {
+            out.writeString(v.getName());
+            out.writeObject(v.getValue());
+            final ParameterMap<?> all = v.getParameters();
+            final int size = all != null ? all.size() : 0;
+            out.writeVarInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeString(all.name(i));
+                out.writeObject(all.value(i));
+            }
+        }, ClassIdCodec::readParameter));
+        registerType(26, Operation.class, serializer((v, out) -> {
+            out.writeString(v.getName());
+            out.writeString(v.getDescription());
+            out.writeString(v.getUrl());
+            out.writeString(v.getType());
+            out.writeStringArray(v.getProduces());
+            out.writeStringArray(v.getConsumes());
+            out.writeString(v.getServiceName());
+            out.writeString(v.getConnectionHost());
+            out.writeInt(v.getConnectionPort());
+            out.writeStringArray(v.getParameter());
+            out.writeStringArray(v.getSchema());
+            out.writeVarInt(v.getMaxInFlight());
+            out.writeVarInt(v.getMaxQueued());
+            out.writeBoolean(v.isIdempotent());
+        }, in -> {
+            final Operation operation = new Operation(in.readString(), in.readString(), in.readString(), in.readString(), in.readStringArray(), in.readStringArray(),
+                    in.readString(), in.readString(), in.readInt(), null, in.readStringArray());
+            operation.setSchema(in.readStringArray());
+            operation.setMaxInFlight(in.readVarInt());
+            operation.setMaxQueued(in.readVarInt());
+            operation.setIdempotent(in.readBoolean());
+            return operation;
+        }));
+        registerType(27, ServiceInfo.class, serializer((v, out) -> {
+            final Buffer buffer = Buffer.buffer();
+            ServiceInfoWireFormat.writeServiceInfo(buffer, v);
+            out.writeBytes(buffer.getBytes());
+        }, in -> ServiceInfoWireFormat.readServiceInfo(Buffer.buffer(in.readBytes()), 0)));
+        registerType(28, ServiceInfoHolder.class, serializer((v, out) -> {
+            final Buffer buffer = Buffer.buffer();
+            ServiceInfoWireFormat.writeServiceInfoHolder(buffer, v);
+            out.writeBytes(buffer.getBytes());
+        }, in -> ServiceInfoWireFormat.readServiceInfoHolder(Buffer.buffer(in.readBytes()), 0)));
+    }
+
+    private static Parameter readParameter(final Input in) throws IOException, ClassNotFoundException {
+        final String name = in.readString();
+        final Object value = in.readObject();
+        final int size = in.readVarInt();
+        final ParameterMap<Object> all = new ParameterMap<>(size);
+        for (int i = 0; i < size; i++) {
+            all.add(in.readString(), in.readObject());
+        }
+        return name != null ? new Parameter<>(name, value) : new Parameter<>(all);
+    }
+
+    private static <T> TypeSerializer<T> serializer(final Writer<T> writer, final Reader<T> reader) {
+        return new TypeSerializer<T>() {
+            @Override
+            public void write(T value, Output out) throws IOException {
+                writer.write(value, out);
+            }
+
+            @Override
+            public T read(Input in) throws IOException, ClassNotFoundException {
+                return reader.read(in);
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface Writer<T> {
+        void write(T value, Output out) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Reader<T> {
+        T read(Input in) throws IOException, ClassNotFoundException;
+    }
+
+    private static final class Registration<T> {
+        private final int id;
+        private final Class<T> type;
+        private final TypeSerializer<T> serializer;
+
+        private Registration(int id, Class<T> type, TypeSerializer<T> serializer) {
+            this.id = id;
+            this.type = type;
+            this.serializer = serializer;
+        }
+    }
+
+    /**
+     * The output used by TypeSerializers, adds object, string and var-int support to DataOutputStream
+     */
+    public static final class Output extends DataOutputStream {
+
+        public Output(OutputStream out) {
+            super(out);
+        }
+
+        public void writeObject(final Object value) throws IOException {
+            writeValue(value, this);
+        }
+
+        public void writeVarInt(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte(value);
+        }
+
+        /**
+         * Writes a nullable string as length prefixed UTF-8, the length is incremented by one so 0 marks null
+         *
+         * @param value the string
+         * @throws IOException
+         */
+        public void writeString(final String value) throws IOException {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length + 1);
+            write(bytes);
+        }
+
+        public void writeBytes(final byte[] value) throws IOException {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            writeVarInt(value.length + 1);
+            write(value);
+        }
+
+        public void writeStringArray(final String[] value) throws IOException {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            writeVarInt(value.length + 1);
+            for (String element : value) writeString(element);
+        }
+
+        public void writeList(final List<?> value) throws IOException {
+            writeVarInt(value.size());
+            for (Object element : value) writeObject(element);
+        }
+    }
+
+    /**
+     * The input used by TypeSerializers, the counterpart of {@link Output}
+     */
+    public static final class Input extends DataInputStream {
+
+        public Input(InputStream in) {
+            super(in);
+        }
+
+        public Object readObject() throws IOException, ClassNotFoundException {
+            return readValue(this);
+        }
+
+        public int readVarInt() throws IOException {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (shift > 28) throw new StreamCorruptedException("var-int too long");
+                b = readByte();
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+
+        public String readString() throws IOException {
+            final int length = readVarInt();
+            if (length == 0) return null;
+            final byte[] bytes = new byte[length - 1];
+            readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        public byte[] readBytes() throws IOException {
+            final int length = readVarInt();
+            if (length == 0) return null;
+            final byte[] bytes = new byte[length - 1];
+            readFully(bytes);
+            return bytes;
+        }
+
+        public String[] readStringArray() throws IOException {
+            final int length = readVarInt();
+            if (length == 0) return null;
+            final String[] value = new String[length - 1];
+            for (int i = 0; i < value.length; i++) value[i] = readString();
+            return value;
+        }
+
+        public List<Object> readList() throws IOException, ClassNotFoundException {
+            final int size = readVarInt();
+            final List<Object> value = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) value.add(readObject());
+            return value;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.jacpfx.common.spi;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import io.vertx.core.buffer.Buffer;
+import org.jacpfx.common.BufferTool;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JSONAdapter holding the Gson TypeAdapter of one type, so reading and writing skips the Gson type lookup. Readers and writers use the same settings as Gson.fromJson/toJson.
+ *
+ * @param <T> the bound type
+ */
+class GSonAdapter<T> implements JSONAdapter<T> {
+
+    private final TypeAdapter<T> adapter;
+
+    GSonAdapter(final TypeAdapter<T> adapter) {
+        this.adapter = adapter;
+    }
+
+    @Override
+    public T fromJSON(String json) {
+        return json != null ? read(new StringReader(json)) : null;
+    }
+
+    @Override
+    public T fromJSON(byte[] json) {
+        return json != null ? read(new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8)) : null;
+    }
+
+    @Override
+    public String toJSONString(T value) {
+        final StringWriter out = new StringWriter();
+        write(value, out);
+        return out.toString();
+    }
+
+    @Override
+    public Buffer toJSONBuffer(T value) {
+        final Buffer buffer = Buffer.buffer();
+        write(value, new OutputStreamWriter(BufferTool.outputStream(buffer), StandardCharsets.UTF_8));
+        return buffer;
+    }
+
+    private T read(final Reader in) {
+        final JsonReader reader = new JsonReader(in);
+        reader.setLenient(true);
+        boolean empty = true;
+        try {
+            reader.peek();
+            empty = false;
+            return adapter.read(reader);
+        } catch (EOFException e) {
+            // an empty document reads as null, like Gson.fromJson
+            if (empty) return null;
+            throw new JsonSyntaxException(e);
+        } catch (IllegalStateException | IOException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    private void write(final T value, final Writer out) {
+        final JsonWriter writer = new JsonWriter(out);
+        writer.setLenient(true);
+        writer.setHtmlSafe(true);
+        writer.setSerializeNulls(false);
+        try {
+            if (value == null) {
+                writer.nullValue();
+            } else {
+                adapter.write(writer, value);
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+    }
+}
@@ -6,6 +6,8 @@ import com.google.gson.Gson;
  * Created by Andy Moncsek on 29.04.15.
  */
 public class GSonConverter implements JSONConverter {
+    public static final String NAME = "gson";
+
     Gson gson = new Gson();
     @Override
     public Object convertToObject(String jsonString, Class<?> clazz) {
@@ -16,4 +18,14 @@ public class GSonConverter implements JSONConverter {
     public String convertToJSONString(Object object) {
         return gson.toJson(object);
     }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public <T> JSONAdapter<T> getAdapter(Class<T> type) {
+        return new GSonAdapter<>(gson.getAdapter(type));
+    }
 }
@@ -0,0 +1,67 @@
+package org.jacpfx.common.spi;
+
+import com.google.gson.Gson;
+import io.netty.buffer.ByteBufInputStream;
+import io.vertx.core.buffer.Buffer;
+import org.jacpfx.common.BufferTool;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Gson based converter reading and writing UTF-8 bytes through Gson's streaming API, without building an intermediate JSON String.
+ * Select it with "jsonConverter": "gson-streaming".
+ */
+public class GSonStreamingConverter implements JSONConverter {
+    public static final String NAME = "gson-streaming";
+
+    private final Gson gson = new Gson();
+
+    @Override
+    public Object convertToObject(String jsonString, Class<?> clazz) {
+        return gson.fromJson(jsonString, clazz);
+    }
+
+    @Override
+    public String convertToJSONString(Object object) {
+        return gson.toJson(object);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Object convertToObject(byte[] json, Class<?> clazz) {
+        return convertToObject(new ByteArrayInputStream(json), clazz);
+    }
+
+    @Override
+    public Object convertToObject(Buffer json, Class<?> clazz) {
+        return convertToObject(new ByteBufInputStream(json.getByteBuf()), clazz);
+    }
+
+    @Override
+    public Object convertToObject(InputStream json, Class<?> clazz) {
+        return gson.fromJson(new InputStreamReader(json, StandardCharsets.UTF_8), clazz);
+    }
+
+    @Override
+    public Buffer convertToJSONBuffer(Object object) {
+        final Buffer buffer = Buffer.buffer();
+        final Writer writer = new OutputStreamWriter(BufferTool.outputStream(buffer), StandardCharsets.UTF_8);
+        gson.toJson(object, writer);
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer;
+    }
+
+    @Override
+    public <T> JSONAdapter<T> getAdapter(Class<T> type) {
+        return new GSonAdapter<>(gson.getAdapter(type));
+    }
+}
@@ -0,0 +1,19 @@
+package org.jacpfx.common.spi;
+
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * A reader and writer bound to one type, resolved once by {@link JSONConverter#getAdapter(Class)} and reused for every invocation.
+ *
+ * @param <T> the bound type
+ */
+public interface JSONAdapter<T> {
+
+    T fromJSON(final String json);
+
+    T fromJSON(final byte[] json);
+
+    String toJSONString(final T value);
+
+    Buffer toJSONBuffer(final T value);
+}
@@ -1,7 +1,16 @@
 package org.jacpfx.common.spi;
 
+import io.vertx.core.buffer.Buffer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
 /**
  * This is a SPI interface vor JSON converter implementations
+ * The byte based variants default to the String methods, streaming implementations override them to work on UTF-8 bytes directly.
  * Created by Andy Moncsek on 28.04.15.
  */
 public interface JSONConverter {
@@ -9,4 +18,71 @@ public interface JSONConverter {
     Object convertToObject(final String jsonString, Class<?> clazz);
 
     String convertToJSONString(final Object object);
+
+    /**
+     * The name used to select the converter with the "jsonConverter" configuration
+     *
+     * @return the converter name
+     */
+    default String name() {
+        return getClass().getName();
+    }
+
+    default Object convertToObject(final byte[] json, Class<?> clazz) {
+        return convertToObject(new String(json, StandardCharsets.UTF_8), clazz);
+    }
+
+    default Object convertToObject(final Buffer json, Class<?> clazz) {
+        return convertToObject(json.getBytes(), clazz);
+    }
+
+    default Object convertToObject(final InputStream json, Class<?> clazz) {
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final byte[] chunk = new byte[4096];
+            int read;
+            while ((read = json.read(chunk)) != -1) {
+                bytes.write(chunk, 0, read);
+            }
+            return convertToObject(bytes.toByteArray(), clazz);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    default Buffer convertToJSONBuffer(final Object object) {
+        return Buffer.buffer(convertToJSONString(object), StandardCharsets.UTF_8.name());
+    }
+
+    /**
+     * Resolves a reader/writer for the given type. Callers resolve the adapter once and keep it, implementations should do all type lookups here.
+     *
+     * @param type the type to read and write
+     * @param <T>  the type
+     * @return the adapter bound to the type
+     */
+    @SuppressWarnings("unchecked")
+    default <T> JSONAdapter<T> getAdapter(final Class<T> type) {
+        return new JSONAdapter<T>() {
+            @Override
+            public T fromJSON(String json) {
+                return (T) convertToObject(json, type);
+            }
+
+            @Override
+            public T fromJSON(byte[] json) {
+                return (T) convertToObject(json, type);
+            }
+
+            @Override
+            public String toJSONString(T value) {
+                return convertToJSONString(value);
+            }
+
+            @Override
+            public Buffer toJSONBuffer(T value) {
+                return convertToJSONBuffer(value);
+            }
+        };
+    }
 }
@@ -0,0 +1,55 @@
+package org.jacpfx.common.spi;
+
+import io.vertx.core.buffer.Buffer;
+import org.jacpfx.common.BufferTool;
+
+import java.io.*;
+
+/**
+ * The fallback codec, based on java.io serialization. The payload is a plain object stream, so the codec id is the first byte of the stream magic (0xAC).
+ */
+public class JavaSerializationCodec implements BinaryCodec {
+
+    public static final String NAME = "java";
+    public static final byte ID = (byte) (ObjectStreamConstants.STREAM_MAGIC >>> 8);
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] encode(Object object) throws IOException {
+        final ByteArrayOutputStream b = new ByteArrayOutputStream();
+        final ObjectOutputStream o = new ObjectOutputStream(b);
+        o.writeObject(object);
+        o.close();
+        return b.toByteArray();
+    }
+
+    @Override
+    public Object decode(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream o = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return o.readObject();
+        }
+    }
+
+    @Override
+    public void encode(Object object, Buffer target) throws IOException {
+        try (ObjectOutputStream o = new ObjectOutputStream(BufferTool.outputStream(target))) {
+            o.writeObject(object);
+        }
+    }
+
+    @Override
+    public Object decode(Buffer buffer, int pos, int length) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream o = new ObjectInputStream(BufferTool.inputStream(buffer, pos, length))) {
+            return o.readObject();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.jacpfx.common.util;
+
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.MessageCodec;
+import org.jacpfx.common.*;
+import org.jacpfx.common.spi.BinaryCodec;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Registers the framework message codecs at the event bus. Router and service verticles share one event bus per Vert.x instance, so every registration is done only once.
+ * Verticles sharing an event bus may use different binary codecs and compression thresholds: binary and WebSocket replies carry the settings of the
+ * replying verticle, the settings of the first registration only apply to WebSocket replies created without settings. The codecs are registered by type
+ * and not by settings, since a clustered receiver looks a codec up by its name and must be able to decode replies of every sender.
+ */
+public class EventBusCodecs {
+
+    private static final Set<EventBus> REGISTERED = Collections.newSetFromMap(new WeakHashMap<>());
+
+    /**
+     * Registers the default codecs for all framework types sent over the event bus, using the default binary codec
+     *
+     * @param eventBus the vert.x event bus
+     */
+    public static void registerDefaultCodecs(final EventBus eventBus) {
+        registerDefaultCodecs(eventBus, Serializer.getCodec(Serializer.DEFAULT_CODEC));
+    }
+
+    /**
+     * Registers the default codecs for all framework types sent over the event bus
+     *
+     * @param eventBus the vert.x event bus
+     * @param codec    the binary codec for payloads without a dedicated wire format
+     */
+    public static void registerDefaultCodecs(final EventBus eventBus, final BinaryCodec codec) {
+        registerDefaultCodecs(eventBus, codec, Compression.DISABLED);
+    }
+
+    /**
+     * Registers the default codecs for all framework types sent over the event bus
+     *
+     * @param eventBus             the vert.x event bus
+     * @param codec                the binary codec for WebSocket replies without own settings
+     * @param compressionThreshold the payload size (in bytes) above which WebSocket replies without own settings are compressed, {@link Compression#DISABLED} for no compression
+     */
+    public static void registerDefaultCodecs(final EventBus eventBus, final BinaryCodec codec, final int compressionThreshold) {
+        synchronized (REGISTERED) {
+            if (!REGISTERED.add(eventBus)) return;
+            registerDefaultCodec(eventBus, Parameter.class, new ParameterDecoder());
+            registerDefaultCodec(eventBus, ServiceInfo.class, new ServiceInfoDecoder());
+            registerDefaultCodec(eventBus, ServiceInfoHolder.class, new ServiceInfoHolderDecoder());
+            registerDefaultCodec(eventBus, WSDataWrapper.class, new WSDataWrapperDecoder());
+            registerDefaultCodec(eventBus, WSMessageWrapper.class, new WSMessageWrapperDecoder(codec, compressionThreshold));
+            registerDefaultCodec(eventBus, BinaryReply.class, new BinaryReplyDecoder());
+        }
+    }
+
+    private static <T> void registerDefaultCodec(final EventBus eventBus, final Class<T> type, final MessageCodec<T, ?> messageCodec) {
+        try {
+            eventBus.registerDefaultCodec(type, messageCodec);
+        } catch (IllegalStateException e) {
+            // already registered by the application
+        }
+    }
+}
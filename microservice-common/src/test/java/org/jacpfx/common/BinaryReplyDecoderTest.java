@@ -0,0 +1,89 @@
+package org.jacpfx.common;
+
+import io.vertx.core.buffer.Buffer;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BinaryReplyDecoderTest {
+
+    private static final int THRESHOLD = 64;
+
+    private final BinaryReplyDecoder decoder = new BinaryReplyDecoder();
+
+    @Test
+    public void testWireRoundTripCompressesLargePayload() throws Exception {
+        final byte[] payload = Serializer.serialize(repeat("compressible reply ", 50));
+        final Buffer wire = Buffer.buffer();
+        decoder.encodeToWire(wire, new BinaryReply(payload, THRESHOLD, "binary.reply.test"));
+        assertTrue(wire.length() < payload.length);
+        final byte[] decoded = decoder.decodeFromWire(0, wire);
+        assertArrayEquals(payload, decoded);
+        assertEquals(repeat("compressible reply ", 50), Serializer.deserialize(decoded));
+        assertNotNull(Compression.statistics().getJsonObject("binary.reply.test"));
+    }
+
+    @Test
+    public void testWireRoundTripKeepsSmallPayload() throws Exception {
+        final byte[] payload = Serializer.serialize("small");
+        final Buffer wire = Buffer.buffer();
+        decoder.encodeToWire(wire, new BinaryReply(payload, THRESHOLD, null));
+        assertEquals(payload.length + 5, wire.length());
+        assertArrayEquals(payload, decoder.decodeFromWire(0, wire));
+    }
+
+    @Test
+    public void testWireRoundTripWithoutCompression() throws Exception {
+        final byte[] payload = Serializer.serialize(repeat("compressible reply ", 50));
+        final Buffer wire = Buffer.buffer();
+        decoder.encodeToWire(wire, new BinaryReply(payload, Compression.DISABLED, null));
+        assertEquals(payload.length + 5, wire.length());
+        assertArrayEquals(payload, decoder.decodeFromWire(0, wire));
+    }
+
+    @Test
+    public void testTransformCopiesWithoutCompression() throws Exception {
+        final byte[] payload = Serializer.serialize(repeat("local reply ", 50));
+        final byte[] local = decoder.transform(new BinaryReply(payload, THRESHOLD, null));
+        assertNotSame(payload, local);
+        assertArrayEquals(payload, local);
+        assertFalse(Compression.isCompressed(local));
+    }
+
+    @Test
+    public void testRawPayloadWithCompressionHeaderIsNotInflated() {
+        final byte[] payload = {Compression.ID, 0, 0, 0, 10, 1, 2, 3};
+        final Buffer wire = Buffer.buffer();
+        decoder.encodeToWire(wire, new BinaryReply(payload, 4, null));
+        assertArrayEquals(payload, decoder.decodeFromWire(0, wire));
+    }
+
+    @Test
+    public void testOversizedLengthIsRejected() {
+        final byte[] deflated = Compression.deflate(new byte[16], null);
+        for (int length : new int[]{-1, Compression.getMaxLength() + 1}) {
+            final Buffer wire = Buffer.buffer().appendByte((byte) 2).appendInt(length);
+            BufferTool.appendBytes(wire, deflated);
+            try {
+                decoder.decodeFromWire(0, wire);
+                fail("length " + length + " must be rejected");
+            } catch (IllegalStateException e) {
+                assertTrue(e.getCause().getMessage().contains("invalid decompressed length"));
+            }
+        }
+    }
+
+    @Test
+    public void testNullPayload() {
+        final Buffer wire = Buffer.buffer();
+        decoder.encodeToWire(wire, new BinaryReply(null, THRESHOLD, null));
+        assertNull(decoder.decodeFromWire(0, wire));
+        assertNull(decoder.transform(new BinaryReply(null, THRESHOLD, null)));
+    }
+
+    private static String repeat(final String value, final int count) {
+        final char[] result = new char[value.length() * count];
+        for (int i = 0; i < count; i++) value.getChars(0, value.length(), result, i * value.length());
+        return new String(result);
+    }
+}
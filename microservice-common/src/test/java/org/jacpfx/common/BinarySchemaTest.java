@@ -0,0 +1,154 @@
+package org.jacpfx.common;
+
+import org.jacpfx.common.spi.ClassIdCodec;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class BinarySchemaTest {
+
+    static final AtomicBoolean UNTOUCHED_LOADED = new AtomicBoolean();
+
+    @Test
+    public void testRegisterAndRoundTrip() throws Exception {
+        final BinarySchema<Point> schema = BinarySchema.register(Point.class).get();
+        assertSame(schema, BinarySchema.forType(Point.class));
+        assertSame(schema, BinarySchema.forId(schema.id()));
+        assertSame(schema, BinarySchema.register(Point.class).get());
+        final byte[] payload = schema.encode(new Point(1, 2));
+        assertEquals(Point.class.getName() + "{x:int,y:int}", schema.descriptor());
+        assertEquals(new Point(1, 2), schema.decode(payload));
+        assertEquals(new Point(1, 2), Serializer.deserialize(payload));
+    }
+
+    @Test
+    public void testCollidingIdIsRejected() {
+        final BinarySchema<Aa> first = BinarySchema.register(Aa.class).get();
+        final BinarySchema<BB> second = BinarySchema.derive(BB.class).get();
+        assertEquals(first.id(), second.id());
+        assertNotEquals(first.descriptor(), second.descriptor());
+        try {
+            BinarySchema.register(BB.class);
+            fail("colliding schema id must be rejected");
+        } catch (IllegalStateException e) {
+            assertSame(first, BinarySchema.forId(first.id()));
+            assertNull(BinarySchema.forType(BB.class));
+        }
+    }
+
+    @Test
+    public void testVerifyDoesNotLoadUnknownClasses() {
+        final String descriptor = BinarySchemaTest.class.getName() + "$Untouched{value:int}";
+        assertTrue(BinarySchema.verify(descriptor));
+        assertFalse(UNTOUCHED_LOADED.get());
+        assertNull(BinarySchema.forId(descriptor.hashCode()));
+    }
+
+    @Test
+    public void testVerifyLocalSchema() {
+        final BinarySchema<Point> schema = BinarySchema.register(Point.class).get();
+        assertTrue(BinarySchema.verify(schema.descriptor(), null));
+        assertFalse(BinarySchema.verify(Point.class.getName() + "{x:long,y:long}"));
+        assertSame(schema, BinarySchema.forType(Point.class));
+        assertNull(BinarySchema.forId((Point.class.getName() + "{x:long,y:long}").hashCode()));
+    }
+
+    @Test
+    public void testVerifyDetectsCollision() {
+        final BinarySchema<Aa> local = BinarySchema.register(Aa.class).get();
+        final String remote = BinarySchemaTest.class.getName() + "$BB{value:int}";
+        assertEquals(local.id(), remote.hashCode());
+        assertFalse(BinarySchema.verify(remote));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDescriptor() {
+        BinarySchema.verify("no schema");
+    }
+
+    @Test
+    public void testPayloadWithoutSchemaIsRejected() throws Exception {
+        final BinarySchema<Legacy> schema = BinarySchema.register(Legacy.class).get();
+        // the Serializer never writes a schema, the receiver may not have it
+        final byte[] payload = Serializer.serialize(new Legacy(7));
+        assertFalse(ClassIdCodec.isSchemaPayload(payload, schema.id()));
+        try {
+            schema.decode(payload);
+            fail("payload without schema was decoded");
+        } catch (StreamCorruptedException e) {
+            // expected
+        }
+        BinarySchema.setLegacyDecoding(true);
+        try {
+            assertEquals(7, schema.decode(payload).value);
+        } finally {
+            BinarySchema.setLegacyDecoding(false);
+        }
+    }
+
+    @Test(expected = ClassNotFoundException.class)
+    public void testUnknownSchemaPayload() throws Exception {
+        final byte[] payload = BinarySchema.register(Point.class).get().encode(new Point(1, 2));
+        // change the schema id to an unregistered one
+        payload[5] ^= 0x55;
+        Serializer.deserialize(payload);
+    }
+
+    public static class Point {
+        private final int x;
+        private final int y;
+
+        public Point(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Point && ((Point) o).x == x && ((Point) o).y == y;
+        }
+
+        @Override
+        public int hashCode() {
+            return x * 31 + y;
+        }
+    }
+
+    // "Aa" and "BB" have the same String hash, so both descriptors have the same schema id
+
+    public static class Aa {
+        private final int value;
+
+        public Aa(int value) {
+            this.value = value;
+        }
+    }
+
+    public static class BB {
+        private final int value;
+
+        public BB(int value) {
+            this.value = value;
+        }
+    }
+
+    public static class Legacy implements Serializable {
+        private final int value;
+
+        public Legacy(int value) {
+            this.value = value;
+        }
+    }
+
+    public static class Untouched {
+        static {
+            UNTOUCHED_LOADED.set(true);
+        }
+
+        private int value;
+    }
+}
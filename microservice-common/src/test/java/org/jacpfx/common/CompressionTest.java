@@ -0,0 +1,104 @@
+package org.jacpfx.common;
+
+import io.vertx.core.json.JsonObject;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class CompressionTest {
+
+    private static final String ADDRESS = "compression.test";
+
+    @Test
+    public void testCompressedPayloadHeader() throws IOException {
+        final byte[] payload = compressible(1024);
+        final byte[] compressed = Compression.compress(payload, 512, ADDRESS);
+        assertTrue(compressed.length < payload.length);
+        assertEquals(Compression.ID, compressed[0]);
+        assertEquals(payload.length, ByteBuffer.wrap(compressed, 1, 4).getInt());
+        assertTrue(Compression.isCompressed(compressed));
+        assertArrayEquals(payload, Compression.decompress(compressed));
+    }
+
+    @Test
+    public void testBelowThresholdIsUnchanged() {
+        final byte[] payload = compressible(256);
+        assertSame(payload, Compression.compress(payload, 512, ADDRESS));
+        assertFalse(Compression.isRequired(payload.length, 512));
+        assertTrue(Compression.isRequired(payload.length, 256));
+    }
+
+    @Test
+    public void testDisabledIsUnchanged() {
+        final byte[] payload = compressible(4096);
+        assertSame(payload, Compression.compress(payload, Compression.DISABLED, ADDRESS));
+        assertFalse(Compression.isRequired(Integer.MAX_VALUE, Compression.DISABLED));
+    }
+
+    @Test
+    public void testIncompressiblePayloadIsUnchanged() {
+        final byte[] payload = new byte[1024];
+        new Random(1).nextBytes(payload);
+        payload[0] = 0x01;
+        assertSame(payload, Compression.compress(payload, 64, ADDRESS));
+    }
+
+    @Test
+    public void testDecompressPassesUncompressedPayload() throws IOException {
+        final byte[] payload = Serializer.serialize("plain");
+        assertSame(payload, Compression.decompress(payload));
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncatedPayload() throws IOException {
+        final byte[] compressed = Compression.compress(compressible(1024), 64, ADDRESS);
+        Compression.decompress(Arrays.copyOf(compressed, compressed.length / 2));
+    }
+
+    @Test
+    public void testSerializerReadsCompressedPayload() throws Exception {
+        final String value = new String(new char[2048]).replace('\0', 'x');
+        final byte[] compressed = Compression.compress(Serializer.serialize(value), 64, ADDRESS);
+        assertTrue(Compression.isCompressed(compressed));
+        assertEquals(value, Serializer.deserialize(compressed));
+    }
+
+    @Test
+    public void testStatisticsPerAddress() {
+        Compression.compress(compressible(2048), 64, "compression.statistics");
+        final JsonObject stats = Compression.statistics().getJsonObject("compression.statistics");
+        assertNotNull(stats);
+        assertTrue(stats.getLong("messages") >= 1);
+        assertTrue(stats.getLong("compressedBytes") < stats.getLong("rawBytes"));
+    }
+
+    @Test
+    public void testMaxLength() throws IOException {
+        final byte[] payload = compressible(1024);
+        final byte[] compressed = Compression.compress(payload, 64, ADDRESS);
+        final int previous = Compression.getMaxLength();
+        try {
+            Compression.configure(new JsonObject().put(Compression.MAX_LENGTH_CONFIG_KEY, 512));
+            assertEquals(512, Compression.getMaxLength());
+            Compression.decompress(compressed);
+            fail("a payload above the maximum length must be rejected");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("invalid decompressed length"));
+        } finally {
+            Compression.setMaxLength(previous);
+        }
+        assertArrayEquals(payload, Compression.decompress(compressed));
+    }
+
+    private static byte[] compressible(final int length) {
+        final byte[] payload = new byte[length];
+        payload[0] = 0x01;
+        for (int i = 1; i < length; i++) payload[i] = (byte) ('a' + i % 8);
+        return payload;
+    }
+}
@@ -0,0 +1,78 @@
+package org.jacpfx.common;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.CaseInsensitiveHeaders;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ParameterDecoderTest {
+
+    private final ParameterDecoder decoder = new ParameterDecoder();
+
+    @Test
+    public void testSingleParameterWireRoundTrip() {
+        final Parameter<?> decoded = roundTrip(new Parameter<>("name", "value"));
+        assertEquals("name", decoded.getName());
+        assertEquals("value", decoded.getValue());
+        assertNull(decoded.getParameters());
+    }
+
+    @Test
+    public void testParameterMapWireRoundTrip() {
+        final ParameterMap<Object> all = new ParameterMap<>(4);
+        all.add("string", "value");
+        all.add("number", 42);
+        all.add("empty", null);
+        all.add("list", new ArrayList<>(Arrays.asList("a", "b")));
+        final Parameter<?> decoded = roundTrip(new Parameter<>(all));
+        assertNull(decoded.getName());
+        assertEquals(4, decoded.getParameters().size());
+        assertEquals("value", decoded.getValue("string"));
+        assertEquals(42, decoded.getValue("number"));
+        assertNull(decoded.getValue("empty"));
+        assertEquals(Arrays.asList("a", "b"), decoded.getValue("list"));
+    }
+
+    @Test
+    public void testDuplicateNamesWireRoundTrip() {
+        final MultiMap params = new CaseInsensitiveHeaders().add("id", "1").add("name", "a").add("id", "2");
+        final Parameter<?> decoded = roundTrip(Parameter.of(params));
+        assertEquals("1", decoded.getValue("id"));
+        assertEquals(Arrays.asList("1", "2"), decoded.getParameters().getAll("id"));
+        final List<String> all = new ArrayList<>();
+        decoded.getAll().forEach(p -> all.add(p.getName() + "=" + p.getValue()));
+        assertEquals(Arrays.asList("id=1", "name=a", "id=2"), all);
+    }
+
+    @Test
+    public void testNullValueWireRoundTrip() {
+        final Parameter<?> decoded = roundTrip(new Parameter<>("name", null));
+        assertEquals("name", decoded.getName());
+        assertNull(decoded.getValue());
+    }
+
+    @Test
+    public void testWireRoundTripAtOffset() {
+        final Buffer buffer = Buffer.buffer().appendString("prefix");
+        decoder.encodeToWire(buffer, new Parameter<>("name", "value"));
+        assertEquals("value", decoder.decodeFromWire(6, buffer).getValue());
+    }
+
+    @Test
+    public void testTransformPassesInstance() {
+        final Parameter<String> parameter = new Parameter<>("name", "value");
+        assertSame(parameter, decoder.transform(parameter));
+    }
+
+    private Parameter<?> roundTrip(final Parameter<?> parameter) {
+        final Buffer buffer = Buffer.buffer();
+        decoder.encodeToWire(buffer, parameter);
+        return decoder.decodeFromWire(0, buffer);
+    }
+}
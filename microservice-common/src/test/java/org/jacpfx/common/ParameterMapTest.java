@@ -0,0 +1,37 @@
+package org.jacpfx.common;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class ParameterMapTest {
+
+    @Test
+    public void testFirstValueWins() {
+        final ParameterMap<String> map = new ParameterMap<>();
+        assertTrue(map.add("id", "1"));
+        assertFalse(map.add("id", "2"));
+        assertEquals("1", map.get("id"));
+        assertEquals(Arrays.asList("1", "2"), map.getAll("id"));
+        assertEquals(2, map.size());
+        assertEquals(Collections.emptyList(), map.getAll("missing"));
+    }
+
+    @Test
+    public void testRepeatedNamesSurviveGrowth() {
+        final ParameterMap<Integer> map = new ParameterMap<>(1);
+        for (int i = 0; i < 100; i++) {
+            map.add("name" + (i % 10), i);
+        }
+        assertEquals(100, map.size());
+        for (int n = 0; n < 10; n++) {
+            assertEquals(Integer.valueOf(n), map.get("name" + n));
+            assertEquals(10, map.getAll("name" + n).size());
+        }
+        assertEquals("name3", map.name(13));
+        assertEquals(Integer.valueOf(13), map.value(13));
+    }
+}
@@ -0,0 +1,184 @@
+package org.jacpfx.common;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.http.CaseInsensitiveHeaders;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.jacpfx.common.spi.GSonConverter;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class ResponseEncoderTest {
+
+    private final ResponseEncoder encoder = new ResponseEncoder(new GSonConverter());
+
+    @Test
+    public void testEncodeValues() {
+        assertNull(encoder.encode(null));
+        final Buffer buffer = Buffer.buffer("raw");
+        assertSame(buffer, encoder.encode(buffer));
+        assertEquals("bytes", encoder.encode("bytes".getBytes(StandardCharsets.UTF_8)).toString());
+        assertEquals("Grüße", encoder.encode("Grüße").toString(StandardCharsets.UTF_8.name()));
+        assertEquals("42", encoder.encode(42).toString());
+        assertEquals("true", encoder.encode(true).toString());
+        assertEquals("x", encoder.encode('x').toString());
+    }
+
+    @Test
+    public void testEncodeJsonCompact() {
+        assertEquals("{\"a\":1,\"b\":[1,2]}", encoder.encode(new JsonObject().put("a", 1).put("b", new JsonArray().add(1).add(2))).toString());
+        assertEquals("[\"a\"]", encoder.encode(new JsonArray().add("a")).toString());
+        assertEquals("{\"name\":\"a\",\"values\":[1,2]}", encoder.encode(new Pojo("a", 1, 2)).toString());
+    }
+
+    @Test
+    public void testPrettyPrintOnlyInDebug() {
+        final JsonObject pretty = new JsonObject().put(ResponseEncoder.PRETTY_PRINT_CONFIG_KEY, true);
+        final Pojo pojo = new Pojo("a", 1);
+        assertFalse(new ResponseEncoder(pretty, new GSonConverter()).encode(pojo).toString().contains("\n"));
+        assertTrue(new ResponseEncoder(pretty.copy().put("debug", true), new GSonConverter()).encode(pojo).toString().contains("\n"));
+    }
+
+    @Test
+    public void testEndWithContentLength() {
+        final FakeResponse response = new FakeResponse();
+        encoder.end(response.proxy(), "Grüße");
+        assertEquals(String.valueOf("Grüße".getBytes(StandardCharsets.UTF_8).length), response.headers.get("Content-Length"));
+        assertEquals("Grüße", response.body.toString(StandardCharsets.UTF_8.name()));
+        assertTrue(response.ended);
+    }
+
+    @Test
+    public void testEndWithoutBody() {
+        final FakeResponse response = new FakeResponse();
+        encoder.end(response.proxy(), null);
+        assertNull(response.headers.get("Content-Length"));
+        assertNull(response.body);
+        assertTrue(response.ended);
+    }
+
+    @Test
+    public void testEndCached() {
+        final FakeResponse response = new FakeResponse();
+        encoder.endCached(request(response, null), Buffer.buffer("cached"), "\"6-1\"");
+        assertEquals("\"6-1\"", response.headers.get("ETag"));
+        assertEquals(200, response.status);
+        assertEquals("cached", response.body.toString());
+    }
+
+    @Test
+    public void testEndCachedNotModified() {
+        for (String ifNoneMatch : Arrays.asList("\"6-1\"", "W/\"6-1\"", "\"x\", \"6-1\"", "*")) {
+            final FakeResponse response = new FakeResponse();
+            encoder.endCached(request(response, ifNoneMatch), Buffer.buffer("cached"), "\"6-1\"");
+            assertEquals(ifNoneMatch, ResponseEncoder.NOT_MODIFIED, response.status);
+            assertNull(ifNoneMatch, response.body);
+            assertTrue(ifNoneMatch, response.ended);
+        }
+    }
+
+    @Test
+    public void testFail() {
+        final FakeResponse badRequest = new FakeResponse();
+        encoder.fail(badRequest.proxy(), new ReplyException(ReplyFailure.RECIPIENT_FAILURE, 400, "missing parameter"));
+        assertEquals(400, badRequest.status);
+        assertEquals("missing parameter", badRequest.body.toString());
+
+        final FakeResponse overloaded = new FakeResponse();
+        encoder.fail(overloaded.proxy(), new ReplyException(ReplyFailure.RECIPIENT_FAILURE, 503, "overloaded"));
+        assertEquals(503, overloaded.status);
+        assertEquals(String.valueOf(ResponseEncoder.DEFAULT_RETRY_AFTER), overloaded.headers.get("Retry-After"));
+
+        final FakeResponse timeout = new FakeResponse();
+        encoder.fail(timeout.proxy(), new ReplyException(ReplyFailure.TIMEOUT, -1, "timeout"));
+        assertEquals(504, timeout.status);
+        assertEquals("timeout", timeout.body.toString());
+
+        final FakeResponse noHandlers = new FakeResponse();
+        encoder.fail(noHandlers.proxy(), new ReplyException(ReplyFailure.NO_HANDLERS, -1, "no handlers"));
+        assertEquals(503, noHandlers.status);
+        assertNull(noHandlers.headers.get("Retry-After"));
+
+        final FakeResponse unknownCode = new FakeResponse();
+        encoder.fail(unknownCode.proxy(), new ReplyException(ReplyFailure.RECIPIENT_FAILURE, 42, "failed"));
+        assertEquals(500, unknownCode.status);
+        assertEquals("failed", unknownCode.body.toString());
+
+        final FakeResponse other = new FakeResponse();
+        encoder.fail(other.proxy(), new IllegalStateException("broken"));
+        assertEquals(500, other.status);
+        assertEquals("broken", other.body.toString());
+    }
+
+    private static HttpServerRequest request(final FakeResponse response, final String ifNoneMatch) {
+        final MultiMap headers = new CaseInsensitiveHeaders();
+        if (ifNoneMatch != null) headers.add("If-None-Match", ifNoneMatch);
+        return (HttpServerRequest) Proxy.newProxyInstance(ResponseEncoderTest.class.getClassLoader(), new Class[]{HttpServerRequest.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "response":
+                            return response.proxy();
+                        case "headers":
+                            return headers;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    /**
+     * Records status, headers and body of a response
+     */
+    private static class FakeResponse {
+        private final MultiMap headers = new CaseInsensitiveHeaders();
+        private int status = 200;
+        private Buffer body;
+        private boolean ended;
+        private HttpServerResponse proxy;
+
+        private HttpServerResponse proxy() {
+            if (proxy == null) {
+                proxy = (HttpServerResponse) Proxy.newProxyInstance(ResponseEncoderTest.class.getClassLoader(), new Class[]{HttpServerResponse.class},
+                        (p, method, args) -> {
+                            switch (method.getName()) {
+                                case "putHeader":
+                                    headers.set(String.valueOf(args[0]), String.valueOf(args[1]));
+                                    return p;
+                                case "setStatusCode":
+                                    status = (Integer) args[0];
+                                    return p;
+                                case "end":
+                                    assertFalse("response ended twice", ended);
+                                    ended = true;
+                                    if (args != null && args[0] instanceof Buffer) body = (Buffer) args[0];
+                                    if (args != null && args[0] instanceof String) body = Buffer.buffer((String) args[0]);
+                                    return null;
+                                default:
+                                    throw new UnsupportedOperationException(method.getName());
+                            }
+                        });
+            }
+            return proxy;
+        }
+    }
+
+    public static class Pojo {
+        private String name;
+        private int[] values;
+
+        public Pojo(String name, int... values) {
+            this.name = name;
+            this.values = values;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.jacpfx.common;
+
+import io.vertx.core.buffer.Buffer;
+import org.jacpfx.common.spi.BinaryCodec;
+import org.jacpfx.common.spi.ClassIdCodec;
+import org.jacpfx.common.spi.JavaSerializationCodec;
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests codec selection of the Serializer: by name for writing, by the first payload byte for reading
+ */
+public class SerializerTest {
+
+    @Test
+    public void codecsByName() {
+        assertEquals(ClassIdCodec.ID, Serializer.getCodec(ClassIdCodec.NAME).id());
+        assertEquals(JavaSerializationCodec.ID, Serializer.getCodec(JavaSerializationCodec.NAME).id());
+        assertEquals(ClassIdCodec.NAME, Serializer.getCodec(Serializer.DEFAULT_CODEC).name());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownCodecName() {
+        Serializer.getCodec("unknown");
+    }
+
+    @Test
+    public void readsPayloadsOfEveryCodec() throws Exception {
+        final Date value = new Date(42);
+        for (String name : new String[]{ClassIdCodec.NAME, JavaSerializationCodec.NAME}) {
+            final BinaryCodec codec = Serializer.getCodec(name);
+            final byte[] payload = Serializer.serialize(value, codec);
+            assertEquals(codec.id(), payload[0]);
+            assertEquals(value, Serializer.deserialize(payload));
+            final Buffer buffer = Buffer.buffer("prefix");
+            Serializer.serialize(value, codec, buffer);
+            assertEquals(value, Serializer.deserialize(buffer, 6, buffer.length() - 6));
+        }
+    }
+
+    @Test
+    public void readsCompressedPayloads() throws Exception {
+        final String value = new String(new char[4096]).replace('\0', 'x');
+        final byte[] payload = Compression.compress(Serializer.serialize(value), 64, "serializer-test");
+        assertEquals(Compression.ID, payload[0]);
+        assertEquals(value, Serializer.deserialize(payload));
+        assertEquals(value, Serializer.deserialize(Buffer.buffer(payload), 0, payload.length));
+    }
+}
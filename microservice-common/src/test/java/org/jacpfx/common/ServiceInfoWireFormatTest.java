@@ -0,0 +1,173 @@
+package org.jacpfx.common;
+
+import io.vertx.core.buffer.Buffer;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class ServiceInfoWireFormatTest {
+
+    @Test
+    public void testRoundTripVersion1() {
+        final ServiceInfo decoded = roundTrip((byte) 1);
+        assertCommonFields(decoded);
+        final Operation operation = decoded.getOperations()[0];
+        assertNull(operation.getSchema());
+        assertEquals(0, operation.getMaxInFlight());
+        assertEquals(0, operation.getMaxQueued());
+        assertFalse(operation.isIdempotent());
+        assertEquals(1, decoded.getInstances());
+        assertNull(decoded.getInstanceAddresses());
+    }
+
+    @Test
+    public void testRoundTripVersion2() {
+        final ServiceInfo decoded = roundTrip((byte) 2);
+        assertCommonFields(decoded);
+        final Operation operation = decoded.getOperations()[0];
+        assertArrayEquals(new String[]{"name:String", "age:int"}, operation.getSchema());
+        assertEquals(0, operation.getMaxInFlight());
+        assertFalse(operation.isIdempotent());
+        assertEquals(1, decoded.getInstances());
+    }
+
+    @Test
+    public void testRoundTripVersion3() {
+        final ServiceInfo decoded = roundTrip((byte) 3);
+        assertCommonFields(decoded);
+        final Operation operation = decoded.getOperations()[0];
+        assertArrayEquals(new String[]{"name:String", "age:int"}, operation.getSchema());
+        assertEquals(10, operation.getMaxInFlight());
+        assertEquals(20, operation.getMaxQueued());
+        assertFalse(operation.isIdempotent());
+        assertEquals(1, decoded.getInstances());
+    }
+
+    @Test
+    public void testRoundTripVersion4() {
+        final ServiceInfo decoded = roundTrip((byte) 4);
+        assertCommonFields(decoded);
+        final Operation operation = decoded.getOperations()[0];
+        assertEquals(10, operation.getMaxInFlight());
+        assertEquals(20, operation.getMaxQueued());
+        assertFalse(operation.isIdempotent());
+        assertEquals(3, decoded.getInstances());
+        assertArrayEquals(new String[]{"service-0", "service-1", "service-2"}, decoded.getInstanceAddresses());
+    }
+
+    @Test
+    public void testRoundTripVersion5() {
+        final ServiceInfo decoded = roundTrip(ServiceInfoWireFormat.VERSION);
+        assertCommonFields(decoded);
+        final Operation operation = decoded.getOperations()[0];
+        assertArrayEquals(new String[]{"name:String", "age:int"}, operation.getSchema());
+        assertEquals(10, operation.getMaxInFlight());
+        assertEquals(20, operation.getMaxQueued());
+        assertTrue(operation.isIdempotent());
+        assertEquals(3, decoded.getInstances());
+        assertArrayEquals(new String[]{"service-0", "service-1", "service-2"}, decoded.getInstanceAddresses());
+    }
+
+    @Test
+    public void testHolderRoundTripPerVersion() {
+        for (byte version = ServiceInfoWireFormat.MIN_VERSION; version <= ServiceInfoWireFormat.VERSION; version++) {
+            final Buffer buffer = Buffer.buffer();
+            ServiceInfoWireFormat.writeServiceInfoHolder(buffer, new ServiceInfoHolder(Arrays.asList(serviceInfo(), new ServiceInfo("/other"))), version);
+            assertEquals(version, buffer.getByte(0));
+            final ServiceInfoHolder decoded = ServiceInfoWireFormat.readServiceInfoHolder(buffer, 0);
+            assertEquals(2, decoded.getAll().size());
+            assertCommonFields(decoded.getAll().get(0));
+            assertEquals("/other", decoded.getAll().get(1).getServiceName());
+        }
+    }
+
+    @Test
+    public void testReadVersion1Payload() {
+        // a descriptor as written by the first wire format version, built by hand
+        final Buffer buffer = Buffer.buffer();
+        buffer.appendByte((byte) 1);
+        BufferTool.appendVarInt(buffer, 2);
+        BufferTool.appendString(buffer, "/service");
+        BufferTool.appendString(buffer, "/op");
+        final int service = 1;
+        final int url = 2;
+        BufferTool.appendVarInt(buffer, service);
+        BufferTool.appendVarInt(buffer, 0);
+        BufferTool.appendVarInt(buffer, 0);
+        BufferTool.appendVarInt(buffer, 0);
+        BufferTool.appendVarInt(buffer, 0);
+        BufferTool.appendVarInt(buffer, 8081);
+        BufferTool.appendVarInt(buffer, 1);
+        BufferTool.appendVarInt(buffer, url);
+        BufferTool.appendVarInt(buffer, 0);
+        BufferTool.appendVarInt(buffer, url);
+        BufferTool.appendVarInt(buffer, 0);
+        BufferTool.appendVarInt(buffer, 0);
+        BufferTool.appendVarInt(buffer, 0);
+        BufferTool.appendVarInt(buffer, service);
+        BufferTool.appendVarInt(buffer, 0);
+        BufferTool.appendVarInt(buffer, 0);
+        BufferTool.appendVarInt(buffer, 1);
+        final ServiceInfo decoded = ServiceInfoWireFormat.readServiceInfo(buffer, 0);
+        assertEquals("/service", decoded.getServiceName());
+        assertEquals(Integer.valueOf(8080), decoded.getPort());
+        assertEquals(1, decoded.getOperations().length);
+        assertEquals("/op", decoded.getOperations()[0].getUrl());
+        assertEquals("/service", decoded.getOperations()[0].getServiceName());
+        assertArrayEquals(new String[0], decoded.getOperations()[0].getParameter());
+        assertEquals(1, decoded.getInstances());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnknownVersionIsRejected() {
+        final Buffer buffer = Buffer.buffer();
+        ServiceInfoWireFormat.writeServiceInfo(buffer, serviceInfo());
+        buffer.setByte(0, (byte) (ServiceInfoWireFormat.VERSION + 1));
+        ServiceInfoWireFormat.readServiceInfo(buffer, 0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnknownWriteVersionIsRejected() {
+        ServiceInfoWireFormat.writeServiceInfo(Buffer.buffer(), serviceInfo(), (byte) 0);
+    }
+
+    private static ServiceInfo roundTrip(final byte version) {
+        final Buffer buffer = Buffer.buffer().appendString("prefix");
+        ServiceInfoWireFormat.writeServiceInfo(buffer, serviceInfo(), version);
+        assertEquals(version, buffer.getByte(6));
+        return ServiceInfoWireFormat.readServiceInfo(buffer, 6);
+    }
+
+    private static void assertCommonFields(final ServiceInfo decoded) {
+        assertEquals("/service", decoded.getServiceName());
+        assertEquals("host", decoded.getHostName());
+        assertEquals("http://host:8080/service", decoded.getServiceURL());
+        assertEquals(Integer.valueOf(8080), decoded.getPort());
+        assertEquals(1, decoded.getOperations().length);
+        final Operation operation = decoded.getOperations()[0];
+        assertEquals("/op", operation.getName());
+        assertEquals("/op", operation.getUrl());
+        assertEquals(Type.REST_GET.name(), operation.getType());
+        assertArrayEquals(new String[]{"application/json"}, operation.getProduces());
+        assertNull(operation.getConsumes());
+        assertEquals("/service", operation.getServiceName());
+        assertEquals("host", operation.getConnectionHost());
+        assertEquals(8080, operation.getConnectionPort());
+        assertArrayEquals(new String[]{"name", "age"}, operation.getParameter());
+    }
+
+    private static ServiceInfo serviceInfo() {
+        final Operation operation = new Operation("/op", null, "/op", Type.REST_GET.name(), new String[]{"application/json"}, null,
+                "/service", "host", 8080, null, "name", "age");
+        operation.setSchema(new String[]{"name:String", "age:int"});
+        operation.setMaxInFlight(10);
+        operation.setMaxQueued(20);
+        operation.setIdempotent(true);
+        final ServiceInfo info = new ServiceInfo("/service", null, "host", "http://host:8080/service", null, 8080, operation);
+        info.setInstances(3);
+        info.setInstanceAddresses(new String[]{"service-0", "service-1", "service-2"});
+        return info;
+    }
+}
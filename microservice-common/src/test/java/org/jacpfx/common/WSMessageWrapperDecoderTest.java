@@ -0,0 +1,59 @@
+package org.jacpfx.common;
+
+import io.vertx.core.buffer.Buffer;
+import org.jacpfx.common.spi.ClassIdCodec;
+import org.jacpfx.common.spi.JavaSerializationCodec;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class WSMessageWrapperDecoderTest {
+
+    private static final WSEndpoint ENDPOINT = new WSEndpoint("binary", "text", "/wsService/hello");
+    private static final String BODY = new String(new char[2048]).replace('\0', 'x');
+
+    private final WSMessageWrapperDecoder decoder = new WSMessageWrapperDecoder(Serializer.getCodec(ClassIdCodec.NAME), Compression.DISABLED);
+
+    @Test
+    public void testWrapperWithoutSettingsUsesDecoderSettings() {
+        final Buffer wire = encode(new WSMessageWrapper(ENDPOINT, BODY, String.class, WSReply.SENDER));
+        assertTrue(wire.length() > BODY.length());
+        final WSMessageWrapper decoded = decoder.decodeFromWire(0, wire);
+        assertEquals(BODY, decoded.getBody());
+        assertEquals(String.class, decoded.getBodyType());
+        assertEquals(WSReply.SENDER, decoded.getReplyeType());
+        assertEquals("/wsService/hello", decoded.getEndpoint().getUrl());
+    }
+
+    @Test
+    public void testWrapperCompressionThreshold() {
+        final Buffer wire = encode(new WSMessageWrapper(ENDPOINT, BODY, String.class, WSReply.ALL, Serializer.getCodec(ClassIdCodec.NAME), 64));
+        assertTrue(wire.length() < BODY.length());
+        assertEquals(BODY, decoder.decodeFromWire(0, wire).getBody());
+    }
+
+    @Test
+    public void testWrapperBinaryCodec() throws Exception {
+        final ArrayList<String> body = new ArrayList<>(Arrays.asList("a", "b"));
+        final Buffer java = encode(new WSMessageWrapper(ENDPOINT, body, ArrayList.class, WSReply.SENDER, Serializer.getCodec(JavaSerializationCodec.NAME), Compression.DISABLED));
+        final Buffer classId = encode(new WSMessageWrapper(ENDPOINT, body, ArrayList.class, WSReply.SENDER));
+        assertNotEquals(java.length(), classId.length());
+        assertEquals(body, decoder.decodeFromWire(0, java).getBody());
+        assertEquals(body, decoder.decodeFromWire(0, classId).getBody());
+    }
+
+    @Test
+    public void testTransformPassesInstance() {
+        final WSMessageWrapper wrapper = new WSMessageWrapper(ENDPOINT, BODY, String.class, WSReply.SENDER, Serializer.getCodec(ClassIdCodec.NAME), 64);
+        assertSame(wrapper, decoder.transform(wrapper));
+    }
+
+    private Buffer encode(final WSMessageWrapper wrapper) {
+        final Buffer wire = Buffer.buffer();
+        decoder.encodeToWire(wire, wrapper);
+        return wire;
+    }
+}
@@ -0,0 +1,168 @@
+package org.jacpfx.common.spi;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.jacpfx.common.Operation;
+import org.jacpfx.common.Parameter;
+import org.jacpfx.common.ParameterMap;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the class-id codec: framework types, user registrations, unknown ids and the java serialized fallback
+ */
+public class ClassIdCodecTest {
+
+    private final ClassIdCodec codec = new ClassIdCodec();
+
+    @Test
+    public void roundTripFrameworkTypes() throws Exception {
+        assertEquals("hello", roundTrip("hello"));
+        assertEquals(42, roundTrip(42));
+        assertEquals(42L, roundTrip(42L));
+        assertEquals(true, roundTrip(true));
+        assertEquals('c', roundTrip('c'));
+        assertNull(roundTrip(null));
+        assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) roundTrip(new byte[]{1, 2, 3}));
+        assertArrayEquals(new String[]{"a", null, "b"}, (String[]) roundTrip(new String[]{"a", null, "b"}));
+        assertEquals(new JsonObject().put("name", "hello"), roundTrip(new JsonObject().put("name", "hello")));
+        assertEquals(new JsonArray().add(1).add("two"), roundTrip(new JsonArray().add(1).add("two")));
+        assertEquals(new ArrayList<>(Arrays.asList("a", 1, null)), roundTrip(new ArrayList<>(Arrays.asList("a", 1, null))));
+    }
+
+    @Test
+    public void roundTripParameter() throws Exception {
+        final ParameterMap<String> params = new ParameterMap<>();
+        params.add("id", "7");
+        params.add("name", "hello");
+        final Parameter<?> decoded = (Parameter<?>) roundTrip(new Parameter<>(params));
+        assertEquals(2, decoded.getParameters().size());
+        assertEquals("7", decoded.getValue("id"));
+        assertEquals("hello", decoded.getValue("name"));
+        final Parameter<?> single = (Parameter<?>) roundTrip(new Parameter<>("name", "hello"));
+        assertEquals("name", single.getName());
+        assertEquals("hello", single.getValue());
+    }
+
+    @Test
+    public void roundTripOperation() throws Exception {
+        final Operation operation = new Operation("/op", null, "/service/op", "REST_GET", new String[]{"application/json"}, null, "/service", "localhost", 8080, null, "id");
+        operation.setMaxInFlight(4);
+        operation.setMaxQueued(2);
+        operation.setIdempotent(true);
+        final Operation decoded = (Operation) roundTrip(operation);
+        assertEquals(operation, decoded);
+        assertEquals(4, decoded.getMaxInFlight());
+        assertEquals(2, decoded.getMaxQueued());
+        assertTrue(decoded.isIdempotent());
+        assertEquals("localhost", decoded.getConnectionHost());
+        assertEquals(8080, decoded.getConnectionPort());
+    }
+
+    @Test
+    public void unregisteredTypeFallsBackToJavaSerialization() throws Exception {
+        final Item item = new Item("hello", 3);
+        final byte[] payload = codec.encode(item);
+        assertEquals(ClassIdCodec.ID, payload[0]);
+        assertEquals(2, payload[1]);
+        assertEquals(item, codec.decode(payload));
+    }
+
+    @Test
+    public void registeredUserType() throws Exception {
+        ClassIdCodec.register(100, Point.class, new ClassIdCodec.TypeSerializer<Point>() {
+            @Override
+            public void write(Point value, ClassIdCodec.Output out) throws IOException {
+                out.writeVarInt(value.x);
+                out.writeVarInt(value.y);
+            }
+
+            @Override
+            public Point read(ClassIdCodec.Input in) throws IOException {
+                return new Point(in.readVarInt(), in.readVarInt());
+            }
+        });
+        assertTrue(ClassIdCodec.isRegistered(Point.class));
+        final byte[] payload = codec.encode(new Point(3, 300));
+        assertEquals(1, payload[1]);
+        final Point decoded = (Point) codec.decode(payload);
+        assertEquals(3, decoded.x);
+        assertEquals(300, decoded.y);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void reservedClassId() {
+        ClassIdCodec.register(ClassIdCodec.FIRST_USER_ID - 1, First.class, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void conflictingClassId() {
+        ClassIdCodec.register(101, First.class, null);
+        ClassIdCodec.register(101, Second.class, null);
+    }
+
+    @Test(expected = ClassNotFoundException.class)
+    public void unknownClassId() throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ClassIdCodec.Output out = new ClassIdCodec.Output(bytes);
+        out.writeByte(ClassIdCodec.ID);
+        out.writeByte(1);
+        out.writeVarInt(9999);
+        out.flush();
+        codec.decode(bytes.toByteArray());
+    }
+
+    @Test(expected = StreamCorruptedException.class)
+    public void foreignPayload() throws Exception {
+        codec.decode(new JavaSerializationCodec().encode("hello"));
+    }
+
+    private Object roundTrip(final Object value) throws Exception {
+        return codec.decode(codec.encode(value));
+    }
+
+    public static class Item implements Serializable {
+        private final String name;
+        private final int count;
+
+        public Item(String name, int count) {
+            this.name = name;
+            this.count = count;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Item && ((Item) o).name.equals(name) && ((Item) o).count == count;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, count);
+        }
+    }
+
+    public static class Point {
+        private final int x;
+        private final int y;
+
+        public Point(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    public static class First {
+    }
+
+    public static class Second {
+    }
+}
@@ -0,0 +1,40 @@
+package org.jacpfx.common.spi;
+
+import com.google.gson.JsonSyntaxException;
+import org.jacpfx.common.spi.JSONConverterTest.Person;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.jacpfx.common.spi.JSONConverterTest.*;
+import static org.junit.Assert.*;
+
+public class JSONAdapterTest {
+
+    @Test
+    public void testAdapterMatchesConverter() {
+        final byte[] bytes = JSON.getBytes(StandardCharsets.UTF_8);
+        for (JSONConverter converter : converters()) {
+            final JSONAdapter<Person> adapter = converter.getAdapter(Person.class);
+            assertEquals(converter.name(), JSON, adapter.toJSONString(PERSON));
+            assertArrayEquals(converter.name(), bytes, adapter.toJSONBuffer(PERSON).getBytes());
+            assertEquals(converter.name(), PERSON, adapter.fromJSON(JSON));
+            assertEquals(converter.name(), PERSON, adapter.fromJSON(bytes));
+        }
+    }
+
+    @Test
+    public void testGsonAdapterNullAndEmptyInput() {
+        final JSONAdapter<Person> adapter = new GSonConverter().getAdapter(Person.class);
+        assertNull(adapter.fromJSON((String) null));
+        assertNull(adapter.fromJSON((byte[]) null));
+        assertNull(adapter.fromJSON(""));
+        assertNull(adapter.fromJSON("null"));
+        assertEquals("null", adapter.toJSONString(null));
+    }
+
+    @Test(expected = JsonSyntaxException.class)
+    public void testGsonAdapterInvalidInput() {
+        new GSonStreamingConverter().getAdapter(Person.class).fromJSON("{\"name\":");
+    }
+}
@@ -0,0 +1,105 @@
+package org.jacpfx.common.spi;
+
+import com.google.gson.Gson;
+import io.vertx.core.buffer.Buffer;
+import org.jacpfx.common.JSONConverters;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class JSONConverterTest {
+
+    static final Person PERSON = new Person("Jürgen", 42, Arrays.asList("a", "ö"));
+    static final String JSON = new Gson().toJson(PERSON);
+
+    static List<JSONConverter> converters() {
+        return Arrays.asList(new GSonConverter(), new GSonStreamingConverter(), new StringConverter());
+    }
+
+    @Test
+    public void testStringRoundTrip() {
+        for (JSONConverter converter : converters()) {
+            assertEquals(converter.name(), JSON, converter.convertToJSONString(PERSON));
+            assertEquals(converter.name(), PERSON, converter.convertToObject(JSON, Person.class));
+        }
+    }
+
+    @Test
+    public void testByteVariants() {
+        final byte[] bytes = JSON.getBytes(StandardCharsets.UTF_8);
+        for (JSONConverter converter : converters()) {
+            assertEquals(converter.name(), PERSON, converter.convertToObject(bytes, Person.class));
+            assertEquals(converter.name(), PERSON, converter.convertToObject(Buffer.buffer(bytes), Person.class));
+            assertEquals(converter.name(), PERSON, converter.convertToObject(new ByteArrayInputStream(bytes), Person.class));
+            assertArrayEquals(converter.name(), bytes, converter.convertToJSONBuffer(PERSON).getBytes());
+        }
+    }
+
+    @Test
+    public void testBufferSlice() {
+        final Buffer buffer = Buffer.buffer("prefix").appendString(JSON, StandardCharsets.UTF_8.name());
+        for (JSONConverter converter : converters()) {
+            assertEquals(converter.name(), PERSON, converter.convertToObject(buffer.slice(6, buffer.length()), Person.class));
+        }
+    }
+
+    @Test
+    public void testConvertersByName() {
+        assertEquals(GSonConverter.class, JSONConverters.getConverter(JSONConverters.DEFAULT_CONVERTER).getClass());
+        assertEquals(GSonStreamingConverter.class, JSONConverters.getConverter(GSonStreamingConverter.NAME).getClass());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownConverterName() {
+        JSONConverters.getConverter("unknown");
+    }
+
+    /**
+     * A converter implementing only the String methods, to test the default byte and adapter methods
+     */
+    static class StringConverter implements JSONConverter {
+        private final Gson gson = new Gson();
+
+        @Override
+        public Object convertToObject(String jsonString, Class<?> clazz) {
+            return gson.fromJson(jsonString, clazz);
+        }
+
+        @Override
+        public String convertToJSONString(Object object) {
+            return gson.toJson(object);
+        }
+    }
+
+    public static class Person {
+        private String name;
+        private int age;
+        private List<String> tags;
+
+        public Person() {
+        }
+
+        public Person(String name, int age, List<String> tags) {
+            this.name = name;
+            this.age = age;
+            this.tags = tags;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Person)) return false;
+            final Person other = (Person) o;
+            return age == other.age && name.equals(other.name) && tags.equals(other.tags);
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode() * 31 + age;
+        }
+    }
+}
@@ -6,9 +6,9 @@ import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.Message;
 import org.jacpfx.common.*;
 import org.jacpfx.common.constants.GlobalKeyHolder;
+import org.jacpfx.common.util.EventBusCodecs;
 
 import javax.management.ServiceNotFoundException;
-import java.io.IOException;
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -31,6 +31,7 @@ public class ServiceDiscovery {
 
     // TODO add TTL parameter
     public static ServiceDiscovery getInstance(Vertx vertx) {
+        EventBusCodecs.registerDefaultCodecs(vertx.eventBus());
         return new ServiceDiscovery(vertx, null);
     }
     // TODO add TTL parameter
@@ -54,7 +55,7 @@ public class ServiceDiscovery {
 
     private ServiceInfo getServiceInfoByVertx(Consumer<ServiceInfoResult> consumer, Function<ServiceInfo,Boolean> criteria) {
         // TODO add caching mechanism with TTL to reduce
-        vertx.eventBus().send(GlobalKeyHolder.SERVICE_REGISTRY_GET, "xyz", (AsyncResultHandler<Message<byte[]>>) h ->
+        vertx.eventBus().send(GlobalKeyHolder.SERVICE_REGISTRY_GET, "xyz", (AsyncResultHandler<Message<ServiceInfoHolder>>) h ->
                 {
                     if (h.succeeded()) {
                         final List<ServiceInfo> serviceInfos = getServiceInfoFromMessage(h).filter(info -> criteria.apply(info)).collect(Collectors.toList());
@@ -73,15 +74,9 @@ public class ServiceDiscovery {
         return null;
     }
 
-    private Stream<ServiceInfo> getServiceInfoFromMessage(AsyncResult<Message<byte[]>> h) {
-        ServiceInfoHolder holder = new ServiceInfoHolder();
-        try {
-            holder = (ServiceInfoHolder) Serializer.deserialize(h.result().body());
-        } catch (IOException e) {
-            e.printStackTrace();
-        } catch (ClassNotFoundException e) {
-            e.printStackTrace();
-        }
-        return holder.getAll().stream().map(i->new ServiceInfo(i,vertx));
+    private Stream<ServiceInfo> getServiceInfoFromMessage(AsyncResult<Message<ServiceInfoHolder>> h) {
+        return h.result().body().getAll().stream().
+                peek(info -> Stream.of(info.getOperations()).forEach(op -> BinarySchema.verify(op.getSchema()))).
+                map(i->new ServiceInfo(i,vertx));
     }
 }
@@ -13,6 +13,8 @@ import io.vertx.core.shareddata.AsyncMap;
 import io.vertx.core.shareddata.SharedData;
 import org.jacpfx.common.*;
 import org.jacpfx.common.constants.GlobalKeyHolder;
+import org.jacpfx.common.spi.BinaryCodec;
+import org.jacpfx.common.util.EventBusCodecs;
 
 import java.io.IOException;
 import java.net.InetAddress;
@@ -57,7 +59,7 @@ public class ServiceRegistry extends AbstractVerticle {
     private String host;
     private int port;
     private boolean debug;
-    private final ServiceInfoDecoder serviceInfoDecoder = new ServiceInfoDecoder();
+    private BinaryCodec codec;
     private final SimpleDateFormat TIME_FORMAT = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
 
     private static String getHostName() {
@@ -74,7 +76,7 @@ public class ServiceRegistry extends AbstractVerticle {
         logDebug("Service registry started.");
 
         initConfiguration(getConfig());
-        vertx.eventBus().registerDefaultCodec(ServiceInfo.class, serviceInfoDecoder);
+        EventBusCodecs.registerDefaultCodecs(vertx.eventBus(), codec);
         vertx.eventBus().consumer(GlobalKeyHolder.SERVICE_REGISTRY_REGISTER, this::serviceRegister);
         vertx.eventBus().consumer(GlobalKeyHolder.SERVICE_REGISTRY_GET, this::getServicesInfo);
         pingService();
@@ -92,6 +94,7 @@ public class ServiceRegistry extends AbstractVerticle {
         port = config.getInteger("port", PORT);
         mainURL = host.concat(":").concat(Integer.valueOf(port).toString());
         debug = config.getBoolean("debug",false);
+        codec = Serializer.getCodec(config.getString(Serializer.CODEC_CONFIG_KEY, Serializer.DEFAULT_CODEC));
 
     }
 
@@ -105,22 +108,13 @@ public class ServiceRegistry extends AbstractVerticle {
     private void getServiceHolderAndReplyToServiceInfoRequest(Message<byte[]> message, AsyncMap<String, ServiceInfoHolder> resultMap) {
         resultMap.get(GlobalKeyHolder.SERVICE_HOLDER, onSuccess(resultHolder -> {
             if (resultHolder != null) {
-                message.reply(getServiceIfoHolderBinary(buildServiceInfoForEntryPoint(resultHolder)));
+                message.reply(buildServiceInfoForEntryPoint(resultHolder));
             } else {
-                message.reply(getServiceIfoHolderBinary(new ServiceInfoHolder()));
+                message.reply(new ServiceInfoHolder());
             }
         }));
     }
 
-    private byte[] getServiceIfoHolderBinary(ServiceInfoHolder resultHolder) {
-        try {
-            return Serializer.serialize(resultHolder);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-        return new byte[]{};
-    }
-
     private <T> Handler<AsyncResult<T>> onSuccess(Consumer<T> consumer) {
         return result -> {
             if (result.failed()) {
@@ -336,7 +330,7 @@ public class ServiceRegistry extends AbstractVerticle {
     }
 
     private Operation createOperation(String serviceName, String host, int port, Operation operation, String url) {
-        return new Operation(operation.getName(),
+        final Operation result = new Operation(operation.getName(),
                 operation.getDescription(),
                 url,
                 operation.getType(),
@@ -347,6 +341,11 @@ public class ServiceRegistry extends AbstractVerticle {
                 port,
                 null,// transient Vertx instance will be set on client side
                 operation.getParameter());
+        result.setSchema(operation.getSchema());
+        result.setMaxInFlight(operation.getMaxInFlight());
+        result.setMaxQueued(operation.getMaxQueued());
+        result.setIdempotent(operation.isIdempotent());
+        return result;
     }
 
     private void logDebug(String message){
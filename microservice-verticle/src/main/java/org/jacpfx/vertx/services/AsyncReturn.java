@@ -0,0 +1,81 @@
+package org.jacpfx.vertx.services;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+
+/**
+ * Asynchronous return values of service methods. A REST or EVENTBUS operation may return a CompletableFuture (any CompletionStage), a Vert.x Future or a
+ * callback function, a Consumer receiving the Handler&lt;AsyncResult&lt;T&gt;&gt; to complete. The response is sent when the result resolves; completion
+ * on a foreign thread is passed back to the context of the service verticle. A failed result is answered with {@link #FAILURE}.
+ */
+final class AsyncReturn {
+
+    /**
+     * The failure code of a failed asynchronous result
+     */
+    static final int FAILURE = 500;
+
+    private AsyncReturn() {
+    }
+
+    /**
+     * Checks if a method return type is resolved asynchronously
+     *
+     * @param returnType the declared return type
+     * @return true for CompletionStage, Vert.x Future and callback return types
+     */
+    static boolean isAsync(final Class<?> returnType) {
+        return CompletionStage.class.isAssignableFrom(returnType) || Future.class.isAssignableFrom(returnType) || Consumer.class.equals(returnType);
+    }
+
+    /**
+     * Registers the completion handler of an asynchronous return value, a null value completes with a null result
+     *
+     * @param value   the return value of the service method
+     * @param context the context of the service verticle
+     * @param handler the completion handler, called on the verticle context
+     */
+    @SuppressWarnings("unchecked")
+    static void onComplete(final Object value, final Context context, final Handler<AsyncResult<Object>> handler) {
+        final Handler<AsyncResult<Object>> onContext = result -> {
+            if (Vertx.currentContext() == context) {
+                handler.handle(result);
+            } else {
+                context.runOnContext(v -> handler.handle(result));
+            }
+        };
+        if (value == null) {
+            onContext.handle(Future.succeededFuture());
+        } else if (value instanceof CompletionStage) {
+            ((CompletionStage<Object>) value).whenComplete((result, error) ->
+                    onContext.handle(error == null ? Future.succeededFuture(result) : Future.failedFuture(unwrap(error))));
+        } else if (value instanceof Future) {
+            ((Future<Object>) value).setHandler(onContext);
+        } else if (value instanceof Consumer) {
+            final Future<Object> future = Future.future();
+            future.setHandler(onContext);
+            try {
+                ((Consumer<Handler<AsyncResult<Object>>>) value).accept(result -> {
+                    if (future.isComplete()) return;
+                    if (result.succeeded()) future.complete(result.result());
+                    else future.fail(result.cause());
+                });
+            } catch (RuntimeException e) {
+                if (!future.isComplete()) future.fail(e);
+            }
+        } else {
+            onContext.handle(Future.succeededFuture(value));
+        }
+    }
+
+    private static Throwable unwrap(final Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -0,0 +1,86 @@
+package org.jacpfx.vertx.services;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Collects the messages of a @Batch operation, a batch is flushed when maxSize messages arrived or maxDelayMs passed since its first message.
+ * The batcher is only used on the verticle context, so it needs no synchronization.
+ */
+final class Batcher {
+
+    private final Vertx vertx;
+    private final int maxSize;
+    private final long maxDelayMs;
+    private final BiConsumer<List<Message<?>>, Object[]> flush;
+    private List<Message<?>> messages = new ArrayList<>();
+    private List<Object[]> rows = new ArrayList<>();
+    private long timer = -1;
+
+    /**
+     * @param vertx      the Vert.x instance of the verticle
+     * @param maxSize    the number of messages flushing a batch
+     * @param maxDelayMs the maximum time a message waits for its batch
+     * @param flush      receives the messages of a batch and the method parameters, one List per parameter
+     */
+    Batcher(final Vertx vertx, final int maxSize, final long maxDelayMs, final BiConsumer<List<Message<?>>, Object[]> flush) {
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize must be at least one");
+        if (maxDelayMs < 1) throw new IllegalArgumentException("maxDelayMs must be at least one");
+        this.vertx = vertx;
+        this.maxSize = maxSize;
+        this.maxDelayMs = maxDelayMs;
+        this.flush = flush;
+    }
+
+    /**
+     * Adds a message to the current batch
+     *
+     * @param message    the message
+     * @param parameters the method parameters decoded from the message
+     */
+    void add(final Message<?> message, final Object[] parameters) {
+        messages.add(message);
+        rows.add(parameters);
+        if (messages.size() >= maxSize) {
+            flush();
+        } else if (timer < 0) {
+            timer = vertx.setTimer(maxDelayMs, id -> {
+                timer = -1;
+                flush();
+            });
+        }
+    }
+
+    /**
+     * Passes the current batch to the operation
+     */
+    void flush() {
+        if (timer >= 0) {
+            vertx.cancelTimer(timer);
+            timer = -1;
+        }
+        if (messages.isEmpty()) return;
+        final List<Message<?>> batch = messages;
+        final List<Object[]> batchRows = rows;
+        messages = new ArrayList<>(maxSize);
+        rows = new ArrayList<>(maxSize);
+        flush.accept(batch, transpose(batchRows));
+    }
+
+    private static Object[] transpose(final List<Object[]> rows) {
+        final int count = rows.get(0).length;
+        final Object[] parameters = new Object[count];
+        for (int i = 0; i < count; i++) {
+            final List<Object> column = new ArrayList<>(rows.size());
+            for (final Object[] row : rows) {
+                column.add(row[i]);
+            }
+            parameters[i] = column;
+        }
+        return parameters;
+    }
+}
@@ -0,0 +1,217 @@
+package org.jacpfx.vertx.services;
+
+import org.jacpfx.common.Parameter;
+
+import javax.ws.rs.FormParam;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.QueryParam;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The compiled parameter binding of a REST operation. Each method parameter gets a binder, selected once when the service starts: a @QueryParam,
+ * @PathParam or @FormParam value, the request context (RoutingContext or Message), or nothing. Request values are converted to the declared parameter
+ * type by MethodHandle filters in front of the service method, so primitives are parsed directly into the call without intermediate boxing.
+ * Supported types are String, primitives and their wrappers, UUID, enums and types with a static valueOf(String)/fromString(String) method or a String
+ * constructor. A missing or invalid value fails with a {@link BindingException}, which is answered with {@link #BAD_REQUEST}.
+ */
+final class BindingPlan {
+
+    static final int BAD_REQUEST = 400;
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final Map<Class<?>, MethodHandle> PARSERS = new HashMap<>();
+    private static final MethodHandle FAIL;
+    private static final MethodHandle IS_NULL;
+
+    static {
+        try {
+            FAIL = LOOKUP.findStatic(BindingPlan.class, "fail", MethodType.methodType(Object.class, String.class, Class.class, RuntimeException.class, String.class));
+            IS_NULL = LOOKUP.findStatic(BindingPlan.class, "isNull", MethodType.methodType(boolean.class, String.class));
+            PARSERS.put(int.class, parser(Integer.class, "parseInt", int.class));
+            PARSERS.put(long.class, parser(Long.class, "parseLong", long.class));
+            PARSERS.put(double.class, parser(Double.class, "parseDouble", double.class));
+            PARSERS.put(float.class, parser(Float.class, "parseFloat", float.class));
+            PARSERS.put(short.class, parser(Short.class, "parseShort", short.class));
+            PARSERS.put(byte.class, parser(Byte.class, "parseByte", byte.class));
+            PARSERS.put(boolean.class, parser(BindingPlan.class, "parseBoolean", boolean.class));
+            PARSERS.put(char.class, parser(BindingPlan.class, "parseChar", char.class));
+            PARSERS.put(Boolean.class, parser(BindingPlan.class, "parseBoolean", boolean.class).asType(MethodType.methodType(Boolean.class, String.class)));
+            PARSERS.put(Character.class, parser(BindingPlan.class, "parseChar", char.class).asType(MethodType.methodType(Character.class, String.class)));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Binds one method parameter from the request
+     */
+    @FunctionalInterface
+    interface Binder {
+        Object bind(Object context, Parameter<String> params);
+    }
+
+    /**
+     * Signals a missing or invalid request parameter
+     */
+    static final class BindingException extends IllegalArgumentException {
+        BindingException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private final Binder[] binders;
+    private final MethodHandle[] converters;
+
+    private BindingPlan(Binder[] binders, MethodHandle[] converters) {
+        this.binders = binders;
+        this.converters = converters;
+    }
+
+    /**
+     * Compiles the binding of all method parameters
+     *
+     * @param method the service method
+     * @param names  the request parameter name of each method parameter, null for parameters bound to the request context
+     * @return the binding plan
+     * @throws IllegalArgumentException if a request parameter has an unsupported type
+     */
+    static BindingPlan compile(final Method method, final String[] names) {
+        final Class<?>[] types = method.getParameterTypes();
+        final Binder[] binders = new Binder[types.length];
+        final MethodHandle[] converters = new MethodHandle[types.length];
+        for (int i = 0; i < types.length; i++) {
+            final Class<?> type = types[i];
+            final String name = names[i];
+            if (name == null) {
+                binders[i] = (context, params) -> type.isInstance(context) ? context : null;
+                continue;
+            }
+            binders[i] = (context, params) -> params.getValue(name);
+            converters[i] = converter(name, type);
+        }
+        return new BindingPlan(binders, converters);
+    }
+
+    /**
+     * Reads the request parameter names of a service method without operation index
+     *
+     * @param method the service method
+     * @return the @QueryParam, @PathParam or @FormParam name of each method parameter, null for other parameters
+     */
+    static String[] requestParameterNames(final Method method) {
+        final Annotation[][] annotations = method.getParameterAnnotations();
+        final String[] names = new String[annotations.length];
+        for (int i = 0; i < annotations.length; i++) {
+            // check only first parameter annotation as only one is allowed
+            names[i] = annotations[i].length > 0 ? requestParameterName(annotations[i][0]) : null;
+        }
+        return names;
+    }
+
+    /**
+     * Binds the method parameters, request values are passed as Strings and converted by the filters of {@link #apply(MethodHandle)}
+     *
+     * @param context the request context
+     * @param params  the request parameters
+     * @return the method parameters
+     */
+    Object[] bind(final Object context, final Parameter<String> params) {
+        final Object[] parameters = new Object[binders.length];
+        for (int i = 0; i < binders.length; i++) {
+            parameters[i] = binders[i].bind(context, params);
+        }
+        return parameters;
+    }
+
+    /**
+     * Adds the type conversion filters to the method handle
+     *
+     * @param target the bound service method
+     * @return the method handle taking request values as String
+     */
+    MethodHandle apply(final MethodHandle target) {
+        return MethodHandles.filterArguments(target, 0, converters);
+    }
+
+    private static MethodHandle converter(final String name, final Class<?> type) {
+        if (type.equals(String.class) || type.equals(Object.class) || type.equals(CharSequence.class)) return null;
+        final MethodHandle failure = MethodHandles.insertArguments(FAIL, 0, name, type).
+                asType(MethodType.methodType(type, RuntimeException.class, String.class));
+        return MethodHandles.catchException(parser(name, type), RuntimeException.class, failure);
+    }
+
+    private static MethodHandle parser(final String name, final Class<?> type) {
+        final MethodHandle primitive = PARSERS.get(type);
+        if (type.isPrimitive()) return primitive;
+        final MethodHandle parse = primitive != null ? primitive : objectParser(name, type);
+        final MethodHandle nullValue = MethodHandles.dropArguments(MethodHandles.constant(type, null), 0, String.class);
+        return MethodHandles.guardWithTest(IS_NULL, nullValue, parse);
+    }
+
+    private static MethodHandle objectParser(final String name, final Class<?> type) {
+        try {
+            if (type.equals(UUID.class)) return parser(UUID.class, "fromString", UUID.class);
+            if (type.isEnum()) {
+                return MethodHandles.insertArguments(LOOKUP.findStatic(Enum.class, "valueOf", MethodType.methodType(Enum.class, Class.class, String.class)), 0, type).
+                        asType(MethodType.methodType(type, String.class));
+            }
+            for (String factory : new String[]{"valueOf", "fromString"}) {
+                final Method method = findFactory(type, factory);
+                if (method != null) return LOOKUP.unreflect(method).asType(MethodType.methodType(type, String.class));
+            }
+            final Constructor<?> constructor = type.getConstructor(String.class);
+            return LOOKUP.unreflectConstructor(constructor).asType(MethodType.methodType(type, String.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException("unsupported type " + type.getName() + " of request parameter " + name, e);
+        }
+    }
+
+    private static Method findFactory(final Class<?> type, final String name) {
+        try {
+            final Method method = type.getMethod(name, String.class);
+            return Modifier.isStatic(method.getModifiers()) && type.isAssignableFrom(method.getReturnType()) ? method : null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static MethodHandle parser(final Class<?> owner, final String name, final Class<?> returnType) throws NoSuchMethodException, IllegalAccessException {
+        return LOOKUP.findStatic(owner, name, MethodType.methodType(returnType, String.class));
+    }
+
+    private static String requestParameterName(final Annotation annotation) {
+        if (annotation instanceof QueryParam) return ((QueryParam) annotation).value();
+        if (annotation instanceof PathParam) return ((PathParam) annotation).value();
+        if (annotation instanceof FormParam) return ((FormParam) annotation).value();
+        return null;
+    }
+
+    private static Object fail(final String name, final Class<?> type, final RuntimeException cause, final String value) {
+        if (value == null) throw new BindingException("missing parameter '" + name + "'", cause);
+        throw new BindingException("invalid value '" + value + "' for parameter '" + name + "', expected " + type.getSimpleName(), cause);
+    }
+
+    private static boolean isNull(final String value) {
+        return value == null;
+    }
+
+    private static boolean parseBoolean(final String value) {
+        if ("true".equalsIgnoreCase(value)) return true;
+        if ("false".equalsIgnoreCase(value)) return false;
+        throw new IllegalArgumentException("not a boolean: " + value);
+    }
+
+    private static char parseChar(final String value) {
+        if (value == null || value.length() != 1) throw new IllegalArgumentException("not a single character: " + value);
+        return value.charAt(0);
+    }
+}
@@ -0,0 +1,130 @@
+package org.jacpfx.vertx.services;
+
+import io.vertx.core.json.JsonObject;
+import org.jacpfx.common.constants.GlobalKeyHolder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The executor of @Blocking and @RunOnVirtualThread operations. A worker bulkhead has a fixed number of daemon threads and a bounded queue, invocations
+ * exceeding the queue are rejected immediately instead of piling up. A virtual thread bulkhead starts a virtual thread per invocation and is unbounded.
+ * Queue depth, active, completed, failed and rejected invocations are reported by {@link #statistics()}.
+ */
+final class Bulkhead {
+
+    /**
+     * The failure code of a rejected invocation
+     */
+    static final int REJECTED = GlobalKeyHolder.OVERLOADED;
+
+    private static final String WORKER = "worker";
+    private static final String VIRTUAL = "virtual";
+
+    private final String name;
+    private final String mode;
+    private final int queueCapacity;
+    private final ExecutorService executor;
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Creates a worker bulkhead
+     *
+     * @param name          the bulkhead name
+     * @param size          the number of worker threads
+     * @param queueCapacity the number of waiting invocations
+     */
+    Bulkhead(final String name, final int size, final int queueCapacity) {
+        if (size < 1) throw new IllegalArgumentException("bulkhead " + name + " needs at least one thread");
+        if (queueCapacity < 1) throw new IllegalArgumentException("bulkhead " + name + " needs a queue capacity of at least one");
+        this.name = name;
+        this.mode = WORKER;
+        this.queueCapacity = queueCapacity;
+        final AtomicInteger threads = new AtomicInteger();
+        final ThreadPoolExecutor pool = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            final Thread thread = new Thread(runnable, "bulkhead-" + name + "-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = pool;
+    }
+
+    /**
+     * Creates a virtual thread bulkhead
+     *
+     * @param name the bulkhead name
+     */
+    static Bulkhead virtualThreads(final String name) {
+        return new Bulkhead(name, VirtualThreads.newExecutor("virtual-" + name));
+    }
+
+    private Bulkhead(final String name, final ExecutorService executor) {
+        this.name = name;
+        this.mode = VIRTUAL;
+        this.queueCapacity = 0;
+        this.executor = executor;
+    }
+
+    /**
+     * Runs the task on a worker or virtual thread
+     *
+     * @param task the invocation
+     * @return the result, failed with a RejectedExecutionException if the queue is full
+     */
+    CompletableFuture<Object> submit(final Callable<Object> task) {
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                active.incrementAndGet();
+                try {
+                    result.complete(task.call());
+                    completed.increment();
+                } catch (Throwable e) {
+                    failed.increment();
+                    result.completeExceptionally(e);
+                } finally {
+                    active.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            result.completeExceptionally(new RejectedExecutionException("bulkhead " + name + " is full", e));
+        }
+        return result;
+    }
+
+    String name() {
+        return name;
+    }
+
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    JsonObject statistics() {
+        final JsonObject statistics = new JsonObject().
+                put("mode", mode).
+                put("active", active.get()).
+                put("completed", completed.sum()).
+                put("failed", failed.sum()).
+                put("rejected", rejected.sum());
+        if (executor instanceof ThreadPoolExecutor) {
+            final ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+            statistics.put("size", pool.getMaximumPoolSize()).
+                    put("queueCapacity", queueCapacity).
+                    put("queueDepth", pool.getQueue().size());
+        }
+        return statistics;
+    }
+}
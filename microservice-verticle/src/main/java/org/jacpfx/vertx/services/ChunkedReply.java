@@ -0,0 +1,112 @@
+package org.jacpfx.vertx.services;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.streams.ReadStream;
+import org.jacpfx.common.ResponseEncoder;
+import org.jacpfx.common.constants.GlobalKeyHolder;
+
+/**
+ * Replies a streamed REST result over the event bus. Encoded items are collected into chunks of at least chunkSize bytes; every chunk is a reply to
+ * the previous message of the router, which acknowledges the chunk with a reply as soon as it is written to the http response. Only one chunk is in
+ * flight at a time, so neither side buffers more than one chunk and the items are paused while the client is slow.
+ */
+final class ChunkedReply {
+
+    private final ReadStream<Object> items;
+    private final ResponseEncoder encoder;
+    private final int chunkSize;
+    private Message<?> peer;
+    private Buffer pending = Buffer.buffer();
+    private Throwable failure;
+    private boolean waiting;
+    private boolean ended;
+    private boolean closed;
+    private String contentType;
+    private boolean first = true;
+
+    /**
+     * @param items     the streamed result
+     * @param request   the request message of the router
+     * @param encoder   the item encoder
+     * @param chunkSize the minimal size of a chunk in bytes
+     */
+    ChunkedReply(final ReadStream<Object> items, final Message<?> request, final ResponseEncoder encoder, final int chunkSize) {
+        this.items = items;
+        this.peer = request;
+        this.encoder = encoder;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Starts reading the items
+     */
+    void start() {
+        items.exceptionHandler(e -> {
+            e.printStackTrace();
+            failure = e;
+            ended = true;
+            if (!waiting) send();
+        });
+        items.endHandler(v -> {
+            ended = true;
+            if (!waiting) send();
+        });
+        items.handler(item -> {
+            if (first) {
+                first = false;
+                contentType = StreamReturn.contentType(item);
+            }
+            final Buffer chunk = StreamReturn.encodeItem(item, encoder);
+            if (chunk != null) pending.appendBuffer(chunk);
+            if (!waiting && pending.length() >= chunkSize) send();
+        });
+    }
+
+    private void send() {
+        if (closed) return;
+        if (failure != null) {
+            peer.fail(AsyncReturn.FAILURE, failure.getMessage());
+            return;
+        }
+        final Buffer chunk = pending;
+        pending = Buffer.buffer();
+        if (ended) {
+            peer.reply(chunk, header(GlobalKeyHolder.LAST_CHUNK));
+            return;
+        }
+        waiting = true;
+        items.pause();
+        peer.reply(chunk, header(GlobalKeyHolder.CHUNK), this::acknowledged);
+    }
+
+    /**
+     * the chunk headers, the first chunk carries the content type of newline delimited JSON items
+     */
+    private DeliveryOptions header(final String value) {
+        final DeliveryOptions options = new DeliveryOptions().addHeader(GlobalKeyHolder.CHUNKED, value);
+        if (contentType != null) {
+            options.addHeader(GlobalKeyHolder.CONTENT_TYPE, contentType);
+            contentType = null;
+        }
+        return options;
+    }
+
+    private void acknowledged(final AsyncResult<Message<Object>> ack) {
+        waiting = false;
+        if (ack.failed()) {
+            // the client is gone or the router timed out
+            closed = true;
+            StreamReturn.close(items);
+            return;
+        }
+        peer = ack.result();
+        if (ended || pending.length() >= chunkSize) {
+            send();
+        } else {
+            items.resume();
+        }
+    }
+}
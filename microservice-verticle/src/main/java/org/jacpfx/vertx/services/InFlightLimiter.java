@@ -0,0 +1,57 @@
+package org.jacpfx.vertx.services;
+
+import io.vertx.core.Context;
+
+import java.util.ArrayDeque;
+
+/**
+ * Admission control of an @InFlightLimit operation. Up to maxInFlight invocations run at a time, up to maxQueued further invocations wait for a
+ * running one to complete, all others are rejected. The limiter is only used on the verticle context, so it needs no synchronization.
+ */
+final class InFlightLimiter {
+
+    private final Context context;
+    private final int maxInFlight;
+    private final int maxQueued;
+    private final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+    private int inFlight;
+
+    InFlightLimiter(final Context context, final int maxInFlight, final int maxQueued) {
+        if (maxInFlight < 1) throw new IllegalArgumentException("maxInFlight must be at least one");
+        if (maxQueued < 0) throw new IllegalArgumentException("maxQueued must not be negative");
+        this.context = context;
+        this.maxInFlight = maxInFlight;
+        this.maxQueued = maxQueued;
+    }
+
+    /**
+     * Runs or queues the invocation, the invocation must call {@link #release()} when it completes
+     *
+     * @param invocation the invocation
+     * @return false if the invocation was rejected
+     */
+    boolean tryAcquire(final Runnable invocation) {
+        if (inFlight < maxInFlight) {
+            inFlight++;
+            invocation.run();
+            return true;
+        }
+        if (queue.size() < maxQueued) {
+            queue.add(invocation);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Completes an invocation and starts the next queued one
+     */
+    void release() {
+        final Runnable next = queue.poll();
+        if (next != null) {
+            context.runOnContext(v -> next.run());
+        } else {
+            inFlight--;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package org.jacpfx.vertx.services;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import org.jacpfx.common.Batch;
+import org.jacpfx.common.Blocking;
+import org.jacpfx.common.Cacheable;
+import org.jacpfx.common.Idempotent;
+import org.jacpfx.common.InFlightLimit;
+import org.jacpfx.common.OperationType;
+import org.jacpfx.common.RunOnVirtualThread;
+import org.jacpfx.common.Type;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The operation index of a service class, generated at build time by the {@link OperationIndexProcessor}. It lists the operation methods with the
+ * resolved metadata of their annotations (path, type, mime types, parameters and the execution, cache and limit settings), so the service starts
+ * without reading annotations; the methods are matched by signature against one getDeclaredMethods() call. Services without (valid) index are
+ * scanned, their annotations are read once into the same {@link Entry}.
+ */
+final class OperationIndex {
+
+    static final String LOCATION = "META-INF/jacpfx/operations/";
+    static final int VERSION = 2;
+
+    private static final Logger log = LoggerFactory.getLogger(OperationIndex.class);
+
+    private OperationIndex() {
+    }
+
+    /**
+     * @param serviceClass the binary name of the service class
+     * @return the resource name of the index
+     */
+    static String resourceName(final String serviceClass) {
+        return LOCATION + serviceClass + ".json";
+    }
+
+    /**
+     * @param name           the method name
+     * @param parameterTypes the parameter type names as returned by Class.getName()
+     * @return the key of a method in the index
+     */
+    static String signature(final String name, final Stream<String> parameterTypes) {
+        return name + parameterTypes.collect(Collectors.joining(",", "(", ")"));
+    }
+
+    /**
+     * Loads the operation index of a service class
+     *
+     * @param serviceClass the service class
+     * @return the indexed operations, null if the class has no index or the index does not match the class
+     */
+    static List<Entry> load(final Class<?> serviceClass) {
+        final ClassLoader loader = serviceClass.getClassLoader();
+        if (loader == null) return null;
+        try (InputStream in = loader.getResourceAsStream(resourceName(serviceClass.getName()))) {
+            if (in == null) return null;
+            final JsonObject index = new JsonObject(read(in));
+            if (index.getInteger("version", 0) != VERSION) throw new IOException("unsupported version " + index.getInteger("version"));
+            final Map<String, Method> methods = new HashMap<>();
+            for (Method method : serviceClass.getDeclaredMethods()) {
+                methods.put(signature(method.getName(), Stream.of(method.getParameterTypes()).map(Class::getName)), method);
+            }
+            final List<Entry> entries = new ArrayList<>();
+            for (Object operation : index.getJsonArray("operations")) {
+                entries.add(Entry.indexed(methods, (JsonObject) operation));
+            }
+            return entries;
+        } catch (IOException | ReflectiveOperationException | RuntimeException e) {
+            log.warn("invalid operation index of " + serviceClass.getName() + ", the service is scanned: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static String read(final InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            out.write(buffer, 0, read);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static String[] strings(final JsonArray values) {
+        return values != null ? values.stream().map(value -> value != null ? String.valueOf(value) : null).toArray(String[]::new) : null;
+    }
+
+    /**
+     * One service operation with the resolved metadata of its annotations
+     */
+    static final class Entry {
+
+        private final Method method;
+        private final String path;
+        private final Type type;
+        private String[] produces;
+        private String[] consumes;
+        private List<String> parameters;
+        private String[] bindings;
+        private String blockingPool;
+        private int blockingSize;
+        private int blockingQueue;
+        private boolean virtual;
+        private boolean cacheable;
+        private long cacheTtl;
+        private int cacheMaxEntries;
+        private boolean idempotent;
+        private boolean batch;
+        private int batchSize;
+        private long batchDelayMs;
+        private boolean inFlightLimit;
+        private int maxInFlight;
+        private int maxQueued;
+
+        private Entry(final Method method, final String path, final Type type) {
+            this.method = method;
+            this.path = path;
+            this.type = type;
+        }
+
+        private static Entry indexed(final Map<String, Method> methods, final JsonObject operation) throws NoSuchMethodException {
+            final String signature = signature(operation.getString("method"), operation.getJsonArray("parameterTypes").stream().map(String::valueOf));
+            final Method method = methods.get(signature);
+            if (method == null) throw new NoSuchMethodException(signature);
+            final Entry entry = new Entry(method, operation.getString("path"), Type.valueOf(operation.getString("type")));
+            entry.produces = strings(operation.getJsonArray("produces"));
+            entry.consumes = strings(operation.getJsonArray("consumes"));
+            entry.parameters = new ArrayList<>();
+            operation.getJsonArray("parameters").forEach(parameter -> entry.parameters.add(String.valueOf(parameter)));
+            entry.bindings = strings(operation.getJsonArray("bindings"));
+            final JsonObject blocking = operation.getJsonObject("blocking");
+            if (blocking != null) {
+                entry.blockingPool = blocking.getString("pool");
+                entry.blockingSize = blocking.getInteger("size");
+                entry.blockingQueue = blocking.getInteger("queue");
+            }
+            entry.virtual = operation.getBoolean("virtual", false);
+            final JsonObject cacheable = operation.getJsonObject("cacheable");
+            if (cacheable != null) {
+                entry.cacheable = true;
+                entry.cacheTtl = cacheable.getLong("ttl");
+                entry.cacheMaxEntries = cacheable.getInteger("maxEntries");
+            }
+            entry.idempotent = operation.getBoolean("idempotent", false);
+            final JsonObject batch = operation.getJsonObject("batch");
+            if (batch != null) {
+                entry.batch = true;
+                entry.batchSize = batch.getInteger("maxSize");
+                entry.batchDelayMs = batch.getLong("maxDelayMs");
+            }
+            final JsonObject limit = operation.getJsonObject("inFlightLimit");
+            if (limit != null) {
+                entry.inFlightLimit = true;
+                entry.maxInFlight = limit.getInteger("maxInFlight");
+                entry.maxQueued = limit.getInteger("maxQueued");
+            }
+            return entry;
+        }
+
+        /**
+         * Reads the annotations of a service method, used for services without operation index
+         *
+         * @param method         the service method annotated with @Path
+         * @param virtualService true if the service class is annotated with @RunOnVirtualThread
+         * @return the operation
+         */
+        static Entry scan(final Method method, final boolean virtualService) {
+            final OperationType opType = method.getDeclaredAnnotation(OperationType.class);
+            if (opType == null)
+                throw new MissingResourceException("missing OperationType ", method.getDeclaringClass().getName(), "");
+            final Entry entry = new Entry(method, method.getDeclaredAnnotation(Path.class).value(), opType.value());
+            final Produces produces = method.getDeclaredAnnotation(Produces.class);
+            final Consumes consumes = method.getDeclaredAnnotation(Consumes.class);
+            entry.produces = produces != null ? produces.value() : null;
+            entry.consumes = consumes != null ? consumes.value() : null;
+            entry.bindings = BindingPlan.requestParameterNames(method);
+            final Blocking blocking = method.getDeclaredAnnotation(Blocking.class);
+            if (blocking != null) {
+                entry.blockingPool = blocking.pool();
+                entry.blockingSize = blocking.size();
+                entry.blockingQueue = blocking.queue();
+            }
+            entry.virtual = virtualService || method.isAnnotationPresent(RunOnVirtualThread.class);
+            final Cacheable cacheable = method.getDeclaredAnnotation(Cacheable.class);
+            if (cacheable != null) {
+                entry.cacheable = true;
+                entry.cacheTtl = cacheable.ttl();
+                entry.cacheMaxEntries = cacheable.maxEntries();
+            }
+            entry.idempotent = method.isAnnotationPresent(Idempotent.class);
+            final Batch batch = method.getDeclaredAnnotation(Batch.class);
+            if (batch != null) {
+                entry.batch = true;
+                entry.batchSize = batch.maxSize();
+                entry.batchDelayMs = batch.maxDelayMs();
+            }
+            final InFlightLimit limit = method.getDeclaredAnnotation(InFlightLimit.class);
+            if (limit != null) {
+                entry.inFlightLimit = true;
+                entry.maxInFlight = limit.maxInFlight();
+                entry.maxQueued = limit.maxQueued();
+            }
+            return entry;
+        }
+
+        Method method() {
+            return method;
+        }
+
+        String path() {
+            return path;
+        }
+
+        Type type() {
+            return type;
+        }
+
+        String[] produces() {
+            return produces;
+        }
+
+        String[] consumes() {
+            return consumes;
+        }
+
+        /**
+         * @return the operation parameters of the service descriptor, null if the operation was scanned
+         */
+        List<String> parameters() {
+            return parameters;
+        }
+
+        /**
+         * @return the request parameter name of each method parameter, null for parameters bound to the request context
+         */
+        String[] bindings() {
+            return bindings;
+        }
+
+        /**
+         * @return true for @Blocking operations
+         */
+        boolean isBlocking() {
+            return blockingPool != null;
+        }
+
+        /**
+         * @return the shared bulkhead of a @Blocking operation, empty for a bulkhead per operation
+         */
+        String blockingPool() {
+            return blockingPool;
+        }
+
+        int blockingSize() {
+            return blockingSize;
+        }
+
+        int blockingQueue() {
+            return blockingQueue;
+        }
+
+        /**
+         * @return true if the operation or its service is annotated with @RunOnVirtualThread
+         */
+        boolean isVirtual() {
+            return virtual;
+        }
+
+        boolean isCacheable() {
+            return cacheable;
+        }
+
+        long cacheTtl() {
+            return cacheTtl;
+        }
+
+        int cacheMaxEntries() {
+            return cacheMaxEntries;
+        }
+
+        boolean isIdempotent() {
+            return idempotent;
+        }
+
+        boolean isBatch() {
+            return batch;
+        }
+
+        int batchSize() {
+            return batchSize;
+        }
+
+        long batchDelayMs() {
+            return batchDelayMs;
+        }
+
+        boolean hasInFlightLimit() {
+            return inFlightLimit;
+        }
+
+        int maxInFlight() {
+            return maxInFlight;
+        }
+
+        int maxQueued() {
+            return maxQueued;
+        }
+    }
+}
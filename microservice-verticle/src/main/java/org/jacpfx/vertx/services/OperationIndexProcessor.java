@@ -0,0 +1,281 @@
+package org.jacpfx.vertx.services;
+
+import org.jacpfx.common.Batch;
+import org.jacpfx.common.Blocking;
+import org.jacpfx.common.Cacheable;
+import org.jacpfx.common.EBMessageReply;
+import org.jacpfx.common.Idempotent;
+import org.jacpfx.common.InFlightLimit;
+import org.jacpfx.common.OperationType;
+import org.jacpfx.common.RunOnVirtualThread;
+import org.jacpfx.common.Type;
+import org.jacpfx.common.WSMessageReply;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.FormParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Generates the {@link OperationIndex} of every ServiceVerticle at build time, with the resolved annotation metadata of each operation. It is
+ * registered as annotation processor of the microservice-verticle jar, so services are indexed when they are compiled against it; invalid operation
+ * signatures are reported as compile errors. With the option -A{@value #LENIENT_OPTION}=true they are reported as warnings and the service is not
+ * indexed, it is scanned and rejected when it is deployed.
+ */
+@SupportedAnnotationTypes("javax.ws.rs.Path")
+@SupportedOptions(OperationIndexProcessor.LENIENT_OPTION)
+public class OperationIndexProcessor extends AbstractProcessor {
+
+    static final String LENIENT_OPTION = "operationIndexLenient";
+
+    private static final String SERVICE_VERTICLE = "org.jacpfx.vertx.services.ServiceVerticle";
+    private static final String ROUTING_CONTEXT = "io.vertx.ext.web.RoutingContext";
+    private static final String MESSAGE = "io.vertx.core.eventbus.Message";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        final TypeElement serviceVerticle = processingEnv.getElementUtils().getTypeElement(SERVICE_VERTICLE);
+        if (serviceVerticle == null) return false;
+        final TypeMirror serviceType = processingEnv.getTypeUtils().erasure(serviceVerticle.asType());
+        final Map<TypeElement, List<ExecutableElement>> services = new LinkedHashMap<>();
+        for (final Element element : roundEnv.getElementsAnnotatedWith(Path.class)) {
+            if (element.getKind() != ElementKind.METHOD) continue;
+            final TypeElement service = (TypeElement) element.getEnclosingElement();
+            if (!processingEnv.getTypeUtils().isSubtype(processingEnv.getTypeUtils().erasure(service.asType()), serviceType)) continue;
+            services.computeIfAbsent(service, key -> new ArrayList<>()).add((ExecutableElement) element);
+        }
+        services.forEach(this::writeIndex);
+        return false;
+    }
+
+    private void writeIndex(final TypeElement service, final List<ExecutableElement> methods) {
+        final List<String> operations = new ArrayList<>();
+        for (final ExecutableElement method : methods) {
+            final String operation = operation(method);
+            if (operation == null) return;
+            operations.add(operation);
+        }
+        final String binaryName = processingEnv.getElementUtils().getBinaryName(service).toString();
+        try (Writer writer = new OutputStreamWriter(processingEnv.getFiler().
+                createResource(StandardLocation.CLASS_OUTPUT, "", OperationIndex.resourceName(binaryName), service).openOutputStream(), StandardCharsets.UTF_8)) {
+            writer.write("{\"version\":" + OperationIndex.VERSION + ",\"operations\":[" + String.join(",", operations) + "]}");
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "unable to write the operation index: " + e.getMessage(), service);
+        }
+    }
+
+    /**
+     * @return the JSON entry of an operation, null if the operation is invalid
+     */
+    private String operation(final ExecutableElement method) {
+        final OperationType opType = method.getAnnotation(OperationType.class);
+        if (opType == null) return error("missing OperationType", method);
+        if (method.getAnnotation(Cacheable.class) != null && opType.value() != Type.REST_GET && opType.value() != Type.EVENTBUS)
+            return error("@Cacheable is only supported on REST_GET and EVENTBUS operations", method);
+        if (method.getAnnotation(Idempotent.class) != null && opType.value() != Type.REST_GET)
+            return error("@Idempotent is only supported on REST_GET operations", method);
+        if (method.getAnnotation(Cacheable.class) != null && opType.value() == Type.REST_GET && takesRequestContext(method))
+            return error("@Cacheable operations must not take the RoutingContext or Message", method);
+        if (method.getAnnotation(Idempotent.class) != null && takesRequestContext(method))
+            return error("@Idempotent operations must not take the RoutingContext or Message", method);
+        final List<String> parameters;
+        switch (opType.value()) {
+            case REST_GET:
+            case REST_POST:
+            case REST_PUT:
+            case REST_DELETE:
+            case REST_PATCH:
+                parameters = restParameters(method);
+                break;
+            case WEBSOCKET:
+                parameters = messageParameters(method, WSMessageReply.class, VariableElement::asType);
+                break;
+            case EVENTBUS:
+                parameters = messageParameters(method, EBMessageReply.class,
+                        method.getAnnotation(Batch.class) != null ? this::listElementType : VariableElement::asType);
+                break;
+            default:
+                parameters = new ArrayList<>();
+        }
+        if (parameters == null) return null;
+        final Produces produces = method.getAnnotation(Produces.class);
+        final Consumes consumes = method.getAnnotation(Consumes.class);
+        final StringBuilder json = new StringBuilder("{");
+        json.append("\"method\":").append(quote(method.getSimpleName().toString()));
+        json.append(",\"parameterTypes\":").append(array(method.getParameters().stream().
+                map(parameter -> className(parameter.asType())).collect(Collectors.toList())));
+        json.append(",\"path\":").append(quote(method.getAnnotation(Path.class).value()));
+        json.append(",\"type\":").append(quote(opType.value().name()));
+        if (produces != null) json.append(",\"produces\":").append(array(Stream.of(produces.value())));
+        if (consumes != null) json.append(",\"consumes\":").append(array(Stream.of(consumes.value())));
+        json.append(",\"parameters\":").append(array(parameters));
+        json.append(",\"bindings\":").append(array(method.getParameters().stream().map(OperationIndexProcessor::requestParameterName)));
+        final Blocking blocking = method.getAnnotation(Blocking.class);
+        if (blocking != null) json.append(",\"blocking\":{\"pool\":").append(quote(blocking.pool())).
+                append(",\"size\":").append(blocking.size()).append(",\"queue\":").append(blocking.queue()).append("}");
+        if (method.getAnnotation(RunOnVirtualThread.class) != null || method.getEnclosingElement().getAnnotation(RunOnVirtualThread.class) != null)
+            json.append(",\"virtual\":true");
+        final Cacheable cacheable = method.getAnnotation(Cacheable.class);
+        if (cacheable != null) json.append(",\"cacheable\":{\"ttl\":").append(cacheable.ttl()).append(",\"maxEntries\":").append(cacheable.maxEntries()).append("}");
+        if (method.getAnnotation(Idempotent.class) != null) json.append(",\"idempotent\":true");
+        final Batch batch = method.getAnnotation(Batch.class);
+        if (batch != null) json.append(",\"batch\":{\"maxSize\":").append(batch.maxSize()).append(",\"maxDelayMs\":").append(batch.maxDelayMs()).append("}");
+        final InFlightLimit limit = method.getAnnotation(InFlightLimit.class);
+        if (limit != null) json.append(",\"inFlightLimit\":{\"maxInFlight\":").append(limit.maxInFlight()).
+                append(",\"maxQueued\":").append(limit.maxQueued()).append("}");
+        return json.append("}").toString();
+    }
+
+    /**
+     * @return the @QueryParam, @PathParam or @FormParam name of a parameter, null for parameters bound to the request context
+     */
+    private static String requestParameterName(final VariableElement parameter) {
+        if (parameter.getAnnotation(QueryParam.class) != null) return parameter.getAnnotation(QueryParam.class).value();
+        if (parameter.getAnnotation(PathParam.class) != null) return parameter.getAnnotation(PathParam.class).value();
+        if (parameter.getAnnotation(FormParam.class) != null) return parameter.getAnnotation(FormParam.class).value();
+        return null;
+    }
+
+    private boolean takesRequestContext(final ExecutableElement method) {
+        return method.getParameters().stream().map(parameter -> className(processingEnv.getTypeUtils().erasure(parameter.asType()))).
+                anyMatch(name -> name.equals(ROUTING_CONTEXT) || name.equals(MESSAGE));
+    }
+
+    /**
+     * @return the query, path and form parameter names, in the order of the ServiceVerticle scan
+     */
+    private List<String> restParameters(final ExecutableElement method) {
+        final List<String> parameters = new ArrayList<>();
+        method.getParameters().stream().map(p -> p.getAnnotation(QueryParam.class)).filter(p -> p != null).forEach(p -> parameters.add(p.value()));
+        method.getParameters().stream().map(p -> p.getAnnotation(PathParam.class)).filter(p -> p != null).forEach(p -> parameters.add(p.value()));
+        method.getParameters().stream().map(p -> p.getAnnotation(FormParam.class)).filter(p -> p != null).forEach(p -> parameters.add(p.value()));
+        return parameters;
+    }
+
+    /**
+     * @return the message type of a WEBSOCKET or EVENTBUS operation, null if the operation is invalid
+     */
+    private List<String> messageParameters(final ExecutableElement method, final Class<?> replyType, final Function<VariableElement, TypeMirror> messageType) {
+        final List<String> parameters = new ArrayList<>();
+        for (final VariableElement parameter : method.getParameters()) {
+            final TypeMirror type = messageType.apply(parameter);
+            if (type == null) return error("@Batch operation parameters must be of type List<T>", method);
+            final String name = className(type);
+            if (!name.equals(replyType.getName())) parameters.add(name);
+        }
+        if (parameters.size() > 1) return error("only one parameter is allowed", method);
+        return parameters;
+    }
+
+    private TypeMirror listElementType(final VariableElement parameter) {
+        final TypeMirror type = parameter.asType();
+        if (!(type instanceof DeclaredType) || !className(type).equals(List.class.getName())) return null;
+        final List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+        return arguments.size() == 1 && arguments.get(0) instanceof DeclaredType ? arguments.get(0) : null;
+    }
+
+    /**
+     * @return the type name as returned by Class.getName()
+     */
+    private String className(final TypeMirror type) {
+        switch (type.getKind()) {
+            case ARRAY:
+                return "[" + descriptor(((ArrayType) type).getComponentType());
+            case DECLARED:
+                return processingEnv.getElementUtils().getBinaryName((TypeElement) ((DeclaredType) type).asElement()).toString();
+            case TYPEVAR:
+                return className(processingEnv.getTypeUtils().erasure(type));
+            default:
+                return type.getKind().name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private String descriptor(final TypeMirror type) {
+        switch (type.getKind()) {
+            case ARRAY:
+                return "[" + descriptor(((ArrayType) type).getComponentType());
+            case BOOLEAN:
+                return "Z";
+            case BYTE:
+                return "B";
+            case CHAR:
+                return "C";
+            case SHORT:
+                return "S";
+            case INT:
+                return "I";
+            case LONG:
+                return "J";
+            case FLOAT:
+                return "F";
+            case DOUBLE:
+                return "D";
+            default:
+                return "L" + className(type) + ";";
+        }
+    }
+
+    private <T> T error(final String message, final Element element) {
+        final boolean lenient = Boolean.parseBoolean(processingEnv.getOptions().get(LENIENT_OPTION));
+        processingEnv.getMessager().printMessage(lenient ? Diagnostic.Kind.WARNING : Diagnostic.Kind.ERROR, message, element);
+        return null;
+    }
+
+    private static String array(final List<String> values) {
+        return array(values.stream());
+    }
+
+    private static String array(final Stream<String> values) {
+        return values.map(OperationIndexProcessor::quote).collect(Collectors.joining(",", "[", "]"));
+    }
+
+    private static String quote(final String value) {
+        if (value == null) return "null";
+        final StringBuilder quoted = new StringBuilder("\"");
+        for (final char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
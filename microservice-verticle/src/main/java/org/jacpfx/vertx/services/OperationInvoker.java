@@ -0,0 +1,261 @@
+package org.jacpfx.vertx.services;
+
+import io.vertx.core.eventbus.Message;
+import io.vertx.ext.web.RoutingContext;
+import org.jacpfx.common.BinarySchema;
+import org.jacpfx.common.EBMessageReply;
+import org.jacpfx.common.Parameter;
+import org.jacpfx.common.Type;
+import org.jacpfx.common.WSMessageReply;
+import org.jacpfx.common.spi.JSONAdapter;
+import org.jacpfx.common.spi.JSONConverter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * The precompiled invocation of one service operation. It is created once per operation when the service starts from its {@link OperationIndex.Entry}:
+ * the method is bound to the service instance as MethodHandle and the parameter types and converters are resolved, so neither the start nor the
+ * request path reads annotations.
+ */
+final class OperationInvoker {
+
+    private static final String BINARY = "application/octet-stream";
+    private static final String JSON = "application/json";
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final OperationIndex.Entry operation;
+    private final MethodHandle handle;
+    private final Type type;
+    private final String consumesValue;
+    private final boolean binary;
+    private final boolean json;
+    private final boolean async;
+    private final boolean batch;
+    private final Class<?>[] parameterTypes;
+    private final BindingPlan bindingPlan;
+    private final JSONAdapter<?>[] adapters;
+    private final BinarySchema<?>[] schemas;
+    private final Bulkhead bulkhead;
+    private final InFlightLimiter limiter;
+    private final ResponseCache cache;
+    private final SingleFlight singleFlight;
+
+    OperationInvoker(final Object service, final OperationIndex.Entry operation, final JSONConverter converter, final Bulkhead bulkhead,
+                     final InFlightLimiter limiter, final ResponseCache cache, final SingleFlight singleFlight) {
+        final Method method = operation.method();
+        this.operation = operation;
+        this.type = operation.type();
+        final String[] consumes = operation.consumes();
+        this.consumesValue = consumes != null && consumes.length > 0 ? consumes[0] : "";
+        this.binary = contains(consumes, BINARY);
+        this.json = contains(consumes, JSON);
+        this.async = AsyncReturn.isAsync(method.getReturnType());
+        this.bulkhead = bulkhead;
+        this.limiter = limiter;
+        this.cache = cache;
+        this.singleFlight = singleFlight;
+        this.batch = operation.isBatch();
+        this.parameterTypes = batch ? itemTypes(method, type) : method.getParameterTypes();
+        final boolean messageOperation = type == Type.WEBSOCKET || type == Type.EVENTBUS;
+        this.adapters = Stream.of(parameterTypes).
+                map(t -> messageOperation && isConvertible(t) ? converter.getAdapter(t) : null).
+                toArray(JSONAdapter<?>[]::new);
+        this.schemas = Stream.of(parameterTypes).
+                map(t -> messageOperation && !json && isConvertible(t) ? BinarySchema.register(t).orElse(null) : null).
+                toArray(BinarySchema<?>[]::new);
+        this.bindingPlan = messageOperation ? null : BindingPlan.compile(method, operation.bindings());
+        this.handle = bind(service, method, bindingPlan);
+    }
+
+    /**
+     * Resolves the List element types of a @Batch operation, messages are decoded into these types and collected into the Lists
+     */
+    private static Class<?>[] itemTypes(final Method method, final Type type) {
+        if (type != Type.EVENTBUS)
+            throw new IllegalArgumentException("@Batch is only supported on EVENTBUS operations: " + method.getName());
+        return Stream.of(method.getGenericParameterTypes()).map(parameterType -> {
+            if (parameterType instanceof ParameterizedType && ((ParameterizedType) parameterType).getRawType().equals(List.class)) {
+                final java.lang.reflect.Type item = ((ParameterizedType) parameterType).getActualTypeArguments()[0];
+                if (item instanceof Class) return (Class<?>) item;
+            }
+            throw new IllegalArgumentException("@Batch operation parameters must be of type List<T>: " + method.getName());
+        }).toArray(Class<?>[]::new);
+    }
+
+    private static MethodHandle bind(final Object service, final Method method, final BindingPlan bindingPlan) {
+        try {
+            method.setAccessible(true);
+            final MethodHandle target = LOOKUP.unreflect(method).bindTo(service);
+            return (bindingPlan != null ? bindingPlan.apply(target) : target).
+                    asSpreader(Object[].class, method.getParameterCount()).
+                    asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("unable to access service method " + method.getName(), e);
+        }
+    }
+
+    /**
+     * Invokes the operation, exceptions of the service method are wrapped like by Method.invoke
+     *
+     * @param parameters the method parameters
+     * @return the return value, null for void methods
+     * @throws InvocationTargetException if the service method throws an exception
+     * @throws BindingPlan.BindingException if a request parameter is missing or invalid
+     */
+    Object invoke(final Object[] parameters) throws InvocationTargetException {
+        try {
+            return (Object) handle.invokeExact(parameters);
+        } catch (BindingPlan.BindingException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    Method method() {
+        return operation.method();
+    }
+
+    /**
+     * @return the operation metadata of the index or scan
+     */
+    OperationIndex.Entry operation() {
+        return operation;
+    }
+
+    Type type() {
+        return type;
+    }
+
+    /**
+     * @return the first consumes value, an empty String if not defined
+     */
+    String consumesValue() {
+        return consumesValue;
+    }
+
+    boolean isBinary() {
+        return binary;
+    }
+
+    boolean isJSON() {
+        return json;
+    }
+
+    /**
+     * @return true if the method returns a CompletionStage, Vert.x Future or callback, see {@link AsyncReturn}
+     */
+    boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * @return true for @Blocking and @RunOnVirtualThread operations, invoked on their {@link #bulkhead()}
+     */
+    boolean isBlocking() {
+        return bulkhead != null;
+    }
+
+    Bulkhead bulkhead() {
+        return bulkhead;
+    }
+
+    /**
+     * @return the limiter of an @InFlightLimit operation, null when unlimited
+     */
+    InFlightLimiter limiter() {
+        return limiter;
+    }
+
+    /**
+     * @return the reply cache of a @Cacheable operation, null when not cached
+     */
+    ResponseCache cache() {
+        return cache;
+    }
+
+    /**
+     * @return the single flight of an @Idempotent operation, null when requests are not coalesced
+     */
+    SingleFlight singleFlight() {
+        return singleFlight;
+    }
+
+    /**
+     * The key of a REST request for the reply cache and the single flight, the bound request values. Cached and coalesced operations can not take the
+     * request context (RoutingContext or Message), so the bound values are all the operation reads of the request.
+     *
+     * @param parameters the bound method parameters
+     * @return the request key, null if the operation is neither cached nor coalesced
+     */
+    Object requestKey(final Object[] parameters) {
+        if (cache == null && singleFlight == null) return null;
+        return Arrays.asList(parameters);
+    }
+
+    /**
+     * @param method the service method
+     * @return true if the method takes the request context (RoutingContext or Message)
+     */
+    static boolean takesRequestContext(final Method method) {
+        return Stream.of(method.getParameterTypes()).anyMatch(type -> RoutingContext.class.isAssignableFrom(type) || Message.class.isAssignableFrom(type));
+    }
+
+    /**
+     * @return true for @Batch operations, the parameter types are the List element types
+     */
+    boolean isBatch() {
+        return batch;
+    }
+
+    int parameterCount() {
+        return parameterTypes.length;
+    }
+
+    Class<?> parameterType(final int position) {
+        return parameterTypes[position];
+    }
+
+    /**
+     * Binds the parameters of a REST operation, request values are converted to the parameter types on {@link #invoke(Object[])}
+     *
+     * @param context the RoutingContext or Message of the request
+     * @param params  the request parameters
+     * @return the method parameters
+     */
+    Object[] bind(final Object context, final Parameter<String> params) {
+        return bindingPlan.bind(context, params);
+    }
+
+    JSONAdapter<?> adapter(final int position) {
+        return adapters[position];
+    }
+
+    BinarySchema<?> schema(final int position) {
+        return schemas[position];
+    }
+
+    /**
+     * @return the descriptors of all parameter schemas, null if no parameter is schema encoded
+     */
+    String[] schemaDescriptors() {
+        final String[] descriptors = Stream.of(schemas).filter(schema -> schema != null).map(BinarySchema::descriptor).toArray(String[]::new);
+        return descriptors.length > 0 ? descriptors : null;
+    }
+
+    private static boolean isConvertible(final Class<?> type) {
+        return !type.equals(String.class) && !type.equals(EBMessageReply.class) && !type.equals(WSMessageReply.class);
+    }
+
+    private static boolean contains(final String[] values, final String value) {
+        return values != null && Stream.of(values).anyMatch(val -> val.equalsIgnoreCase(value));
+    }
+}
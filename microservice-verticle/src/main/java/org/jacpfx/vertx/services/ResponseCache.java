@@ -0,0 +1,134 @@
+package org.jacpfx.vertx.services;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * The reply cache of a @Cacheable operation. Entries expire after the ttl and the least recently used entry is evicted when maxEntries is exceeded;
+ * hits, misses and evictions are counted for the operation statistics. Instances of a deployment share nothing, so the methods only synchronize
+ * against the statistics request.
+ */
+final class ResponseCache {
+
+    private static final Object NO_BODY = new Object();
+    private static final ClassValue<Boolean> VALUE_EQUALITY = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            try {
+                return type.getMethod("equals", Object.class).getDeclaringClass() != Object.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    private final long ttl;
+    private final int maxEntries;
+    private final Map<Object, Entry> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    ResponseCache(final long ttl, final int maxEntries) {
+        if (ttl < 1) throw new IllegalArgumentException("ttl must be at least 1ms");
+        if (maxEntries < 1) throw new IllegalArgumentException("maxEntries must be at least one");
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<Object, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Object, ResponseCache.Entry> eldest) {
+                if (size() <= ResponseCache.this.maxEntries) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * The key of an EVENTBUS request. Byte arrays are compared by content, all other bodies by their equals/hashCode, like Strings, primitive wrappers
+     * and JsonObjects. Bodies without value equality (equals inherited from Object) would never hit and only fill the cache, they are not cached.
+     *
+     * @param body the body of an EVENTBUS request
+     * @return the cache key of the body, null if the body can not be cached
+     */
+    static Object key(final Object body) {
+        if (body == null) return NO_BODY;
+        if (body instanceof byte[]) return ByteBuffer.wrap((byte[]) body);
+        return VALUE_EQUALITY.get(body.getClass()) ? body : null;
+    }
+
+    /**
+     * @param key the request key
+     * @return the cached reply, null if there is none or it expired
+     */
+    synchronized Entry get(final Object key) {
+        final Entry entry = entries.get(key);
+        if (entry != null && entry.expires - System.nanoTime() > 0) {
+            hits++;
+            return entry;
+        }
+        if (entry != null) entries.remove(key);
+        misses++;
+        return null;
+    }
+
+    /**
+     * Caches a reply, Buffer replies get an ETag
+     *
+     * @param key   the request key
+     * @param reply the serialized reply
+     * @return the cache entry
+     */
+    synchronized Entry put(final Object key, final Object reply) {
+        final Entry entry = new Entry(reply, reply instanceof Buffer ? etag((Buffer) reply) : null, System.nanoTime() + ttl * 1000000L);
+        entries.put(key, entry);
+        return entry;
+    }
+
+    synchronized JsonObject statistics() {
+        return new JsonObject().
+                put("size", entries.size()).
+                put("maxEntries", maxEntries).
+                put("hits", hits).
+                put("misses", misses).
+                put("evictions", evictions);
+    }
+
+    private static String etag(final Buffer body) {
+        final CRC32 crc = new CRC32();
+        crc.update(body.getBytes());
+        return "\"" + Integer.toHexString(body.length()) + "-" + Long.toHexString(crc.getValue()) + "\"";
+    }
+
+    /**
+     * A cached reply
+     */
+    static final class Entry {
+
+        private final Object reply;
+        private final String etag;
+        private final long expires;
+
+        private Entry(final Object reply, final String etag, final long expires) {
+            this.reply = reply;
+            this.etag = etag;
+            this.expires = expires;
+        }
+
+        Object reply() {
+            return reply;
+        }
+
+        /**
+         * @return the ETag of a Buffer reply, null otherwise
+         */
+        String etag() {
+            return etag;
+        }
+    }
+}
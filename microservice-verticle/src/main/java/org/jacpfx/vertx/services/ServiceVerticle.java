@@ -1,12 +1,14 @@
 package org.jacpfx.vertx.services;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import io.vertx.core.*;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServer;
 import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpServerResponse;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
@@ -18,8 +20,9 @@ import org.jacpfx.common.*;
 import org.jacpfx.common.constants.GlobalKeyHolder;
 import org.jacpfx.common.handler.WSClusterHandler;
 import org.jacpfx.common.handler.WSLocalHandler;
-import org.jacpfx.common.spi.GSonConverter;
+import org.jacpfx.common.spi.BinaryCodec;
 import org.jacpfx.common.spi.JSONConverter;
+import org.jacpfx.common.util.EventBusCodecs;
 import org.jacpfx.vertx.registry.ServiceDiscovery;
 
 import javax.ws.rs.*;
@@ -30,12 +33,17 @@ import java.lang.reflect.Method;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.MissingResourceException;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 /**
@@ -43,33 +51,68 @@ import java.util.stream.Stream;
  * Created by amo on 28.10.14.
  */
 public abstract class ServiceVerticle extends AbstractVerticle {
+    /**
+     * Config key of self hosted services, true registers event bus consumers for the REST operations as well (default false)
+     */
+    public static final String REST_EVENT_BUS_CONFIG_KEY = "restEventBus";
     private static final Logger log = LoggerFactory.getLogger(ServiceVerticle.class);
     private static final String HOST = getHostName();
     private String host;
-    private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
     private ServiceInfo descriptor;
     private static final String HOST_PREFIX = "";
     protected ServiceDiscovery dicovery;
     private boolean clustered;
     private org.jacpfx.common.handler.WebSocketHandler wsHandler;
     private int port=0;
+    private boolean restEventBus;
+    private HttpServerOptions serverOptions;
     private Router router;
+    private BinaryCodec codec;
+    private int compressionThreshold;
+    private JSONConverter jsonConverter;
+    private ResponseEncoder responseEncoder;
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    private final Map<String, ResponseCache> caches = new ConcurrentHashMap<>();
+    private final List<Batcher> batchers = new CopyOnWriteArrayList<>();
+    private static final Runnable NOOP = () -> {
+    };
+
 
+    @Override
+    public void stop(final Future<Void> stopFuture) throws Exception {
+        batchers.forEach(Batcher::flush);
+        bulkheads.values().forEach(Bulkhead::shutdown);
+        super.stop(stopFuture);
+    }
 
     @Override
     public final void start(final Future<Void> startFuture) {
         long startTime = System.currentTimeMillis();
         port = selfHostedPort();
+        if (port > 0) serverOptions = HttpServerProfile.createOptions(getConfig(), host, port);
+        restEventBus = port <= 0 || getConfig().getBoolean(REST_EVENT_BUS_CONFIG_KEY, false);
+        codec = Serializer.getCodec(getConfig().getString(Serializer.CODEC_CONFIG_KEY, Serializer.DEFAULT_CODEC));
+        jsonConverter = JSONConverters.getConverter(getConfig().getString(JSONConverters.CONVERTER_CONFIG_KEY, JSONConverters.DEFAULT_CONVERTER));
+        compressionThreshold = getConfig().getInteger(Compression.THRESHOLD_CONFIG_KEY, Compression.DISABLED);
+        Compression.configure(getConfig());
+        BinarySchema.configure(getConfig());
+        responseEncoder = new ResponseEncoder(getConfig(), jsonConverter);
+        EventBusCodecs.registerDefaultCodecs(vertx.eventBus(), codec, compressionThreshold);
         router = Router.router(vertx);
+        if (port > 0) router.route().handler(BodyHandler.create());
         // collect all service operations in service for descriptor
-        descriptor = createInfoObject(getAllOperationsInService(this.getClass().getDeclaredMethods()),port);
+        final List<OperationIndex.Entry> index = OperationIndex.load(this.getClass());
+        final List<Operation> operations = index != null ? getIndexedOperations(index) : getAllOperationsInService(this.getClass().getDeclaredMethods());
+        descriptor = createInfoObject(operations, port);
         // register info handler
         vertx.eventBus().consumer(serviceName() + "-info", this::info);
+        vertx.eventBus().consumer(serviceName() + "-bulkheads", m -> m.reply(getBulkheadStatistics()));
+        vertx.eventBus().consumer(serviceName() + "-caches", m -> m.reply(getCacheStatistics()));
         registerService(startFuture);
         dicovery = ServiceDiscovery.getInstance(this.getVertx());
 
         long endTime = System.currentTimeMillis();
-        log.info("start time: " + (endTime - startTime) + "ms");
+        log.info(serviceName() + " start time: " + (endTime - startTime) + "ms, " + operations.size() + " operations " + (index != null ? "from operation index" : "scanned"));
     }
 
 
@@ -78,22 +121,25 @@ public abstract class ServiceVerticle extends AbstractVerticle {
         String localReply = getConfig().getString("wsReplyPath", GlobalKeyHolder.WS_REPLY);
         String replyToAll = getConfig().getString("wsReplyToAllPath", GlobalKeyHolder.WS_REPLY_TO_ALL);
         String replyToAllButSender = "";
-        vertx.eventBus().consumer(localReply+serviceName(), (Handler<Message<byte[]>>) wsHandler::replyToWSCaller);
-        vertx.eventBus().consumer(replyToAll + serviceName(), (Handler<Message<byte[]>>) wsHandler::replyToAllWS);
-        // TODO vertx.eventBus().consumer(wsReplyToAllButSenderPath, (Handler<Message<byte[]>>) wsHandler::replyToAllWS);
+        vertx.eventBus().consumer(localReply+serviceName(), (Handler<Message<WSMessageWrapper>>) wsHandler::replyToWSCaller);
+        vertx.eventBus().consumer(replyToAll + serviceName(), (Handler<Message<WSMessageWrapper>>) wsHandler::replyToAllWS);
+        // TODO vertx.eventBus().consumer(wsReplyToAllButSenderPath, (Handler<Message<WSMessageWrapper>>) wsHandler::replyToAllWS);
     }
 
     private void initWSHandlerInstance() {
         if (clustered) {
-            wsHandler = new WSClusterHandler(this.vertx);
+            wsHandler = new WSClusterHandler(this.vertx, codec);
         } else {
-            wsHandler = new WSLocalHandler(this.vertx);
+            wsHandler = new WSLocalHandler(this.vertx, codec);
         }
     }
 
     private void updateConfiguration() {
-        getConfig().put("selfhosted",true);
-        getConfig().put("selfhosted-host", serviceName());
+        // the instances of a deployment share the config object
+        synchronized (getConfig()) {
+            getConfig().put("selfhosted", true);
+            getConfig().put("selfhosted-host", serviceName());
+        }
     }
 
 
@@ -138,62 +184,73 @@ public abstract class ServiceVerticle extends AbstractVerticle {
         });
     }
 
+    /**
+     * Registers the service instance. Every instance gets an own diagnostics address and serves the self hosted http server, which Vert.x shares across
+     * the instances on their event loops; the first instance publishes the descriptor with the instance count and all instance addresses.
+     */
     private void registerService(final Future<Void> startFuture) {
         vertx.sharedData().getCounter(serviceName(), onSuccess(counter -> counter.incrementAndGet(onSuccess(val -> {
+            vertx.eventBus().consumer(instanceAddress(val), m -> m.reply(getInstanceInfo(val)));
             if (val <= 1) {
+                final int instances = context != null ? Math.max(context.getInstanceCount(), 1) : 1;
+                descriptor.setInstances(instances);
+                descriptor.setInstanceAddresses(LongStream.rangeClosed(1, instances).mapToObj(this::instanceAddress).toArray(String[]::new));
                 // register service at service registry
                 try {
-                    vertx.eventBus().send(GlobalKeyHolder.SERVICE_REGISTRY_REGISTER, Serializer.serialize(descriptor), handler -> {
+                    vertx.eventBus().send(GlobalKeyHolder.SERVICE_REGISTRY_REGISTER, Serializer.serialize(descriptor, codec), handler -> {
                         log.info("Register Service: " + handler.succeeded());
-                        initSelfHostedService();
-                        startFuture.complete();
+                        initSelfHostedService(startFuture);
                     });
                 } catch (IOException e) {
                     e.printStackTrace();
                 }
             } else {
-                startFuture.complete();
+                initSelfHostedService(startFuture);
             }
         }))));
     }
 
-    private void initSelfHostedService() {
+    private String instanceAddress(final long instance) {
+        return serviceName() + "-instance-" + instance;
+    }
+
+    private JsonObject getInstanceInfo(final long instance) {
+        return new JsonObject().
+                put("instance", instance).
+                put("deploymentID", context != null ? context.deploymentID() : null).
+                put("thread", Thread.currentThread().getName()).
+                put("bulkheads", getBulkheadStatistics()).
+                put("caches", getCacheStatistics());
+    }
+
+    /**
+     * Starts the self hosted http server, the start completes when the server listens
+     */
+    private void initSelfHostedService(final Future<Void> startFuture) {
         if(port > 0) {
             updateConfiguration();
 
             clustered = getConfig().getBoolean("clustered", false);
 
-            HttpServer server = vertx.createHttpServer(new HttpServerOptions().setHost(host)
-                    .setPort(port));
+            HttpServer server = vertx.createHttpServer(serverOptions);
 
             initWSHandlerInstance();
             registerWebSocketHandler(server);
             registerWSEventbusHandler();
 
-
-
-            router.route().handler(BodyHandler.create());
-
-
             server.requestHandler(router::accept).listen(res -> {
                 log("listen on port: " + port + "  on Host: " + host + "  " + res.succeeded());
+                if (res.succeeded()) {
+                    startFuture.complete();
+                } else {
+                    startFuture.fail(res.cause());
+                }
             });
+        } else {
+            startFuture.complete();
         }
     }
 
-    @Deprecated
-    /**
-     * use getParameterObject
-     */
-    private Parameter<String> getParameterEntity(final MultiMap params) {
-        final List<Parameter<String>> parameters = params.
-                entries().
-                stream().
-                map(entry -> new Parameter<>(entry.getKey(), entry.getValue())).
-                collect(Collectors.toList());
-        return new Parameter<>(parameters);
-    }
-
     private ServiceInfo createInfoObject(List<Operation> operations, Integer port) {
         return new ServiceInfo(serviceName(), null, getHostName(), null, null, port, operations.toArray(new Operation[operations.size()]));
     }
@@ -225,59 +282,142 @@ public abstract class ServiceVerticle extends AbstractVerticle {
      * @return a list of all operation in service
      */
     private List<Operation> getAllOperationsInService(final Method[] allMethods) {
-        return Stream.of(allMethods).parallel().
+        final boolean virtualService = this.getClass().isAnnotationPresent(RunOnVirtualThread.class);
+        return Stream.of(allMethods).
                 filter(m -> m.isAnnotationPresent(Path.class)).
-                map(this::mapServiceMethod).collect(Collectors.toList());
-    }
-
-    private Operation mapServiceMethod(Method method) {
-        final Path path = method.getDeclaredAnnotation(Path.class);
-        final Produces produces = method.getDeclaredAnnotation(Produces.class);
-        final Consumes consumes = method.getDeclaredAnnotation(Consumes.class);
-        final OperationType opType = method.getDeclaredAnnotation(OperationType.class);
-        if (opType == null)
-            throw new MissingResourceException("missing OperationType ", this.getClass().getName(), "");
-        final String[] mimeTypes = produces != null ? produces.value() : null;
-        final String[] consumeTypes = consumes != null ? consumes.value() : null;
-        final String url = serviceName().concat(path.value());
-        final List<String> parameters = new ArrayList<>();
-
-        switch (opType.value()) {
-            case REST_POST:
-                parameters.addAll(getAllRESTParameters(method));
+                map(m -> mapServiceMethod(OperationIndex.Entry.scan(m, virtualService))).collect(Collectors.toList());
+    }
 
+    /**
+     * Creates the operations listed in the operation index generated at build time, no methods and annotations are scanned
+     *
+     * @param index the operation index of the service class
+     * @return a list of all operation in service
+     */
+    private List<Operation> getIndexedOperations(final List<OperationIndex.Entry> index) {
+        return index.stream().map(this::mapServiceMethod).collect(Collectors.toList());
+    }
 
-                vertx.eventBus().consumer(url, handler -> genericRESTHandler(handler, method));
-                break;
+    /**
+     * Registers the handlers of a service operation
+     *
+     * @param entry the operation of the index or scan
+     * @return the operation descriptor
+     */
+    private Operation mapServiceMethod(OperationIndex.Entry entry) {
+        final Method method = entry.method();
+        final Type type = entry.type();
+        final List<String> parameters = entry.parameters();
+        final String url = serviceName().concat(entry.path());
+        final OperationInvoker invoker = new OperationInvoker(this, entry, getConverter(), bulkhead(url, entry), limiter(entry), cache(url, entry), singleFlight(entry));
+        final List<String> operationParameters = new ArrayList<>();
+
+        switch (type) {
             case REST_GET:
-                parameters.addAll(getAllRESTParameters(method));
-
-                // TODO extract to method
-
-                router.get(url).handler(routingContext -> {
-                    getParameterEntity(routingContext.request().params()).getAll().forEach(elem -> {
-                        System.out.println("--> " + elem.getName() + " : " + elem.getValue());
-                    });
-                    genericLocalRESTHandler(routingContext,method);
-                });
-                vertx.eventBus().consumer(url, handler -> genericRESTHandler(handler, method));
+            case REST_POST:
+            case REST_PUT:
+            case REST_DELETE:
+            case REST_PATCH:
+                operationParameters.addAll(parameters != null ? parameters : getAllRESTParameters(method));
+                registerRESTMethod(invoker, url, type);
                 break;
             case WEBSOCKET:
-                parameters.addAll(getWSParameter(method));
-                vertx.eventBus().consumer(url, (Handler<Message<byte[]>>) handler -> genericWSHandler(handler, method));
+                operationParameters.addAll(parameters != null ? parameters : getWSParameter(method));
+                vertx.eventBus().consumer(url, (Handler<Message<WSDataWrapper>>) handler -> genericWSHandler(handler, invoker));
                 break;
             case EVENTBUS:
-                List<String> parameter = getEVENTBUSParameter(method);
-                parameters.addAll(parameter);
+                operationParameters.addAll(parameters != null ? parameters : getEVENTBUSParameter(invoker));
 
-                registerEventBusMethod(method, consumes, url, parameter);
+                registerEventBusMethod(invoker, url, operationParameters);
                 break;
         }
         // TODO add service description!!!
-        return new Operation(path.value(), null, url, opType.value().name(), mimeTypes, consumeTypes, parameters.toArray(new String[parameters.size()]));
+        final Operation operation = new Operation(entry.path(), null, url, type.name(), entry.produces(), entry.consumes(), operationParameters.toArray(new String[operationParameters.size()]));
+        operation.setSchema(invoker.schemaDescriptors());
+        if (entry.hasInFlightLimit()) {
+            // every verticle instance has its own limiter, the router enforces the sum of all instances
+            final int instances = context != null ? Math.max(context.getInstanceCount(), 1) : 1;
+            operation.setMaxInFlight(entry.maxInFlight() * instances);
+            operation.setMaxQueued(entry.maxQueued() * instances);
+        }
+        operation.setIdempotent(invoker.singleFlight() != null);
+        return operation;
     }
 
-    private void registerEventBusMethod(Method method, Consumes consumes, String url, List<String> parameter) {
+    /**
+     * Self hosted services route REST requests directly to the operation, router hosted services receive them over the event bus. Self hosted
+     * services register the event bus consumers as well when "restEventBus" is set.
+     */
+    private void registerRESTMethod(OperationInvoker invoker, String url, Type type) {
+        if (port > 0) router.route(type.httpMethod(), url).handler(routingContext -> genericLocalRESTHandler(routingContext, invoker));
+        if (restEventBus) vertx.eventBus().consumer(url, (Handler<Message<Parameter<String>>>) handler -> genericRESTHandler(handler, invoker));
+    }
+
+    private InFlightLimiter limiter(OperationIndex.Entry entry) {
+        return entry.hasInFlightLimit() ? new InFlightLimiter(context, entry.maxInFlight(), entry.maxQueued()) : null;
+    }
+
+    private ResponseCache cache(String url, OperationIndex.Entry entry) {
+        if (!entry.isCacheable()) return null;
+        final Method method = entry.method();
+        final Type type = entry.type();
+        if (type != Type.REST_GET && type != Type.EVENTBUS)
+            throw new IllegalArgumentException("@Cacheable is only supported on REST_GET and EVENTBUS operations: " + method.getName());
+        if (entry.isBatch())
+            throw new IllegalArgumentException("@Cacheable is not supported on @Batch operations: " + method.getName());
+        if (type == Type.REST_GET && OperationInvoker.takesRequestContext(method))
+            throw new IllegalArgumentException("@Cacheable operations must not take the RoutingContext or Message: " + method.getName());
+        final ResponseCache cache = new ResponseCache(entry.cacheTtl(), entry.cacheMaxEntries());
+        caches.put(url, cache);
+        return cache;
+    }
+
+    private SingleFlight singleFlight(OperationIndex.Entry entry) {
+        if (!entry.isIdempotent()) return null;
+        final Method method = entry.method();
+        if (entry.type() != Type.REST_GET)
+            throw new IllegalArgumentException("@Idempotent is only supported on REST_GET operations: " + method.getName());
+        if (StreamReturn.isStreamType(method.getReturnType()))
+            throw new IllegalArgumentException("@Idempotent operations must not return a stream: " + method.getName());
+        if (OperationInvoker.takesRequestContext(method))
+            throw new IllegalArgumentException("@Idempotent operations must not take the RoutingContext or Message: " + method.getName());
+        return new SingleFlight();
+    }
+
+    /**
+     * Runs the invocation within the in-flight limit of the operation, the invocation gets a callback to run when it completes
+     *
+     * @param invoker    the service operation
+     * @param invocation the invocation
+     * @param rejection  called when the limit is exceeded
+     */
+    private void admit(OperationInvoker invoker, Consumer<Runnable> invocation, Runnable rejection) {
+        final InFlightLimiter limiter = invoker.limiter();
+        if (limiter == null) {
+            invocation.accept(NOOP);
+        } else if (!limiter.tryAcquire(() -> invocation.accept(limiter::release))) {
+            rejection.run();
+        }
+    }
+
+    private static String overloaded(String url) {
+        return "too many requests for " + url;
+    }
+
+    private Bulkhead bulkhead(String url, OperationIndex.Entry entry) {
+        if (entry.isBlocking()) {
+            final String name = entry.blockingPool().isEmpty() ? url : entry.blockingPool();
+            return bulkheads.computeIfAbsent(name, key -> new Bulkhead(key, entry.blockingSize(), entry.blockingQueue()));
+        }
+        if (!entry.isVirtual()) return null;
+        if (!VirtualThreads.isAvailable()) {
+            log.warn("virtual threads are not available, " + url + " runs on a worker bulkhead");
+            return bulkheads.computeIfAbsent(url, key -> new Bulkhead(key, Blocking.DEFAULT_SIZE, Blocking.DEFAULT_QUEUE));
+        }
+        return bulkheads.computeIfAbsent(url, Bulkhead::virtualThreads);
+    }
+
+    private void registerEventBusMethod(OperationInvoker invoker, String url, List<String> parameter) {
         Class<?> clazzParameter = null;
         try {
             clazzParameter = parameter.isEmpty() ? null : Class.forName(parameter.get(0));
@@ -285,15 +425,24 @@ public abstract class ServiceVerticle extends AbstractVerticle {
             e.printStackTrace();
         }
 
-        if (isBinary(consumes)) {
-            vertx.eventBus().consumer(url, (Handler<Message<byte[]>>) handler -> binaryEBHandler(handler, method));
-        } else if (isJSON(consumes)) {
-            vertx.eventBus().consumer(url, handler -> objectEBHandler(handler, method));
+        final Batcher batcher = batcher(invoker);
+        if (invoker.isBinary()) {
+            vertx.eventBus().consumer(url, (Handler<Message<byte[]>>) handler -> binaryEBHandler(handler, invoker, batcher));
+        } else if (invoker.isJSON()) {
+            vertx.eventBus().consumer(url, handler -> objectEBHandler(handler, invoker, batcher));
         } else if (clazzParameter != null && TypeTool.isCompatibleType(clazzParameter)) {
-            vertx.eventBus().consumer(url, handler -> objectEBHandler(handler, method));
+            vertx.eventBus().consumer(url, handler -> objectEBHandler(handler, invoker, batcher));
         }
     }
 
+    private Batcher batcher(OperationInvoker invoker) {
+        if (!invoker.isBatch()) return null;
+        final OperationIndex.Entry operation = invoker.operation();
+        final Batcher batcher = new Batcher(vertx, operation.batchSize(), operation.batchDelayMs(), (messages, parameters) -> invokeBatch(invoker, messages, parameters));
+        batchers.add(batcher);
+        return batcher;
+    }
+
 
     /**
      * Retrieving a list of all possible REST parameters in method signature
@@ -310,14 +459,16 @@ public abstract class ServiceVerticle extends AbstractVerticle {
     }
 
     /**
-     * Retrieving a list of all possible eventbus method paramaters
+     * Retrieving a list of all possible eventbus method paramaters, the List element types for @Batch operations
      *
-     * @param method
+     * @param invoker the service operation
      * @return a List of all available parameters on method
      */
-    private List<String> getEVENTBUSParameter(Method method) {
-        final Class<?>[] parameterTypes = method.getParameterTypes();
-        final List<Class> classes = Stream.of(parameterTypes).filter(c -> !c.equals(EBMessageReply.class)).collect(Collectors.toList());
+    private List<String> getEVENTBUSParameter(OperationInvoker invoker) {
+        final List<Class> classes = IntStream.range(0, invoker.parameterCount()).
+                mapToObj(invoker::parameterType).
+                filter(c -> !c.equals(EBMessageReply.class)).
+                collect(Collectors.toList());
         if (classes.size() > 1) throw new IllegalArgumentException("only one parameter is allowed");
         return classes.stream().map(Class::getName).collect(Collectors.toList());
     }
@@ -391,26 +542,107 @@ public abstract class ServiceVerticle extends AbstractVerticle {
      * executes a requested Service Method in ServiceVerticle  when directly routed in the ServiceVerticle itself
      *
      * @param routingContext the web RoutingContext
-     * @param method the method to invoke on request
+     * @param invoker the operation to invoke on request
      */
-    private void genericLocalRESTHandler(RoutingContext routingContext, Method method) {
+    private void genericLocalRESTHandler(RoutingContext routingContext, OperationInvoker invoker) {
+        admit(invoker, done -> invokeLocalREST(routingContext, invoker, done),
+                () -> responseEncoder.overloaded(routingContext.response(), overloaded(routingContext.request().path())));
+    }
+
+    private void invokeLocalREST(RoutingContext routingContext, OperationInvoker invoker, Runnable done) {
         HttpServerResponse response = routingContext.response();
+        boolean pending = false;
+        Handler<AsyncResult<Object>> flight = null;
         try {
-
-            final Object replyValue = method.invoke(this, invokeLocalPatameters(routingContext, method));
-            if (replyValue != null) {
-                if (TypeTool.isCompatibleRESTReturnType(replyValue)) {
-                    response.end(TypeTool.trySerializeToString(replyValue));
-                } else {
-                    response.end(serializeToJSON(replyValue));
-                }
+            final Object[] parameters = invokeLocalPatameters(routingContext, invoker);
+            final Object key = invoker.requestKey(parameters);
+            final ResponseCache.Entry cached = invoker.cache() != null ? invoker.cache().get(key) : null;
+            if (cached != null) {
+                responseEncoder.endCached(routingContext.request(), (Buffer) cached.reply(), cached.etag());
+                return;
+            }
+            if (invoker.singleFlight() != null) {
+                if (!invoker.singleFlight().join(key, result -> completeLocalREST(routingContext, invoker, key, result))) return;
+                flight = result -> invoker.singleFlight().complete(key, share(result));
+            }
+            final Handler<AsyncResult<Object>> complete = flight != null ? flight : result -> completeLocalREST(routingContext, invoker, key, result);
+            if (invoker.isBlocking()) {
+                invokeBlocking(invoker, parameters, result -> {
+                    complete.handle(result);
+                    done.run();
+                });
+                pending = true;
+                return;
+            }
+            final Object replyValue = invoker.invoke(parameters);
+            if (invoker.isAsync()) {
+                AsyncReturn.onComplete(replyValue, context, result -> {
+                    complete.handle(result);
+                    done.run();
+                });
+                pending = true;
+            } else if (flight != null) {
+                flight.handle(Future.succeededFuture(replyValue));
+            } else if (replyValue != null) {
+                endLocalREST(routingContext, invoker, key, replyValue);
+            }
+        } catch (BindingPlan.BindingException e) {
+            if (flight != null) {
+                flight.handle(Future.failedFuture(e));
+            } else {
+                response.setStatusCode(BindingPlan.BAD_REQUEST).end(e.getMessage());
             }
-        } catch (IllegalAccessException e) {
-            e.printStackTrace();
-            response.setStatusCode(200).write(e.getLocalizedMessage());
         } catch (InvocationTargetException e) {
             e.printStackTrace();
-            response.setStatusCode(200).write(e.getLocalizedMessage());
+            if (flight != null) {
+                flight.handle(Future.failedFuture(e.getCause()));
+            } else {
+                failLocalREST(response, e.getCause());
+            }
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            if (flight != null) {
+                flight.handle(Future.failedFuture(e));
+            } else {
+                failLocalREST(response, e);
+            }
+        } finally {
+            if (!pending) done.run();
+        }
+    }
+
+    private void completeLocalREST(RoutingContext routingContext, OperationInvoker invoker, Object key, AsyncResult<Object> result) {
+        final HttpServerResponse response = routingContext.response();
+        if (response.ended()) return;
+        if (result.failed()) {
+            failLocalREST(response, result.cause());
+            return;
+        }
+        try {
+            endLocalREST(routingContext, invoker, key, result.result());
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            failLocalREST(response, e);
+        }
+    }
+
+    private void failLocalREST(HttpServerResponse response, Throwable cause) {
+        if (response.ended()) return;
+        response.setStatusCode(failureCode(cause)).end(String.valueOf(cause.getLocalizedMessage()));
+    }
+
+    /**
+     * Ends the response with the result, results of @Cacheable operations are cached encoded and sent with their ETag; streams are not cached
+     */
+    private void endLocalREST(RoutingContext routingContext, OperationInvoker invoker, Object key, Object replyValue) {
+        final HttpServerResponse response = routingContext.response();
+        if (StreamReturn.isStream(replyValue)) {
+            StreamReturn.write(StreamReturn.readStream(replyValue), response, responseEncoder);
+        } else if (invoker.cache() != null && replyValue != null) {
+            final ResponseCache.Entry entry = invoker.cache().put(key, responseEncoder.encode(replyValue));
+            responseEncoder.endCached(routingContext.request(), (Buffer) entry.reply(), entry.etag());
+        } else {
+            responseEncoder.end(response, replyValue);
         }
     }
 
@@ -418,308 +650,431 @@ public abstract class ServiceVerticle extends AbstractVerticle {
      * executes a requested Service Method in ServiceVerticle
      *
      * @param m
-     * @param method
+     * @param invoker
      */
-    private void genericRESTHandler(Message m, Method method) {
+    private void genericRESTHandler(Message<Parameter<String>> m, OperationInvoker invoker) {
+        admit(invoker, done -> invokeREST(m, invoker, done), () -> m.fail(GlobalKeyHolder.OVERLOADED, overloaded(m.address())));
+    }
+
+    private void invokeREST(Message<Parameter<String>> m, OperationInvoker invoker, Runnable done) {
+        boolean pending = false;
+        Handler<AsyncResult<Object>> flight = null;
         try {
-            final Object replyValue = method.invoke(this, invokePatameters(m, method));
-            if (replyValue != null) {
-                if (TypeTool.isCompatibleRESTReturnType(replyValue)) {
-                    m.reply(replyValue);
-                } else {
-                    m.reply(serializeToJSON(replyValue));
-                }
+            final Object[] parameters = invokePatameters(m, invoker);
+            final Object key = invoker.requestKey(parameters);
+            final ResponseCache.Entry cached = invoker.cache() != null ? invoker.cache().get(key) : null;
+            if (cached != null) {
+                replyCached(m, cached);
+                return;
+            }
+            if (invoker.singleFlight() != null) {
+                if (!invoker.singleFlight().join(key, result -> completeREST(m, invoker, key, result))) return;
+                flight = result -> invoker.singleFlight().complete(key, share(result));
+            }
+            final Handler<AsyncResult<Object>> complete = flight != null ? flight : result -> completeREST(m, invoker, key, result);
+            if (invoker.isBlocking()) {
+                invokeBlocking(invoker, parameters, result -> {
+                    complete.handle(result);
+                    done.run();
+                });
+                pending = true;
+                return;
+            }
+            final Object replyValue = invoker.invoke(parameters);
+            if (invoker.isAsync()) {
+                AsyncReturn.onComplete(replyValue, context, result -> {
+                    complete.handle(result);
+                    done.run();
+                });
+                pending = true;
+            } else if (flight != null) {
+                flight.handle(Future.succeededFuture(replyValue));
+            } else {
+                replyREST(m, invoker, key, replyValue);
+            }
+        } catch (BindingPlan.BindingException e) {
+            if (flight != null) {
+                flight.handle(Future.failedFuture(e));
+            } else {
+                m.fail(BindingPlan.BAD_REQUEST, e.getMessage());
             }
-        } catch (IllegalAccessException e) {
-            e.printStackTrace();
-            m.fail(200, e.getMessage());
         } catch (InvocationTargetException e) {
             e.printStackTrace();
-            m.fail(200, e.getMessage());
+            if (flight != null) {
+                flight.handle(Future.failedFuture(e.getCause()));
+            } else {
+                m.fail(failureCode(e.getCause()), e.getCause().getMessage());
+            }
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            if (flight != null) {
+                flight.handle(Future.failedFuture(e));
+            } else {
+                m.fail(failureCode(e), e.getMessage());
+            }
+        } finally {
+            if (!pending) done.run();
+        }
+    }
+
+    private void completeREST(Message<Parameter<String>> m, OperationInvoker invoker, Object key, AsyncResult<Object> result) {
+        if (result.failed()) {
+            m.fail(failureCode(result.cause()), result.cause().getMessage());
+            return;
+        }
+        try {
+            replyREST(m, invoker, key, result.result());
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            m.fail(failureCode(e), e.getMessage());
+        }
+    }
+
+    private void replyREST(Message<Parameter<String>> m, OperationInvoker invoker, Object key, Object replyValue) {
+        if (replyValue != null) {
+            if (StreamReturn.isStream(replyValue)) {
+                new ChunkedReply(StreamReturn.readStream(replyValue), m, responseEncoder, responseEncoder.chunkSize()).start();
+            } else if (invoker.cache() != null) {
+                replyCached(m, invoker.cache().put(key, responseEncoder.encode(replyValue)));
+            } else if (replyValue instanceof String) {
+                m.reply(replyValue);
+            } else {
+                m.reply(responseEncoder.encode(replyValue));
+            }
         }
     }
 
+    /**
+     * Prepares the result of a coalesced invocation for all waiting requests, values are encoded once; Strings are passed as they are
+     */
+    private AsyncResult<Object> share(AsyncResult<Object> result) {
+        final Object value = result.succeeded() ? result.result() : null;
+        if (value == null || value instanceof String) return result;
+        if (StreamReturn.isStream(value)) return Future.failedFuture(new IllegalStateException("a streamed result can not be shared"));
+        try {
+            return Future.succeededFuture(responseEncoder.encode(value));
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            return Future.failedFuture(e);
+        }
+    }
+
+    /**
+     * replies a cached REST result, the router answers it with the ETag header
+     */
+    private void replyCached(Message<Parameter<String>> m, ResponseCache.Entry entry) {
+        m.reply(entry.reply(), new DeliveryOptions().addHeader(GlobalKeyHolder.ETAG, entry.etag()));
+    }
+
     /**
      * executes a requested Service Method in ServiceVerticle
      *
      * @param handler
-     * @param method
+     * @param invoker
      */
-    private void genericWSHandler(Message<byte[]> handler, Method method) {
-        genericVoidMethodInvocation(handler, method, () -> invokeWSParameters(handler, method));
+    private void genericWSHandler(Message<WSDataWrapper> handler, OperationInvoker invoker) {
+        genericVoidMethodInvocation(handler, invoker, () -> invokeWSParameters(handler, invoker));
     }
 
-    private void objectEBHandler(Message<Object> handler, Method method) {
-        genericVoidMethodInvocation(handler, method, () -> invokeObjectEBParameters(handler, method));
-
+    private void objectEBHandler(Message<Object> handler, OperationInvoker invoker, Batcher batcher) {
+        if (batcher != null) {
+            addToBatch(batcher, handler, () -> invokeObjectEBParameters(handler, invoker));
+        } else if (!replyCached(handler, invoker)) {
+            genericVoidMethodInvocation(handler, invoker, () -> invokeObjectEBParameters(handler, invoker));
+        }
     }
 
-    private void binaryEBHandler(Message<byte[]> handler, Method method) {
-        genericVoidMethodInvocation(handler, method, () -> invokeBinaryEBParameters(handler, method));
+    private void binaryEBHandler(Message<byte[]> handler, OperationInvoker invoker, Batcher batcher) {
+        if (batcher != null) {
+            addToBatch(batcher, handler, () -> invokeBinaryEBParameters(handler, invoker));
+        } else if (!replyCached(handler, invoker)) {
+            genericVoidMethodInvocation(handler, invoker, () -> invokeBinaryEBParameters(handler, invoker));
+        }
     }
 
-    private void genericVoidMethodInvocation(Message handler, Method method, Supplier<Object[]> supplier) {
+    /**
+     * Adds a message to its batch, a message that can not be decoded is failed right away
+     */
+    private void addToBatch(Batcher batcher, Message<?> handler, Supplier<Object[]> parameters) {
         try {
-            method.invoke(this, supplier.get());
-        } catch (IllegalAccessException e) {
+            batcher.add(handler, parameters.get());
+        } catch (RuntimeException e) {
             e.printStackTrace();
-            handler.fail(200, e.getMessage());
-        } catch (InvocationTargetException e) {
-            handler.fail(200, e.getMessage());
+            handler.fail(failureCode(e), e.getMessage());
         }
     }
 
-    private Object[] invokeBinaryEBParameters(Message<byte[]> m, Method method) {
-        byte[] tmp = m.body();
-        final java.lang.reflect.Parameter[] parameters = method.getParameters();
-        final Object[] parameterResult = new Object[parameters.length];
-        final Consumes consumes = method.getDeclaredAnnotation(Consumes.class);
-        int i = 0;
-        for (java.lang.reflect.Parameter p : parameters) {
-            if (p.getType().equals(EBMessageReply.class)) {
-                final String consumesVal = consumes != null && consumes.value().length > 0 ? consumes.value()[0] : "";
-                parameterResult[i] = new EBMessageReply(this.vertx.eventBus(), m, consumesVal, getConverter());
-            } else {
-                putTypedEBParameter(consumes, parameterResult, p, i, tmp);
-            }
-
-            i++;
-        }
+    /**
+     * replies the cached result of a @Cacheable EVENTBUS operation, keyed by the message body (see {@link ResponseCache#key(Object)})
+     *
+     * @return true if the message was answered from the cache
+     */
+    private boolean replyCached(Message<?> handler, OperationInvoker invoker) {
+        final Object key = invoker.cache() != null ? ResponseCache.key(handler.body()) : null;
+        if (key == null) return false;
+        final ResponseCache.Entry entry = invoker.cache().get(key);
+        if (entry == null) return false;
+        handler.reply(BinaryReply.of(entry.reply(), compressionThreshold, handler.address()));
+        return true;
+    }
 
-        return parameterResult;
+    /**
+     * Creates the reply of an EVENTBUS message, the serialized reply of a @Cacheable operation is cached
+     */
+    private EBMessageReply ebMessageReply(Message<?> m, OperationInvoker invoker) {
+        final EBMessageReply reply = new EBMessageReply(this.vertx.eventBus(), m, invoker.consumesValue(), getConverter(), codec, compressionThreshold);
+        final ResponseCache cache = invoker.cache();
+        final Object key = cache != null ? ResponseCache.key(m.body()) : null;
+        return key != null ? reply.onReply(payload -> cache.put(key, payload)) : reply;
     }
 
-    private Object[] invokeObjectEBParameters(Message<Object> m, Method method) {
-        final java.lang.reflect.Parameter[] parameters = method.getParameters();
-        final Object[] parameterResult = new Object[parameters.length];
-        final Consumes consumes = method.getDeclaredAnnotation(Consumes.class);
-        int counter = 0;
-        for (java.lang.reflect.Parameter p : parameters) {
-            if (p.getType().equals(EBMessageReply.class)) {
-                final String consumesVal = consumes != null && consumes.value().length > 0 ? consumes.value()[0] : "";
-                parameterResult[counter] = new EBMessageReply(this.vertx.eventBus(), m, consumesVal, getConverter());
-            } else {
-                if (TypeTool.isCompatibleType(p.getType())) {
-                    parameterResult[counter] = p.getType().cast(m.body());
+    /**
+     * executes a @Batch operation with the collected messages
+     *
+     * @param invoker    the service operation
+     * @param messages   the messages of the batch
+     * @param parameters the method parameters, one List per parameter
+     */
+    private void invokeBatch(OperationInvoker invoker, List<Message<?>> messages, Object[] parameters) {
+        admit(invoker, done -> {
+            boolean pending = false;
+            try {
+                if (invoker.isBlocking()) {
+                    invokeBlocking(invoker, parameters, result -> {
+                        completeBatch(messages, invoker, result);
+                        done.run();
+                    });
+                    pending = true;
+                    return;
+                }
+                final Object replyValue = invoker.invoke(parameters);
+                if (invoker.isAsync()) {
+                    AsyncReturn.onComplete(replyValue, context, result -> {
+                        completeBatch(messages, invoker, result);
+                        done.run();
+                    });
+                    pending = true;
                 } else {
-                    parameterResult[counter] = getConverter().convertToObject(String.valueOf(m.body()), p.getType());
+                    completeBatch(messages, invoker, Future.succeededFuture(replyValue));
                 }
+            } catch (InvocationTargetException e) {
+                completeBatch(messages, invoker, Future.failedFuture(e.getCause()));
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                messages.forEach(m -> m.fail(failureCode(e), e.getMessage()));
+            } finally {
+                if (!pending) done.run();
             }
-
-            counter++;
-        }
-
-        return parameterResult;
+        }, () -> messages.forEach(m -> m.fail(GlobalKeyHolder.OVERLOADED, overloaded(m.address()))));
     }
 
-    private Object[] invokeWSParameters(Message<byte[]> m, Method method) {
-        final WSDataWrapper wrapper = getWSDataWrapper(m);
-        final java.lang.reflect.Parameter[] parameters = method.getParameters();
-        final Object[] parameterResult = new Object[parameters.length];
-        final Consumes consumes = method.getDeclaredAnnotation(Consumes.class);
-        int i = 0;
-        for (java.lang.reflect.Parameter p : parameters) {
-            if (p.getType().equals(WSMessageReply.class)) {
-                parameterResult[i] = new WSMessageReply(wrapper.getEndpoint(), this.vertx.eventBus(), this.getConfig());
+    /**
+     * Replies the results of a batch in message order, messages without a result (the operation returned fewer results or no List) are failed;
+     * void operations reply with their EBMessageReply parameters
+     */
+    private void completeBatch(List<Message<?>> messages, OperationInvoker invoker, AsyncResult<Object> result) {
+        if (result.failed()) {
+            messages.forEach(m -> completeEventBus(m, invoker, result));
+            return;
+        }
+        if (invoker.method().getReturnType() == void.class) return;
+        final List<?> replies = result.result() instanceof List ? (List<?>) result.result() : Collections.emptyList();
+        for (int i = 0; i < messages.size(); i++) {
+            if (i < replies.size()) {
+                completeEventBus(messages.get(i), invoker, Future.succeededFuture(replies.get(i)));
             } else {
-                putTypedWSParameter(consumes, parameterResult, p, i, wrapper.getData());
+                messages.get(i).fail(AsyncReturn.FAILURE, "no batch result for message " + i + ", the operation returned " + replies.size() + " results");
             }
-
-            i++;
         }
-
-        return parameterResult;
     }
 
+    private void genericVoidMethodInvocation(Message handler, OperationInvoker invoker, Supplier<Object[]> supplier) {
+        admit(invoker, done -> invokeVoidMethod(handler, invoker, supplier, done), () -> handler.fail(GlobalKeyHolder.OVERLOADED, overloaded(handler.address())));
+    }
 
-    private WSDataWrapper getWSDataWrapper(Message<byte[]> m) {
-        WSDataWrapper wrapper = null;
+    private void invokeVoidMethod(Message handler, OperationInvoker invoker, Supplier<Object[]> supplier, Runnable done) {
+        boolean pending = false;
         try {
-            wrapper = (WSDataWrapper) Serializer.deserialize(m.body());
-        } catch (IOException | ClassNotFoundException e) {
+            final Object[] parameters = supplier.get();
+            if (invoker.isBlocking()) {
+                invokeBlocking(invoker, parameters, result -> {
+                    completeEventBus(handler, invoker, result);
+                    done.run();
+                });
+                pending = true;
+                return;
+            }
+            final Object replyValue = invoker.invoke(parameters);
+            if (invoker.isAsync()) {
+                AsyncReturn.onComplete(replyValue, context, result -> {
+                    completeEventBus(handler, invoker, result);
+                    done.run();
+                });
+                pending = true;
+            }
+        } catch (InvocationTargetException e) {
+            handler.fail(failureCode(e.getCause()), e.getCause().getMessage());
+        } catch (RuntimeException e) {
             e.printStackTrace();
+            handler.fail(failureCode(e), e.getMessage());
+        } finally {
+            if (!pending) done.run();
         }
-
-        return wrapper;
     }
 
-
-    protected String serializeToJSON(final Object o) {
-        return gson.toJson(o);
+    private void completeEventBus(Message handler, OperationInvoker invoker, AsyncResult<Object> result) {
+        if (result.failed()) {
+            handler.fail(failureCode(result.cause()), result.cause().getMessage());
+        } else if (result.result() != null && invoker.type() == Type.EVENTBUS) {
+            ebMessageReply(handler, invoker).reply(result.result());
+        }
     }
 
-
     /**
-     * checks method parameters and request parameters for method invocation
+     * Invokes a @Blocking or @RunOnVirtualThread operation on its bulkhead, the (resolved) result is passed to the handler on the verticle context
      *
-     * @param context      the message
-     * @param method the service method
-     * @return an array with all valid method parameters
+     * @param invoker    the service operation
+     * @param parameters the method parameters, bound on the event loop
+     * @param handler    the result handler
      */
-    private Object[] invokePatameters(Message<byte[]> context, Method method) {
-        final Parameter<String> params = getParameterObject(context);
-        return getInvokedParameters(context, method, params);
+    private void invokeBlocking(OperationInvoker invoker, Object[] parameters, Handler<AsyncResult<Object>> handler) {
+        AsyncReturn.onComplete(invoker.bulkhead().submit(() -> invoker.invoke(parameters)), context, result -> {
+            if (result.failed()) {
+                final Throwable cause = result.cause();
+                handler.handle(Future.failedFuture(cause instanceof InvocationTargetException && cause.getCause() != null ? cause.getCause() : cause));
+            } else if (invoker.isAsync()) {
+                AsyncReturn.onComplete(result.result(), context, handler);
+            } else {
+                handler.handle(result);
+            }
+        });
     }
 
     /**
-     * checks method parameters and request parameters for method invocation
-     *
-     * @param context      the http routingContext
-     * @param method the service method
-     * @return an array with all valid method parameters
+     * the failure code of a failed invocation: 400 for invalid parameters, the status of a failed nested request and 500 for all other errors
      */
-    private Object[] invokeLocalPatameters(RoutingContext context, Method method) {
-        final Parameter<String> params = getParameterObject(context.request().params());
-        return getInvokedParameters(context, method, params);
+    private static int failureCode(Throwable cause) {
+        if (cause instanceof BindingPlan.BindingException) return BindingPlan.BAD_REQUEST;
+        if (cause instanceof RejectedExecutionException) return Bulkhead.REJECTED;
+        if (cause instanceof ReplyException && isErrorStatus(((ReplyException) cause).failureCode())) return ((ReplyException) cause).failureCode();
+        return AsyncReturn.FAILURE;
     }
 
-    private Object[] getInvokedParameters(Object context, Method method, Parameter<String> params) {
-        final Annotation[][] parameterAnnotations = method.getParameterAnnotations();
-        final Class[] parameterTypes = method.getParameterTypes();
-        final Object[] parameters = new Object[parameterAnnotations.length];
+    private static boolean isErrorStatus(int code) {
+        return code >= 400 && code < 600;
+    }
 
-        int i = 0;
-        for (final Annotation[] parameterAnnotation : parameterAnnotations) {
-            if (parameterAnnotation.length > 0) {
-                // check only first parameter annotation as only one is allowed
-                final Annotation annotation = parameterAnnotation[0];
-                putQueryParameter(parameters, i, annotation, params);
-                putPathParameter(parameters, i, annotation, params);
-                putFormParameter(parameters, i, annotation, params);
+    private Object[] invokeBinaryEBParameters(Message<byte[]> m, OperationInvoker invoker) {
+        final byte[] tmp = m.body();
+        final Object[] parameterResult = new Object[invoker.parameterCount()];
+        for (int i = 0; i < parameterResult.length; i++) {
+            if (invoker.parameterType(i).equals(EBMessageReply.class)) {
+                parameterResult[i] = ebMessageReply(m, invoker);
             } else {
-                final Class typeClass = parameterTypes[i];
-                if (typeClass.isAssignableFrom(context.getClass())) {
-                    parameters[i] = context;
-                }
+                putTypedParameter(invoker, parameterResult, i, tmp);
             }
-            i++;
         }
-        return parameters;
-    }
-
 
-    private Parameter<String> getParameterObject(final MultiMap params) {
-        final List<Parameter<String>> parameters = params.
-                entries().
-                stream().
-                map(entry -> new Parameter<>(entry.getKey(), entry.getValue())).
-                collect(Collectors.toList());
-        return new Parameter<>(parameters);
+        return parameterResult;
     }
 
-    private Parameter<String> getParameterObject(Message<byte[]> m) {
-        Parameter<String> params = null;
-        try {
-            params = (Parameter<String>) Serializer.deserialize(m.body());
-        } catch (IOException e) {
-            e.printStackTrace();
-        } catch (ClassNotFoundException e) {
-            e.printStackTrace();
+    private Object[] invokeObjectEBParameters(Message<Object> m, OperationInvoker invoker) {
+        final Object[] parameterResult = new Object[invoker.parameterCount()];
+        for (int counter = 0; counter < parameterResult.length; counter++) {
+            final Class<?> type = invoker.parameterType(counter);
+            if (type.equals(EBMessageReply.class)) {
+                parameterResult[counter] = ebMessageReply(m, invoker);
+            } else {
+                if (TypeTool.isCompatibleType(type)) {
+                    parameterResult[counter] = type.cast(m.body());
+                } else {
+                    parameterResult[counter] = invoker.adapter(counter).fromJSON(String.valueOf(m.body()));
+                }
+            }
         }
-        return params;
-    }
 
-
-    private void putQueryParameter(Object[] parameters, int counter, Annotation annotation, final Parameter<String> params) {
-        if (QueryParam.class.isAssignableFrom(annotation.getClass())) {
-            parameters[counter] = (params.getValue(QueryParam.class.cast(annotation).value()));
-        }
+        return parameterResult;
     }
 
-    private void putPathParameter(Object[] parameters, int counter, Annotation annotation, final Parameter<String> params) {
-        if (PathParam.class.isAssignableFrom(annotation.getClass())) {
-            parameters[counter] = (params.getValue(PathParam.class.cast(annotation).value()));
+    private Object[] invokeWSParameters(Message<WSDataWrapper> m, OperationInvoker invoker) {
+        final WSDataWrapper wrapper = m.body();
+        final Object[] parameterResult = new Object[invoker.parameterCount()];
+        for (int i = 0; i < parameterResult.length; i++) {
+            if (invoker.parameterType(i).equals(WSMessageReply.class)) {
+                parameterResult[i] = new WSMessageReply(wrapper.getEndpoint(), this.vertx.eventBus(), this.getConfig());
+            } else {
+                putTypedParameter(invoker, parameterResult, i, wrapper.getData());
+            }
         }
-    }
 
-    private void putFormParameter(Object[] parameters, int counter, Annotation annotation, final Parameter<String> params) {
-        if (FormParam.class.isAssignableFrom(annotation.getClass())) {
-            parameters[counter] = (params.getValue(FormParam.class.cast(annotation).value()));
-        }
+        return parameterResult;
     }
 
-    private void putTypedEBParameter(final Consumes consumes, final Object[] parameterResult, final java.lang.reflect.Parameter p, final int counter, final byte[] myParameter) {
-        if (p.getType().equals(String.class)) {
-            parameterResult[counter] = new String(myParameter);
-        } else {
-            try {
-                // TODO analyze @Consumes annotation, check for String Integer, or simply cast
-                if (isBinary(consumes)) {
-                    handleBinaryWSParameter(parameterResult, p, counter, myParameter);
-                } else if (isJSON(consumes)) {
-                    handleJSONWSParameter(parameterResult, p, counter, myParameter);
-                } else {
-                    // check for application/octet-stream or application/json
-                    handleBinaryWSParameter(parameterResult, p, counter, myParameter);
-                }
 
-            } catch (IOException | ClassNotFoundException e) {
-                e.printStackTrace();
-            }
-        }
+    protected String serializeToJSON(final Object o) {
+        return getConverter().convertToJSONString(o);
+    }
 
 
+    /**
+     * checks method parameters and request parameters for method invocation
+     *
+     * @param context      the message
+     * @param invoker the service operation
+     * @return an array with all valid method parameters
+     */
+    private Object[] invokePatameters(Message<Parameter<String>> context, OperationInvoker invoker) {
+        return invoker.bind(context, context.body());
+    }
+
+    /**
+     * checks method parameters and request parameters for method invocation
+     *
+     * @param context      the http routingContext
+     * @param invoker the service operation
+     * @return an array with all valid method parameters
+     */
+    private Object[] invokeLocalPatameters(RoutingContext context, OperationInvoker invoker) {
+        final HttpServerRequest request = context.request();
+        final Parameter<String> params = Parameter.of(request.method() == HttpMethod.GET ? request.params() :
+                MultiMap.caseInsensitiveMultiMap().addAll(request.params()).addAll(request.formAttributes()));
+        return invoker.bind(context, params);
     }
 
-    private void putTypedWSParameter(final Consumes consumes, final Object[] parameterResult, final java.lang.reflect.Parameter p, final int counter, final byte[] myParameter) {
-        if (p.getType().equals(String.class)) {
+    private void putTypedParameter(final OperationInvoker invoker, final Object[] parameterResult, final int counter, final byte[] myParameter) {
+        final Class<?> type = invoker.parameterType(counter);
+        if (type.equals(String.class)) {
             parameterResult[counter] = new String(myParameter);
         } else {
             try {
                 // TODO analyze @Consumes annotation, check for String Integer, or simply cast
-                if (isBinary(consumes)) {
-                    handleBinaryWSParameter(parameterResult, p, counter, myParameter);
-                } else if (isJSON(consumes)) {
-                    handleJSONWSParameter(parameterResult, p, counter, myParameter);
+                if (invoker.isJSON()) {
+                    parameterResult[counter] = invoker.adapter(counter).fromJSON(myParameter);
                 } else {
-                    // check for application/octet-stream or application/json
-                    handleBinaryWSParameter(parameterResult, p, counter, myParameter);
+                    // application/octet-stream or no consumes definition
+                    handleBinaryParameter(invoker, parameterResult, counter, myParameter);
                 }
 
             } catch (IOException | ClassNotFoundException e) {
                 e.printStackTrace();
             }
         }
-
-
     }
 
-    private void handleJSONWSParameter(Object[] parameterResult, java.lang.reflect.Parameter p, int counter, byte[] myParameter) {
-        final String jsonString = new String(myParameter);
-        if (p.getType().equals(String.class)) {
-            parameterResult[counter] = jsonString;
-        } else {
-            parameterResult[counter] = getConverter().convertToObject(jsonString, p.getType());
-        }
-    }
-
-    private void handleBinaryWSParameter(Object[] parameterResult, java.lang.reflect.Parameter p, int counter, byte[] myParameter) throws IOException, ClassNotFoundException {
-        Object o = Serializer.deserialize(myParameter);
-        parameterResult[counter] = p.getType().cast(o);
+    private void handleBinaryParameter(OperationInvoker invoker, Object[] parameterResult, int counter, byte[] myParameter) throws IOException, ClassNotFoundException {
+        final BinarySchema<?> schema = invoker.schema(counter);
+        Object o = schema != null ? schema.decode(myParameter) : Serializer.deserialize(myParameter);
+        parameterResult[counter] = invoker.parameterType(counter).cast(o);
     }
 
     private JSONConverter getConverter() {
-        // TODO privide impl. by SPI
-        return new GSonConverter();
+        return jsonConverter;
     }
 
-    private boolean isBinary(final Consumes consumes) {
-        if (consumes == null || consumes.value().length == 0) return false;
-        Optional<String> result = Stream.of(consumes.value()).filter(val -> val.equalsIgnoreCase("application/octet-stream")).findFirst();
-        return result.isPresent();
-    }
-
-    private boolean isJSON(final Consumes consumes) {
-        if (consumes == null || consumes.value().length == 0) return false;
-        Optional<String> result = Stream.of(consumes.value()).filter(val -> val.equalsIgnoreCase("application/json")).findFirst();
-        return result.isPresent();
-    }
-
-
     private void info(Message m) {
 
         try {
-            m.reply(Serializer.serialize(getServiceDescriptor()), new DeliveryOptions().setSendTimeout(10000));
+            m.reply(Serializer.serialize(getServiceDescriptor(), codec), new DeliveryOptions().setSendTimeout(10000));
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -731,6 +1086,31 @@ public abstract class ServiceVerticle extends AbstractVerticle {
         return this.descriptor;
     }
 
+    /**
+     * Returns the statistics of all @Blocking and @RunOnVirtualThread bulkheads: mode, size, active invocations, queue capacity and depth,
+     * completed, failed and rejected invocations.
+     * The statistics are also available on the event bus address "&lt;serviceName&gt;-bulkheads".
+     *
+     * @return the statistics per bulkhead name
+     */
+    public JsonObject getBulkheadStatistics() {
+        final JsonObject statistics = new JsonObject();
+        bulkheads.forEach((name, bulkhead) -> statistics.put(name, bulkhead.statistics()));
+        return statistics;
+    }
+
+    /**
+     * Returns the statistics of all @Cacheable operations: size, maxEntries, hits, misses and evictions.
+     * The statistics are also available on the event bus address "&lt;serviceName&gt;-caches".
+     *
+     * @return the statistics per operation url
+     */
+    public JsonObject getCacheStatistics() {
+        final JsonObject statistics = new JsonObject();
+        caches.forEach((url, cache) -> statistics.put(url, cache.statistics()));
+        return statistics;
+    }
+
     protected String serviceName() {
         if (this.getClass().isAnnotationPresent(ApplicationPath.class)) {
             final JsonObject config = getConfig();
@@ -0,0 +1,48 @@
+package org.jacpfx.vertx.services;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Coalesces concurrent identical requests of an @Idempotent operation. The first request invokes the operation, requests with the same key arriving
+ * before it completes wait for its result. The single flight is only used on the verticle context, so it needs no synchronization.
+ */
+final class SingleFlight {
+
+    private final Map<Object, List<Handler<AsyncResult<Object>>>> flights = new HashMap<>();
+
+    /**
+     * Adds the result handler of a request to the requests with the same key
+     *
+     * @param key     the request key
+     * @param handler the result handler of the request
+     * @return true if no identical request is running, the caller invokes the operation and calls {@link #complete(Object, AsyncResult)}
+     */
+    boolean join(final Object key, final Handler<AsyncResult<Object>> handler) {
+        final List<Handler<AsyncResult<Object>>> waiting = flights.get(key);
+        if (waiting != null) {
+            waiting.add(handler);
+            return false;
+        }
+        final List<Handler<AsyncResult<Object>>> handlers = new ArrayList<>();
+        handlers.add(handler);
+        flights.put(key, handlers);
+        return true;
+    }
+
+    /**
+     * Passes the result of the invocation to all requests with the key, including the invoking one
+     *
+     * @param key    the request key
+     * @param result the invocation result
+     */
+    void complete(final Object key, final AsyncResult<Object> result) {
+        final List<Handler<AsyncResult<Object>>> handlers = flights.remove(key);
+        if (handlers != null) handlers.forEach(handler -> handler.handle(result));
+    }
+}
@@ -0,0 +1,225 @@
+package org.jacpfx.vertx.services;
+
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.AsyncFile;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.streams.ReadStream;
+import org.jacpfx.common.ResponseEncoder;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streaming return values of REST operations. A method may return a java.util.stream.Stream, an Iterator or a Vert.x ReadStream; the items are encoded
+ * one by one and written in chunked transfer mode instead of materializing the whole response. Writing pauses while the write queue of the response
+ * is full. String, Buffer and byte[] items are written as they are, all other items as newline delimited JSON (application/x-ndjson). The source is
+ * closed when the stream ends or the client goes away.
+ */
+final class StreamReturn {
+
+    static final String NDJSON = "application/x-ndjson";
+    private static final byte NEWLINE = '\n';
+
+    private StreamReturn() {
+    }
+
+    /**
+     * Checks if a return value is streamed
+     *
+     * @param value the return value of the service method
+     * @return true for Stream, Iterator and ReadStream values
+     */
+    static boolean isStream(final Object value) {
+        return value instanceof Stream || value instanceof Iterator || value instanceof ReadStream;
+    }
+
+    /**
+     * Checks if a method return type is streamed
+     *
+     * @param returnType the declared return type
+     * @return true for Stream, Iterator and ReadStream return types
+     */
+    static boolean isStreamType(final Class<?> returnType) {
+        return Stream.class.isAssignableFrom(returnType) || Iterator.class.isAssignableFrom(returnType) || ReadStream.class.isAssignableFrom(returnType);
+    }
+
+    /**
+     * Adapts a streamed return value to a ReadStream, Streams and Iterators emit their items on the calling thread as soon as the handler is set
+     *
+     * @param value a Stream, Iterator or ReadStream
+     * @return the items as ReadStream
+     */
+    @SuppressWarnings("unchecked")
+    static ReadStream<Object> readStream(final Object value) {
+        if (value instanceof ReadStream) return (ReadStream<Object>) value;
+        if (value instanceof Stream) {
+            final Stream<Object> stream = (Stream<Object>) value;
+            return new IteratorReadStream(stream.iterator(), stream::close);
+        }
+        final Iterator<Object> iterator = (Iterator<Object>) value;
+        return new IteratorReadStream(iterator, () -> {
+            if (iterator instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) iterator).close();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+    }
+
+    /**
+     * Encodes a streamed item, String, Buffer and byte[] items are passed as they are, all other items are encoded as JSON followed by a newline
+     *
+     * @param item    the item
+     * @param encoder the item encoder
+     * @return the encoded item, null for a null item
+     */
+    static Buffer encodeItem(final Object item, final ResponseEncoder encoder) {
+        final Buffer chunk = encoder.encode(item);
+        if (chunk == null || isRaw(item)) return chunk;
+        return chunk.appendByte(NEWLINE);
+    }
+
+    /**
+     * @param item a streamed item
+     * @return the content type of a stream starting with the item, null for String, Buffer and byte[] items
+     */
+    static String contentType(final Object item) {
+        return item == null || isRaw(item) ? null : NDJSON;
+    }
+
+    private static boolean isRaw(final Object item) {
+        return item instanceof String || item instanceof Buffer || item instanceof byte[];
+    }
+
+    /**
+     * Stops an aborted stream and releases its source, Streams and Iterators are closed; ReadStreams are closed if they are an AsyncFile and paused
+     * otherwise
+     *
+     * @param items the items
+     */
+    static void close(final ReadStream<Object> items) {
+        final Object source = items;
+        if (source instanceof IteratorReadStream) {
+            ((IteratorReadStream) source).cancel();
+        } else if (source instanceof AsyncFile) {
+            ((AsyncFile) source).close();
+        } else {
+            items.pause();
+        }
+    }
+
+    /**
+     * Writes the items chunked to the response and ends it
+     *
+     * @param items    the items
+     * @param response the http response
+     * @param encoder  the item encoder
+     */
+    static void write(final ReadStream<Object> items, final HttpServerResponse response, final ResponseEncoder encoder) {
+        response.setChunked(true);
+        response.closeHandler(v -> close(items));
+        items.exceptionHandler(e -> {
+            e.printStackTrace();
+            response.close();
+        });
+        items.endHandler(v -> {
+            if (!response.ended()) response.end();
+        });
+        items.handler(item -> {
+            final String contentType = contentType(item);
+            if (contentType != null && !response.headWritten() && ResponseEncoder.noContentType(response)) response.putHeader("Content-Type", contentType);
+            final Buffer chunk = encodeItem(item, encoder);
+            if (chunk != null && chunk.length() > 0) response.write(chunk);
+            if (response.writeQueueFull()) {
+                items.pause();
+                response.drainHandler(v -> items.resume());
+            }
+        });
+    }
+
+    private static final class IteratorReadStream implements ReadStream<Object> {
+
+        private final Iterator<Object> iterator;
+        private final Runnable close;
+        private Handler<Object> handler;
+        private Handler<Void> endHandler;
+        private Handler<Throwable> exceptionHandler;
+        private boolean paused;
+        private boolean emitting;
+        private boolean ended;
+
+        private IteratorReadStream(final Iterator<Object> iterator, final Runnable close) {
+            this.iterator = iterator;
+            this.close = close;
+        }
+
+        @Override
+        public ReadStream<Object> exceptionHandler(final Handler<Throwable> handler) {
+            this.exceptionHandler = handler;
+            return this;
+        }
+
+        @Override
+        public ReadStream<Object> handler(final Handler<Object> handler) {
+            this.handler = handler;
+            emit();
+            return this;
+        }
+
+        @Override
+        public ReadStream<Object> pause() {
+            paused = true;
+            return this;
+        }
+
+        @Override
+        public ReadStream<Object> resume() {
+            paused = false;
+            emit();
+            return this;
+        }
+
+        @Override
+        public ReadStream<Object> endHandler(final Handler<Void> endHandler) {
+            this.endHandler = endHandler;
+            return this;
+        }
+
+        /**
+         * Stops emitting and closes the source, the end and exception handlers are not called
+         */
+        private void cancel() {
+            if (ended) return;
+            paused = true;
+            ended = true;
+            close.run();
+        }
+
+        private void emit() {
+            if (emitting || ended || handler == null) return;
+            emitting = true;
+            try {
+                while (!paused && iterator.hasNext()) {
+                    handler.handle(iterator.next());
+                }
+                if (!paused) end(null);
+            } catch (RuntimeException e) {
+                end(e);
+            } finally {
+                emitting = false;
+            }
+        }
+
+        private void end(final Throwable failure) {
+            ended = true;
+            close.run();
+            if (failure != null && exceptionHandler != null) {
+                exceptionHandler.handle(failure);
+            } else if (failure == null && endHandler != null) {
+                endHandler.handle(null);
+            }
+        }
+    }}
@@ -0,0 +1,30 @@
+package org.jacpfx.vertx.services;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Access to virtual threads. This is the Java 8 variant without virtual threads, on Java 21 and newer the class is replaced by the multi-release variant
+ * in src/main/java21 (META-INF/versions/21).
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return true if the running JVM supports virtual threads
+     */
+    static boolean isAvailable() {
+        return false;
+    }
+
+    /**
+     * Creates an executor starting a virtual thread per task
+     *
+     * @param name the thread name prefix
+     * @return the executor
+     */
+    static ExecutorService newExecutor(final String name) {
+        throw new UnsupportedOperationException("virtual threads require Java 21");
+    }
+}
@@ -0,0 +1,30 @@
+package org.jacpfx.vertx.services;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to virtual threads. This is the Java 21 variant, packaged in META-INF/versions/21 of the multi-release jar.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return true if the running JVM supports virtual threads
+     */
+    static boolean isAvailable() {
+        return true;
+    }
+
+    /**
+     * Creates an executor starting a virtual thread per task
+     *
+     * @param name the thread name prefix
+     * @return the executor
+     */
+    static ExecutorService newExecutor(final String name) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 1).factory());
+    }
+}
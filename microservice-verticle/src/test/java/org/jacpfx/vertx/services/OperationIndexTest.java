@@ -0,0 +1,120 @@
+package org.jacpfx.vertx.services;
+
+import io.vertx.ext.web.RoutingContext;
+import org.jacpfx.common.Batch;
+import org.jacpfx.common.Blocking;
+import org.jacpfx.common.Cacheable;
+import org.jacpfx.common.Idempotent;
+import org.jacpfx.common.InFlightLimit;
+import org.jacpfx.common.OperationType;
+import org.jacpfx.common.RunOnVirtualThread;
+import org.jacpfx.common.Type;
+import org.junit.Test;
+
+import javax.ws.rs.ApplicationPath;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * The test sources are compiled with the OperationIndexProcessor, the service below is loaded from its generated index.
+ */
+public class OperationIndexTest {
+
+    @Test
+    public void testServiceIsIndexed() {
+        final List<OperationIndex.Entry> index = OperationIndex.load(IndexedService.class);
+        assertNotNull(index);
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    public void testIndexMatchesAnnotations() {
+        for (OperationIndex.Entry indexed : OperationIndex.load(IndexedService.class)) {
+            final OperationIndex.Entry scanned = OperationIndex.Entry.scan(indexed.method(), false);
+            assertEquals(scanned.path(), indexed.path());
+            assertEquals(scanned.type(), indexed.type());
+            assertArrayEquals(scanned.produces(), indexed.produces());
+            assertArrayEquals(scanned.consumes(), indexed.consumes());
+            assertArrayEquals(scanned.bindings(), indexed.bindings());
+            assertEquals(scanned.isBlocking(), indexed.isBlocking());
+            assertEquals(scanned.blockingPool(), indexed.blockingPool());
+            assertEquals(scanned.blockingSize(), indexed.blockingSize());
+            assertEquals(scanned.blockingQueue(), indexed.blockingQueue());
+            assertEquals(scanned.isVirtual(), indexed.isVirtual());
+            assertEquals(scanned.isCacheable(), indexed.isCacheable());
+            assertEquals(scanned.cacheTtl(), indexed.cacheTtl());
+            assertEquals(scanned.cacheMaxEntries(), indexed.cacheMaxEntries());
+            assertEquals(scanned.isIdempotent(), indexed.isIdempotent());
+            assertEquals(scanned.isBatch(), indexed.isBatch());
+            assertEquals(scanned.batchSize(), indexed.batchSize());
+            assertEquals(scanned.batchDelayMs(), indexed.batchDelayMs());
+            assertEquals(scanned.hasInFlightLimit(), indexed.hasInFlightLimit());
+            assertEquals(scanned.maxInFlight(), indexed.maxInFlight());
+            assertEquals(scanned.maxQueued(), indexed.maxQueued());
+        }
+    }
+
+    @Test
+    public void testResolvedMetadata() {
+        final Map<String, OperationIndex.Entry> index = OperationIndex.load(IndexedService.class).stream().
+                collect(Collectors.toMap(OperationIndex.Entry::path, Function.identity()));
+        final OperationIndex.Entry get = index.get("/get/:id");
+        assertArrayEquals(new String[]{"name", "id"}, get.bindings());
+        assertEquals(500, get.cacheTtl());
+        assertTrue(get.isIdempotent());
+        assertEquals(3, get.maxInFlight());
+        assertEquals(0, get.maxQueued());
+        final OperationIndex.Entry blocking = index.get("/blocking");
+        assertEquals("shared", blocking.blockingPool());
+        assertEquals(2, blocking.blockingSize());
+        assertArrayEquals(new String[]{null}, blocking.bindings());
+        assertFalse(blocking.isCacheable());
+        assertTrue(index.get("/virtual").isVirtual());
+        assertEquals(5, index.get("/batch").batchSize());
+        assertFalse(index.get("/batch").hasInFlightLimit());
+    }
+
+    @ApplicationPath("/indexed")
+    public static class IndexedService extends ServiceVerticle {
+
+        @Path("/get/:id")
+        @OperationType(Type.REST_GET)
+        @Produces("application/json")
+        @Cacheable(ttl = 500)
+        @Idempotent
+        @InFlightLimit(maxInFlight = 3)
+        public String get(@QueryParam("name") String name, @PathParam("id") int id) {
+            return name + id;
+        }
+
+        @Path("/blocking")
+        @OperationType(Type.REST_POST)
+        @Blocking(pool = "shared", size = 2)
+        public void blocking(RoutingContext context) {
+        }
+
+        @Path("/virtual")
+        @OperationType(Type.EVENTBUS)
+        @Consumes("application/json")
+        @RunOnVirtualThread
+        public String virtual(String[] values) {
+            return values[0];
+        }
+
+        @Path("/batch")
+        @OperationType(Type.EVENTBUS)
+        @Batch(maxSize = 5)
+        public List<String> batch(List<String> values) {
+            return values;
+        }
+    }
+}
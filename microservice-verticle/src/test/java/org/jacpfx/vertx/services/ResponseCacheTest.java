@@ -0,0 +1,41 @@
+package org.jacpfx.vertx.services;
+
+import io.vertx.core.json.JsonObject;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ResponseCacheTest {
+
+    @Test
+    public void testValueBodiesAreKeys() {
+        assertEquals(ResponseCache.key("hello"), ResponseCache.key(new String("hello")));
+        assertEquals(ResponseCache.key(42), ResponseCache.key(42));
+        assertEquals(ResponseCache.key(new JsonObject().put("a", 1)), ResponseCache.key(new JsonObject().put("a", 1)));
+        assertEquals(ResponseCache.key(null), ResponseCache.key(null));
+        assertNotNull(ResponseCache.key(null));
+    }
+
+    @Test
+    public void testByteArraysAreComparedByContent() {
+        assertEquals(ResponseCache.key(new byte[]{1, 2}), ResponseCache.key(new byte[]{1, 2}));
+        assertNotEquals(ResponseCache.key(new byte[]{1, 2}), ResponseCache.key(new byte[]{2, 1}));
+    }
+
+    @Test
+    public void testIdentityBodiesAreNotCached() {
+        assertNull(ResponseCache.key(new Object()));
+        assertNull(ResponseCache.key(new IdentityBody()));
+    }
+
+    @Test
+    public void testEntriesByKey() {
+        final ResponseCache cache = new ResponseCache(60000, 2);
+        cache.put(ResponseCache.key(new byte[]{1}), "one");
+        assertEquals("one", cache.get(ResponseCache.key(new byte[]{1})).reply());
+        assertNull(cache.get(ResponseCache.key(new byte[]{2})));
+    }
+
+    private static class IdentityBody {
+    }
+}
@@ -16,10 +16,11 @@ import org.jacpfx.common.constants.GlobalKeyHolder;
 import org.jacpfx.common.handler.RESTHandler;
 import org.jacpfx.common.handler.WSClusterHandler;
 import org.jacpfx.common.handler.WSLocalHandler;
+import org.jacpfx.common.spi.BinaryCodec;
 import org.jacpfx.common.util.CustomRouteMatcher;
+import org.jacpfx.common.util.EventBusCodecs;
 import org.jacpfx.common.util.WebSocketRepository;
 
-import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.function.Consumer;
@@ -42,7 +43,6 @@ public class ServiceEntryPoint extends AbstractVerticle {
 
     private final Set<String> registeredRoutes = new HashSet<>();
     private final WebSocketRepository repository = new WebSocketRepository();
-    private final ServiceInfoDecoder serviceInfoDecoder = new ServiceInfoDecoder();
     private final CustomRouteMatcher routeMatcher = new CustomRouteMatcher();
     private org.jacpfx.common.handler.WebSocketHandler wsHandler;
     private RESTHandler restHandler;
@@ -57,6 +57,7 @@ public class ServiceEntryPoint extends AbstractVerticle {
     private String mainURL;
     private boolean clustered;
     private boolean debug;
+    private BinaryCodec codec;
 
     private int defaultServiceTimeout;
 
@@ -69,28 +70,29 @@ public class ServiceEntryPoint extends AbstractVerticle {
     public void start(io.vertx.core.Future<Void> startFuture) throws Exception {
         log("START ServiceEntryPoint  THREAD: " + Thread.currentThread() + "  this:" + this);
         initConfiguration(getConfig());
+        final HttpServerOptions serverOptions = HttpServerProfile.createOptions(getConfig(), host, port);
+        Compression.configure(getConfig());
+        EventBusCodecs.registerDefaultCodecs(vertx.eventBus(), codec, getConfig().getInteger(Compression.THRESHOLD_CONFIG_KEY, Compression.DISABLED));
 
         if (clustered) {
-            wsHandler = new WSClusterHandler(this.vertx);
+            wsHandler = new WSClusterHandler(this.vertx, codec);
         } else {
-            wsHandler = new WSLocalHandler(this.vertx);
+            wsHandler = new WSLocalHandler(this.vertx, codec);
         }
 
         // TODO make it configureable if REST should be privided
-        restHandler = new RESTHandler(routeMatcher, defaultServiceTimeout, registeredRoutes);
-        //vertx.eventBus().registerDefaultCodec(ServiceInfo.class, serviceInfoDecoder);
-        //  vertx.eventBus().registerDefaultCodec(Parameter.class, parameterDecoder);
+        restHandler = new RESTHandler(routeMatcher, defaultServiceTimeout, registeredRoutes, new ResponseEncoder(getConfig(), JSONConverters.getConverter(getConfig().getString(JSONConverters.CONVERTER_CONFIG_KEY, JSONConverters.DEFAULT_CONVERTER))));
 
 
-        vertx.eventBus().consumer(wsReplyPath, (Handler<Message<byte[]>>) wsHandler::replyToWSCaller);
-        vertx.eventBus().consumer(wsReplyToAllPath, (Handler<Message<byte[]>>) wsHandler::replyToAllWS);
-        // TODO vertx.eventBus().consumer(wsReplyToAllButSenderPath, (Handler<Message<byte[]>>) wsHandler::replyToAllWS);
+        vertx.eventBus().consumer(wsReplyPath, (Handler<Message<WSMessageWrapper>>) wsHandler::replyToWSCaller);
+        vertx.eventBus().consumer(wsReplyToAllPath, (Handler<Message<WSMessageWrapper>>) wsHandler::replyToAllWS);
+        // TODO vertx.eventBus().consumer(wsReplyToAllButSenderPath, (Handler<Message<WSMessageWrapper>>) wsHandler::replyToAllWS);
         vertx.eventBus().consumer(serviceRegisterPath, this::serviceRegisterHandler);
         vertx.eventBus().consumer(serviceUnRegisterPath, this::serviceUnRegisterHandler);
 
         deployRegistry();
 
-        initHTTPConnector();
+        initHTTPConnector(serverOptions);
 
         startFuture.complete();
     }
@@ -104,9 +106,8 @@ public class ServiceEntryPoint extends AbstractVerticle {
     /**
      * start the server, attach the route matcher
      */
-    private void initHTTPConnector() {
-        HttpServer server = vertx.createHttpServer(new HttpServerOptions().setHost(host)
-                .setPort(port));
+    private void initHTTPConnector(final HttpServerOptions serverOptions) {
+        HttpServer server = vertx.createHttpServer(serverOptions);
         registerWebSocketHandler(server);
         // TODO provide a WebSocket and a EventBus access to ServiceInfo ... this must be routed through the Router to enrich the service info with metadata from the router
         routeMatcher.matchMethod(HttpMethod.GET, serviceInfoPath, request -> fetchRegitryAndUpdateMetadata((serviceInfo -> {
@@ -141,6 +142,7 @@ public class ServiceEntryPoint extends AbstractVerticle {
         defaultServiceTimeout = config.getInteger("defaultServiceTimeout", GlobalKeyHolder.DEFAULT_SERVICE_TIMEOUT);
         mainURL = host.concat(":").concat(Integer.valueOf(port).toString());
         debug = config.getBoolean("debug",false);
+        codec = Serializer.getCodec(config.getString(Serializer.CODEC_CONFIG_KEY, Serializer.DEFAULT_CODEC));
     }
 
     /**
@@ -175,7 +177,7 @@ public class ServiceEntryPoint extends AbstractVerticle {
                         // defaultServiceTimeout =   operation.getInteger("timeout");
                         if (!registeredRoutes.contains(url)) {
                             registeredRoutes.add(url);
-                            handleServiceType(eventBus, type, url, mimes);
+                            handleServiceType(eventBus, type, url, mimes, operation.getMaxInFlight(), operation.getMaxQueued(), operation.isIdempotent());
                         }
                     }
             );
@@ -183,38 +185,21 @@ public class ServiceEntryPoint extends AbstractVerticle {
 
     }
 
-    private void handleServiceType(EventBus eventBus, String type, String url, String[] mimes) {
-        switch (Type.valueOf(type)) {
-            case REST_GET:
-                restHandler.handleRESTGetRegistration(eventBus, url, mimes);
-                break;
-            case REST_POST:
-                restHandler.handleRESTPostRegistration(eventBus, url, mimes);
-                break;
-            case EVENTBUS:
-                break;
-            case WEBSOCKET:
-                break;
-            default:
-
-
+    private void handleServiceType(EventBus eventBus, String type, String url, String[] mimes, int maxInFlight, int maxQueued, boolean idempotent) {
+        final HttpMethod method = Type.valueOf(type).httpMethod();
+        if (method != null) {
+            restHandler.handleRESTRegistration(method, eventBus, url, mimes, maxInFlight, maxQueued, idempotent);
         }
     }
 
 
     private void fetchRegitryAndUpdateMetadata(final Consumer<JsonObject> request) {
-        vertx.eventBus().send(GlobalKeyHolder.SERVICE_REGISTRY_GET, "xyz", (AsyncResultHandler<Message<byte[]>>) serviceInfo ->
+        vertx.eventBus().send(GlobalKeyHolder.SERVICE_REGISTRY_GET, "xyz", (AsyncResultHandler<Message<ServiceInfoHolder>>) serviceInfo ->
                 {
                     // TODO move this to static factory
                     // TODO add TTL cache
                     // TODO this should work but it didn't vertx.executeBlocking((Handler<Future<JsonObject>> )future->buildServiceInfoForEntryPoint(serviceInfo),(updatedServiceInfo->request.accept(updatedServiceInfo.result())));
-                    byte[] infoBytes = serviceInfo.result().body();
-                    ServiceInfoHolder holder = null;
-                    try {
-                        holder = (ServiceInfoHolder) Serializer.deserialize(infoBytes);
-                    } catch (IOException | ClassNotFoundException e) {
-                        e.printStackTrace();
-                    }
+                    final ServiceInfoHolder holder = serviceInfo.succeeded() ? serviceInfo.result().body() : null;
                     if(holder!=null)request.accept(holder.getServiceInfo());
 
                 }
@@ -0,0 +1,145 @@
+package org.jacpfx.benchmark;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonObject;
+import org.jacpfx.common.Blocking;
+import org.jacpfx.common.OperationType;
+import org.jacpfx.common.RunOnVirtualThread;
+import org.jacpfx.common.Type;
+import org.jacpfx.vertx.services.ServiceVerticle;
+
+import javax.ws.rs.ApplicationPath;
+import javax.ws.rs.Path;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the execution modes of a service operation with a blocking downstream call of {@value #LATENCY} ms: event loop (the call is made
+ * asynchronous with a timer), @Blocking on a worker bulkhead and @RunOnVirtualThread. Not a unit test, run it with
+ * <pre>mvn -pl service-router test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.jacpfx.benchmark.ExecutionModeBenchmark</pre>
+ * Arguments: number of requests (default 2000) and concurrent requests (default 200). Virtual threads need Java 21, on older JVMs the virtual mode
+ * runs on the worker bulkhead fallback, the reported mode tells which one was measured.
+ */
+public class ExecutionModeBenchmark {
+
+    static final String SERVICE = "/benchmark";
+    static final int LATENCY = 10;
+    static final int WORKERS = 64;
+
+    public static void main(String[] args) throws Exception {
+        final int requests = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        final int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        final Vertx vertx = Vertx.vertx();
+        try {
+            final CountDownLatch deployed = new CountDownLatch(1);
+            vertx.deployVerticle(new BenchmarkService(), new DeploymentOptions().setConfig(new JsonObject().put("clustered", false)), result -> {
+                if (result.failed()) result.cause().printStackTrace();
+                deployed.countDown();
+            });
+            deployed.await();
+            System.out.println("java " + System.getProperty("java.version") + ", " + requests + " requests, " + concurrency + " concurrent, " + LATENCY + " ms downstream latency");
+            for (String operation : Arrays.asList("/eventLoop", "/worker", "/virtual")) {
+                run(vertx, operation, concurrency, concurrency);
+                run(vertx, operation, requests, concurrency).print(operation, mode(vertx, operation));
+            }
+        } finally {
+            vertx.close();
+        }
+    }
+
+    private static Result run(Vertx vertx, String operation, int requests, int concurrency) throws InterruptedException {
+        final Result result = new Result(requests);
+        final CountDownLatch done = new CountDownLatch(requests);
+        final AtomicInteger sent = new AtomicInteger();
+        final long start = System.nanoTime();
+        vertx.runOnContext(v -> {
+            for (int i = 0; i < concurrency && i < requests; i++) {
+                send(vertx, operation, requests, sent, result, done);
+            }
+        });
+        done.await(5, TimeUnit.MINUTES);
+        result.nanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private static void send(Vertx vertx, String operation, int requests, AtomicInteger sent, Result result, CountDownLatch done) {
+        final int request = sent.getAndIncrement();
+        if (request >= requests) return;
+        final long start = System.nanoTime();
+        vertx.eventBus().send(SERVICE + operation, "request", new DeliveryOptions().setSendTimeout(60000), (AsyncResult<Message<Object>> reply) -> {
+            result.latencies[request] = System.nanoTime() - start;
+            if (reply.failed()) result.failed.incrementAndGet();
+            done.countDown();
+            send(vertx, operation, requests, sent, result, done);
+        });
+    }
+
+    private static String mode(Vertx vertx, String operation) throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final String[] mode = {"event loop"};
+        vertx.eventBus().<JsonObject>send(SERVICE + "-bulkheads", null, reply -> {
+            if (reply.succeeded() && reply.result().body().getJsonObject(SERVICE + operation) != null) {
+                mode[0] = reply.result().body().getJsonObject(SERVICE + operation).getString("mode");
+            }
+            latch.countDown();
+        });
+        latch.await(5, TimeUnit.SECONDS);
+        return mode[0];
+    }
+
+    private static final class Result {
+        private final long[] latencies;
+        private final AtomicInteger failed = new AtomicInteger();
+        private long nanos;
+
+        private Result(int requests) {
+            this.latencies = new long[requests];
+        }
+
+        private void print(String operation, String mode) {
+            final long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            System.out.printf("%-11s %-10s %8.0f req/s  p50 %6.1f ms  p99 %6.1f ms  failed %d%n", operation, mode,
+                    latencies.length / (nanos / 1e9), percentile(sorted, 50), percentile(sorted, 99), failed.get());
+        }
+
+        private static double percentile(long[] sorted, int percentile) {
+            return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)] / 1e6;
+        }
+    }
+
+    @ApplicationPath(SERVICE)
+    public static class BenchmarkService extends ServiceVerticle {
+
+        @Path("/eventLoop")
+        @OperationType(Type.EVENTBUS)
+        public CompletableFuture<String> eventLoop(String request) {
+            final CompletableFuture<String> result = new CompletableFuture<>();
+            vertx.setTimer(LATENCY, id -> result.complete(request));
+            return result;
+        }
+
+        @Path("/worker")
+        @OperationType(Type.EVENTBUS)
+        @Blocking(size = WORKERS, queue = 1024)
+        public String worker(String request) throws InterruptedException {
+            Thread.sleep(LATENCY);
+            return request;
+        }
+
+        @Path("/virtual")
+        @OperationType(Type.EVENTBUS)
+        @RunOnVirtualThread
+        public String virtual(String request) throws InterruptedException {
+            Thread.sleep(LATENCY);
+            return request;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package org.jacpfx.integration;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.spi.cluster.ClusterManager;
+import io.vertx.test.core.VertxTestBase;
+import io.vertx.test.fakecluster.FakeClusterManager;
+import org.jacpfx.common.*;
+import org.jacpfx.common.spi.ClassIdCodec;
+import org.jacpfx.common.spi.JavaSerializationCodec;
+import org.jacpfx.common.util.EventBusCodecs;
+import org.jacpfx.vertx.services.ServiceVerticle;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.ws.rs.ApplicationPath;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Path;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Tests two service verticles with different binary codec and compression settings sharing one event bus, replies are sent over the wire to a second node
+ */
+public class EventBusCodecsTest extends VertxTestBase {
+    public static final String COMPRESSED_SERVICE = "/compressedService";
+    public static final String JAVA_SERVICE = "/javaService";
+    public static final String HOST = "localhost";
+    private static final String REPLY = new String(new char[4096]).replace('\0', 'x');
+
+    protected int getNumNodes() {
+        return 2;
+    }
+
+    protected Vertx getVertx() {
+        return vertices[0];
+    }
+
+    protected Vertx getClientVertx() {
+        return vertices[1];
+    }
+
+    @Override
+    protected ClusterManager getClusterManager() {
+        return new FakeClusterManager();
+    }
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        startNodes(getNumNodes());
+        // the client node decodes the replies like a router node
+        EventBusCodecs.registerDefaultCodecs(getClientVertx().eventBus());
+
+    }
+
+    @Before
+    public void startVerticles() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        CountDownLatch latch2 = new CountDownLatch(2);
+        DeploymentOptions options = new DeploymentOptions().setInstances(1);
+        options.setConfig(new JsonObject().put("host", HOST));
+        getVertx().deployVerticle("org.jacpfx.vertx.entrypoint.ServiceEntryPoint", options, asyncResult -> {
+            assertTrue(asyncResult.succeeded());
+            latch.countDown();
+        });
+        awaitLatch(latch);
+        final DeploymentOptions compressed = new DeploymentOptions().setConfig(new JsonObject().put("host", HOST).
+                put(Compression.THRESHOLD_CONFIG_KEY, 64).
+                put(Serializer.CODEC_CONFIG_KEY, ClassIdCodec.NAME));
+        getVertx().deployVerticle(new CompressedService(), compressed, asyncResult -> {
+            assertTrue(asyncResult.succeeded());
+            latch2.countDown();
+        });
+        final DeploymentOptions java = new DeploymentOptions().setConfig(new JsonObject().put("host", HOST).
+                put(Serializer.CODEC_CONFIG_KEY, JavaSerializationCodec.NAME));
+        getVertx().deployVerticle(new JavaService(), java, asyncResult -> {
+            assertTrue(asyncResult.succeeded());
+            latch2.countDown();
+        });
+        awaitLatch(latch2);
+    }
+
+    @Test
+    public void testCompressedReply() throws InterruptedException {
+        final String url = COMPRESSED_SERVICE.concat("/testReply");
+        getClientVertx().eventBus().send(url, "hello".getBytes(), (Handler<AsyncResult<Message<byte[]>>>) reply -> {
+            assertTrue(reply.succeeded());
+            final byte[] payload = reply.result().body();
+            assertEquals(ClassIdCodec.ID, payload[0]);
+            assertEquals(REPLY, deserialize(payload));
+            final JsonObject statistics = Compression.statistics().getJsonObject(url);
+            assertNotNull(statistics);
+            assertTrue(statistics.getLong("compressedBytes") < statistics.getLong("rawBytes"));
+            testComplete();
+        });
+
+        await();
+
+    }
+
+    @Test
+    public void testUncompressedReply() throws InterruptedException {
+        final String url = JAVA_SERVICE.concat("/testReply");
+        getClientVertx().eventBus().send(url, "hello".getBytes(), (Handler<AsyncResult<Message<byte[]>>>) reply -> {
+            assertTrue(reply.succeeded());
+            final byte[] payload = reply.result().body();
+            assertEquals(JavaSerializationCodec.ID, payload[0]);
+            assertEquals(REPLY, deserialize(payload));
+            assertNull(Compression.statistics().getJsonObject(url));
+            testComplete();
+        });
+
+        await();
+
+    }
+
+    private static Object deserialize(final byte[] payload) {
+        try {
+            return Serializer.deserialize(payload);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @ApplicationPath(COMPRESSED_SERVICE)
+    public class CompressedService extends ServiceVerticle {
+
+        @Path("/testReply")
+        @OperationType(Type.EVENTBUS)
+        @Consumes("application/octet-stream")
+        public void testReply(String name, EBMessageReply reply) {
+            reply.reply(REPLY);
+        }
+    }
+
+    @ApplicationPath(JAVA_SERVICE)
+    public class JavaService extends ServiceVerticle {
+
+        @Path("/testReply")
+        @OperationType(Type.EVENTBUS)
+        @Consumes("application/octet-stream")
+        public void testReply(String name, EBMessageReply reply) {
+            reply.reply(REPLY);
+        }
+    }
+}
@@ -2,14 +2,18 @@ package org.jacpfx.integration;
 
 import com.google.gson.Gson;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
 import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.ReplyException;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.spi.cluster.ClusterManager;
+import io.vertx.ext.web.RoutingContext;
 import io.vertx.test.core.VertxTestBase;
 import io.vertx.test.fakecluster.FakeClusterManager;
 import org.jacpfx.common.*;
@@ -22,9 +26,20 @@ import org.junit.Test;
 
 import javax.ws.rs.ApplicationPath;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.FormParam;
 import javax.ws.rs.Path;
+import javax.ws.rs.QueryParam;
 import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Tests serialisation of message bodies in WebSocket implementation
@@ -34,6 +49,7 @@ public class EventBusServicesTest extends VertxTestBase {
     private final static int MAX_RESPONSE_ELEMENTS = 4;
     public static final String SERVICE_REST_GET = "/wsService";
     public static final String HOST = "localhost";
+    private static volatile CountDownLatch streamClosed = new CountDownLatch(1);
 
     protected int getNumNodes() {
         return 1;
@@ -179,7 +195,8 @@ public class EventBusServicesTest extends VertxTestBase {
 
     @Test
     public void testComplexBinary() throws InterruptedException, IOException {
-        byte[] tmp = Serializer.serialize(new PersonOne("AAA", "BBBB"));
+        // the operation publishes the schema of PersonOne
+        byte[] tmp = BinarySchema.register(PersonOne.class).get().encode(new PersonOne("AAA", "BBBB"));
 
         getVertx().eventBus().send(SERVICE_REST_GET.concat("/testComplexBinary"), tmp, (Handler<AsyncResult<Message<byte[]>>>)messageAsyncResult -> {
             assertTrue(messageAsyncResult.succeeded());
@@ -200,9 +217,509 @@ public class EventBusServicesTest extends VertxTestBase {
     }
 
 
+    @Test
+    public void testAsyncCompletableFuture() throws InterruptedException {
+
+        getVertx().eventBus().send(SERVICE_REST_GET.concat("/testAsyncCompletableFuture"), "hello", messageAsyncResult -> {
+            assertTrue(messageAsyncResult.succeeded());
+            assertEquals("hello-async", messageAsyncResult.result().body());
+            testComplete();
+        });
+
+        await();
+
+    }
+
+    @Test
+    public void testAsyncVertxFuture() throws InterruptedException {
+
+        getVertx().eventBus().send(SERVICE_REST_GET.concat("/testAsyncVertxFuture"), "hello", messageAsyncResult -> {
+            assertTrue(messageAsyncResult.succeeded());
+            assertEquals("hello-timer", messageAsyncResult.result().body());
+            testComplete();
+        });
+
+        await();
+
+    }
+
+    @Test
+    public void testAsyncCallback() throws InterruptedException {
+
+        getVertx().eventBus().send(SERVICE_REST_GET.concat("/testAsyncCallback"), "hello", messageAsyncResult -> {
+            assertTrue(messageAsyncResult.succeeded());
+            assertEquals("hello-callback", messageAsyncResult.result().body());
+            testComplete();
+        });
+
+        await();
+
+    }
+
+    @Test
+    public void testAsyncRESTGet() throws InterruptedException {
+        final ParameterMap<String> params = new ParameterMap<>();
+        params.add("name", "hello");
+
+        getVertx().eventBus().send(SERVICE_REST_GET.concat("/testAsyncRESTGet"), new Parameter<>(params), messageAsyncResult -> {
+            assertTrue(messageAsyncResult.succeeded());
+            assertEquals("hello", messageAsyncResult.result().body());
+            testComplete();
+        });
+
+        await();
+
+    }
+
+    @Test
+    public void testAsyncRESTGetFailure() throws InterruptedException {
+
+        getVertx().eventBus().send(SERVICE_REST_GET.concat("/testAsyncRESTGetFailure"), new Parameter<>(new ParameterMap<String>()), messageAsyncResult -> {
+            assertTrue(messageAsyncResult.failed());
+            assertEquals(500, ((ReplyException) messageAsyncResult.cause()).failureCode());
+            assertEquals("not available", messageAsyncResult.cause().getMessage());
+            testComplete();
+        });
+
+        await();
+
+    }
+
+
+    @Test
+    public void testRESTGetFailure() throws InterruptedException {
+
+        getVertx().eventBus().send(SERVICE_REST_GET.concat("/testRESTGetFailure"), new Parameter<>(new ParameterMap<String>()), messageAsyncResult -> {
+            assertTrue(messageAsyncResult.failed());
+            assertEquals(500, ((ReplyException) messageAsyncResult.cause()).failureCode());
+            assertEquals("not available", messageAsyncResult.cause().getMessage());
+            testComplete();
+        });
+
+        await();
+
+    }
+
+    @Test
+    public void testEventBusFailure() throws InterruptedException {
+
+        getVertx().eventBus().send(SERVICE_REST_GET.concat("/testEventBusFailure"), "hello", messageAsyncResult -> {
+            assertTrue(messageAsyncResult.failed());
+            assertEquals(500, ((ReplyException) messageAsyncResult.cause()).failureCode());
+            assertEquals("not available", messageAsyncResult.cause().getMessage());
+            testComplete();
+        });
+
+        await();
+
+    }
+
+    @Test
+    public void testBlockingOperation() throws InterruptedException {
+
+        getVertx().eventBus().send(SERVICE_REST_GET.concat("/testBlocking"), "hello", messageAsyncResult -> {
+            assertTrue(messageAsyncResult.succeeded());
+            assertTrue(String.valueOf(messageAsyncResult.result().body()).startsWith("hello:bulkhead-" + SERVICE_REST_GET.concat("/testBlocking")));
+            testComplete();
+        });
+
+        await();
+
+    }
+
+    @Test
+    public void testBlockingRejected() throws InterruptedException {
+        final CountDownLatch replies = new CountDownLatch(3);
+        final AtomicInteger rejected = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            getVertx().eventBus().send(SERVICE_REST_GET.concat("/testBlockingSlow"), "hello", messageAsyncResult -> {
+                if (messageAsyncResult.failed() && ((ReplyException) messageAsyncResult.cause()).failureCode() == 503) {
+                    rejected.incrementAndGet();
+                }
+                replies.countDown();
+            });
+        }
+        awaitLatch(replies);
+        assertEquals(1, rejected.get());
+
+        getVertx().eventBus().send(SERVICE_REST_GET.concat("-bulkheads"), "", messageAsyncResult -> {
+            assertTrue(messageAsyncResult.succeeded());
+            final JsonObject statistics = ((JsonObject) messageAsyncResult.result().body()).getJsonObject("slow");
+            assertEquals(1L, statistics.getLong("rejected").longValue());
+            assertEquals(2L, statistics.getLong("completed").longValue());
+            assertEquals(1, statistics.getInteger("queueCapacity").intValue());
+            testComplete();
+        });
+
+        await();
+
+    }
+
+
+    @Test
+    public void testVirtualThreadOperation() throws InterruptedException {
+
+        getVertx().eventBus().send(SERVICE_REST_GET.concat("/testVirtualThread"), "hello", messageAsyncResult -> {
+            assertTrue(messageAsyncResult.succeeded());
+            assertEquals("hello:false", messageAsyncResult.result().body());
+            testComplete();
+        });
+
+        await();
+
+    }
+
+    @Test
+    public void testInFlightLimit() throws InterruptedException {
+        final CountDownLatch replies = new CountDownLatch(3);
+        final AtomicInteger overloaded = new AtomicInteger();
+        final AtomicInteger completed = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            getVertx().eventBus().send(SERVICE_REST_GET.concat("/testInFlightLimit"), "hello", messageAsyncResult -> {
+                if (messageAsyncResult.succeeded()) {
+                    completed.incrementAndGet();
+                } else if (((ReplyException) messageAsyncResult.cause()).failureCode() == GlobalKeyHolder.OVERLOADED) {
+                    overloaded.incrementAndGet();
+                }
+                replies.countDown();
+            });
+        }
+        awaitLatch(replies);
+        assertEquals(1, overloaded.get());
+        assertEquals(2, completed.get());
+
+    }
+
+    @Test
+    public void testBatchMaxSize() throws InterruptedException {
+        final CountDownLatch replies = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            final String name = "hello" + i;
+            getVertx().eventBus().send(SERVICE_REST_GET.concat("/testBatch"), name, messageAsyncResult -> {
+                assertTrue(messageAsyncResult.succeeded());
+                assertEquals(name + ":3", messageAsyncResult.result().body());
+                replies.countDown();
+            });
+        }
+        awaitLatch(replies);
+
+    }
+
+    @Test
+    public void testBatchMissingResult() throws InterruptedException {
+        final CountDownLatch replies = new CountDownLatch(2);
+        final AtomicInteger failed = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            getVertx().eventBus().send(SERVICE_REST_GET.concat("/testBatchShort"), "hello" + i, messageAsyncResult -> {
+                if (messageAsyncResult.failed()) {
+                    assertEquals(500, ((ReplyException) messageAsyncResult.cause()).failureCode());
+                    failed.incrementAndGet();
+                } else {
+                    assertEquals("hello0", messageAsyncResult.result().body());
+                }
+                replies.countDown();
+            });
+        }
+        awaitLatch(replies);
+        assertEquals(1, failed.get());
+
+    }
+
+    @Test
+    public void testBatchDecodeFailure() throws InterruptedException {
+
+        getVertx().eventBus().send(SERVICE_REST_GET.concat("/testBatchJSON"), "{not json", messageAsyncResult -> {
+            assertTrue(messageAsyncResult.failed());
+            assertEquals(500, ((ReplyException) messageAsyncResult.cause()).failureCode());
+            testComplete();
+        });
+
+        await();
+
+    }
+
+    @Test
+    public void testBatchMaxDelay() throws InterruptedException {
+
+        getVertx().eventBus().send(SERVICE_REST_GET.concat("/testBatchReply"), "hello", messageAsyncResult -> {
+            assertTrue(messageAsyncResult.succeeded());
+            assertEquals("hello:1", messageAsyncResult.result().body());
+            testComplete();
+        });
+
+        await();
+
+    }
+
+    @Test
+    public void testStreamRESTGet() throws InterruptedException {
+        final String expected = IntStream.range(0, 2000).mapToObj(i -> "line" + i + "\n").collect(Collectors.joining());
+        getClient().getNow(8080, HOST, SERVICE_REST_GET.concat("/testStream?count=2000"), response -> {
+            assertEquals(200, response.statusCode());
+            assertEquals("chunked", response.getHeader("transfer-encoding"));
+            response.bodyHandler(body -> {
+                assertEquals(expected, body.toString());
+                testComplete();
+            });
+        });
+
+        await();
+
+    }
+
+    @Test
+    public void testComplexBinaryWithoutSchema() throws InterruptedException, IOException {
+        byte[] tmp = Serializer.serialize(new PersonOne("AAA", "BBBB"));
+
+        getVertx().eventBus().send(SERVICE_REST_GET.concat("/testComplexBinary"), tmp, messageAsyncResult -> {
+            assertTrue(messageAsyncResult.failed());
+            testComplete();
+        });
+
+        await();
+
+    }
+
+    @Test
+    public void testStreamJSONRESTGet() throws InterruptedException {
+        getClient().getNow(8080, HOST, SERVICE_REST_GET.concat("/testStreamJSON?count=500"), response -> {
+            assertEquals(200, response.statusCode());
+            assertEquals("application/x-ndjson", response.getHeader("content-type"));
+            response.bodyHandler(body -> {
+                final String[] lines = body.toString().split("\n");
+                assertEquals(500, lines.length);
+                final Gson gson = new Gson();
+                for (int i = 0; i < lines.length; i++) {
+                    assertEquals("name" + i, gson.fromJson(lines[i], PersonOne.class).getName());
+                }
+                testComplete();
+            });
+        });
+
+        await();
+
+    }
+
+    @Test
+    public void testStreamKeepsInFlightSlot() throws InterruptedException {
+        final String url = SERVICE_REST_GET.concat("/testLimitedStream");
+        getClient().getNow(8080, HOST, url, first -> {
+            assertEquals(200, first.statusCode());
+            first.pause();
+            getClient().getNow(8080, HOST, url, second -> {
+                // the first stream is still open
+                assertEquals(503, second.statusCode());
+                first.netSocket().close();
+                getVertx().setTimer(500, id -> getClient().getNow(8080, HOST, url, third -> {
+                    assertEquals(200, third.statusCode());
+                    third.netSocket().close();
+                    testComplete();
+                }));
+            });
+        });
+
+        await();
+
+    }
+
+    @Test
+    public void testStreamClosedOnFailedAck() throws InterruptedException {
+        final CountDownLatch closed = new CountDownLatch(1);
+        streamClosed = closed;
+        getVertx().eventBus().send(SERVICE_REST_GET.concat("/testEndlessStream"), new Parameter<>(new ParameterMap<String>()), (AsyncResult<Message<Object>> first) -> {
+            assertTrue(first.succeeded());
+            assertEquals(GlobalKeyHolder.CHUNK, first.result().headers().get(GlobalKeyHolder.CHUNKED));
+            // the router gives up on the stream
+            first.result().fail(500, "client gone");
+        });
+        awaitLatch(closed);
+
+    }
+
+    @Test
+    public void testRESTPut() throws InterruptedException {
+        getClient().put(8080, HOST, SERVICE_REST_GET.concat("/testRESTPut?id=7"), response -> {
+            assertEquals(200, response.statusCode());
+            response.bodyHandler(body -> {
+                assertEquals("7:hello", body.toString());
+                testComplete();
+            });
+        }).putHeader("content-type", "application/x-www-form-urlencoded").end("name=hello");
+
+        await();
+
+    }
+
+    @Test
+    public void testCacheableRESTGet() throws InterruptedException {
+        final String url = SERVICE_REST_GET.concat("/testCacheable?name=hello");
+        getClient().getNow(8080, HOST, url, first -> first.bodyHandler(firstBody -> {
+            final String etag = first.getHeader("ETag");
+            assertNotNull(etag);
+            assertEquals("hello:1", firstBody.toString());
+            getClient().getNow(8080, HOST, url, second -> second.bodyHandler(secondBody -> {
+                assertEquals(etag, second.getHeader("ETag"));
+                assertEquals("hello:1", secondBody.toString());
+                getClient().get(8080, HOST, url, notModified -> {
+                    assertEquals(304, notModified.statusCode());
+                    testComplete();
+                }).putHeader("If-None-Match", etag).end();
+            }));
+        }));
+
+        await();
+
+    }
+
+    @Test
+    public void testCacheableRequestContextRejected() throws InterruptedException {
+        getVertx().deployVerticle(new CacheableContextService(), new DeploymentOptions().setConfig(new JsonObject().put("host", HOST)), asyncResult -> {
+            assertTrue(asyncResult.failed());
+            assertTrue(asyncResult.cause() instanceof IllegalArgumentException);
+            assertTrue(asyncResult.cause().getMessage().contains("RoutingContext"));
+            testComplete();
+        });
+
+        await();
+
+    }
+
+    @Test
+    public void testIdempotentRequestContextRejected() throws InterruptedException {
+        getVertx().deployVerticle(new IdempotentContextService(), new DeploymentOptions().setConfig(new JsonObject().put("host", HOST)), asyncResult -> {
+            assertTrue(asyncResult.failed());
+            assertTrue(asyncResult.cause() instanceof IllegalArgumentException);
+            assertTrue(asyncResult.cause().getMessage().contains("Message"));
+            testComplete();
+        });
+
+        await();
+
+    }
+
+    @Test
+    public void testCacheableEventBus() throws InterruptedException {
+        final String url = SERVICE_REST_GET.concat("/testCacheableEventBus");
+        getVertx().eventBus().send(url, "hello", first -> {
+            assertEquals("hello:1", first.result().body());
+            getVertx().eventBus().send(url, "hello", second -> {
+                assertEquals("hello:1", second.result().body());
+                getVertx().eventBus().send(SERVICE_REST_GET.concat("-caches"), "", messageAsyncResult -> {
+                    final JsonObject statistics = ((JsonObject) messageAsyncResult.result().body()).getJsonObject(url);
+                    assertEquals(1L, statistics.getLong("hits").longValue());
+                    assertEquals(1L, statistics.getLong("misses").longValue());
+                    assertEquals(1, statistics.getInteger("size").intValue());
+                    testComplete();
+                });
+            });
+        });
+
+        await();
+
+    }
+
+    @Test
+    public void testIdempotentRESTGet() throws InterruptedException {
+        final CountDownLatch replies = new CountDownLatch(4);
+        final Set<String> bodies = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 4; i++) {
+            getClient().getNow(8080, HOST, SERVICE_REST_GET.concat("/testIdempotent?name=hello"), response -> response.bodyHandler(body -> {
+                assertEquals(200, response.statusCode());
+                bodies.add(body.toString());
+                replies.countDown();
+            }));
+        }
+        awaitLatch(replies);
+        assertEquals(1, bodies.size());
+        assertEquals("hello:1", bodies.iterator().next());
+
+    }
+
+    @Test
+    public void testIdempotentEventBus() throws InterruptedException {
+        final CountDownLatch replies = new CountDownLatch(3);
+        final Set<Object> bodies = ConcurrentHashMap.newKeySet();
+        final ParameterMap<String> params = new ParameterMap<>();
+        params.add("name", "hello");
+        for (int i = 0; i < 3; i++) {
+            getVertx().eventBus().send(SERVICE_REST_GET.concat("/testIdempotent"), new Parameter<>(params), messageAsyncResult -> {
+                assertTrue(messageAsyncResult.succeeded());
+                bodies.add(messageAsyncResult.result().body());
+                replies.countDown();
+            });
+        }
+        awaitLatch(replies);
+        assertEquals(1, bodies.size());
+        assertEquals("hello:1", bodies.iterator().next());
+
+    }
+
+    @Test
+    public void testRESTGetEncodingFailure() throws InterruptedException {
+
+        getVertx().eventBus().send(SERVICE_REST_GET.concat("/testEncodingFailure"), new Parameter<>(new ParameterMap<String>()), messageAsyncResult -> {
+            assertTrue(messageAsyncResult.failed());
+            assertEquals(500, ((ReplyException) messageAsyncResult.cause()).failureCode());
+            testComplete();
+        });
+
+        await();
+
+    }
+
+    @Test
+    public void testIdempotentEncodingFailure() throws InterruptedException {
+        final CountDownLatch replies = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            getVertx().eventBus().send(SERVICE_REST_GET.concat("/testIdempotentEncodingFailure"), new Parameter<>(new ParameterMap<String>()), messageAsyncResult -> {
+                assertTrue(messageAsyncResult.failed());
+                assertEquals(500, ((ReplyException) messageAsyncResult.cause()).failureCode());
+                replies.countDown();
+            });
+        }
+        awaitLatch(replies);
+
+    }
+
+    /**
+     * A result Gson can not encode, it refuses to serialize Class values
+     */
+    public static class Unencodable {
+        private final Class<?> type = String.class;
+    }
+
+    /**
+     * Its reply depends on request headers the cache key does not see
+     */
+    @ApplicationPath("/cacheableContext")
+    public static class CacheableContextService extends ServiceVerticle {
+
+        @Path("/greeting")
+        @OperationType(Type.REST_GET)
+        @Cacheable
+        public String greeting(RoutingContext context) {
+            return "hello " + context.request().getHeader("Accept-Language");
+        }
+    }
+
+    @ApplicationPath("/idempotentContext")
+    public static class IdempotentContextService extends ServiceVerticle {
+
+        @Path("/greeting")
+        @OperationType(Type.REST_GET)
+        @Idempotent
+        public String greeting(Message<Parameter<String>> message) {
+            return "hello " + message.headers().get("name");
+        }
+    }
+
     @ApplicationPath(SERVICE_REST_GET)
     public class WsServiceOne extends ServiceVerticle {
 
+        private final AtomicInteger cacheableInvocations = new AtomicInteger();
+        private final AtomicInteger cacheableEventBusInvocations = new AtomicInteger();
+        private final AtomicInteger idempotentInvocations = new AtomicInteger();
+
         @Path("/testSimpleString")
         @OperationType(Type.EVENTBUS)
         public void testSimpleString(String name, EBMessageReply reply) {
@@ -250,6 +767,186 @@ public class EventBusServicesTest extends VertxTestBase {
             reply.reply(new PersonOne("AAA", "BBBB"));
         }
 
+        @Path("/testAsyncCompletableFuture")
+        @OperationType(Type.EVENTBUS)
+        public CompletableFuture<String> testAsyncCompletableFuture(String name) {
+            return CompletableFuture.supplyAsync(() -> name + "-async");
+        }
+
+        @Path("/testAsyncVertxFuture")
+        @OperationType(Type.EVENTBUS)
+        public Future<String> testAsyncVertxFuture(String name) {
+            final Future<String> future = Future.future();
+            vertx.setTimer(10, id -> future.complete(name + "-timer"));
+            return future;
+        }
+
+        @Path("/testAsyncCallback")
+        @OperationType(Type.EVENTBUS)
+        public Consumer<Handler<AsyncResult<String>>> testAsyncCallback(String name) {
+            return callback -> vertx.runOnContext(v -> callback.handle(Future.succeededFuture(name + "-callback")));
+        }
+
+        @Path("/testAsyncRESTGet")
+        @OperationType(Type.REST_GET)
+        public CompletableFuture<String> testAsyncRESTGet(@QueryParam("name") String name) {
+            return CompletableFuture.supplyAsync(() -> name);
+        }
+
+        @Path("/testAsyncRESTGetFailure")
+        @OperationType(Type.REST_GET)
+        public CompletableFuture<String> testAsyncRESTGetFailure() {
+            final CompletableFuture<String> result = new CompletableFuture<>();
+            result.completeExceptionally(new IllegalStateException("not available"));
+            return result;
+        }
+
+        @Path("/testRESTGetFailure")
+        @OperationType(Type.REST_GET)
+        public String testRESTGetFailure() {
+            throw new IllegalStateException("not available");
+        }
+
+        @Path("/testEventBusFailure")
+        @OperationType(Type.EVENTBUS)
+        public void testEventBusFailure(String name, EBMessageReply reply) {
+            throw new IllegalStateException("not available");
+        }
+
+        @Path("/testBlocking")
+        @OperationType(Type.EVENTBUS)
+        @Blocking
+        public String testBlocking(String name) {
+            return name + ":" + Thread.currentThread().getName();
+        }
+
+        @Path("/testBlockingSlow")
+        @OperationType(Type.EVENTBUS)
+        @Blocking(pool = "slow", size = 1, queue = 1)
+        public String testBlockingSlow(String name) throws InterruptedException {
+            Thread.sleep(500);
+            return name;
+        }
+
+
+        @Path("/testInFlightLimit")
+        @OperationType(Type.EVENTBUS)
+        @InFlightLimit(maxInFlight = 1, maxQueued = 1)
+        public CompletableFuture<String> testInFlightLimit(String name) {
+            final CompletableFuture<String> result = new CompletableFuture<>();
+            vertx.setTimer(200, id -> result.complete(name));
+            return result;
+        }
+
+        @Path("/testBatch")
+        @OperationType(Type.EVENTBUS)
+        @Batch(maxSize = 3, maxDelayMs = 5000)
+        public List<String> testBatch(List<String> names) {
+            return names.stream().map(name -> name + ":" + names.size()).collect(Collectors.toList());
+        }
+
+        @Path("/testBatchShort")
+        @OperationType(Type.EVENTBUS)
+        @Batch(maxSize = 2, maxDelayMs = 5000)
+        public List<String> testBatchShort(List<String> names) {
+            return names.subList(0, 1);
+        }
+
+        @Path("/testBatchJSON")
+        @OperationType(Type.EVENTBUS)
+        @Consumes("application/json")
+        @Batch(maxSize = 10, maxDelayMs = 50)
+        public List<String> testBatchJSON(List<PersonOne> persons) {
+            return persons.stream().map(PersonOne::getName).collect(Collectors.toList());
+        }
+
+        @Path("/testBatchReply")
+        @OperationType(Type.EVENTBUS)
+        @Batch(maxSize = 100, maxDelayMs = 50)
+        public void testBatchReply(List<String> names, List<EBMessageReply> replies) {
+            for (int i = 0; i < names.size(); i++) {
+                replies.get(i).reply(names.get(i) + ":" + names.size());
+            }
+        }
+
+        @Path("/testRESTPut")
+        @OperationType(Type.REST_PUT)
+        public String testRESTPut(@QueryParam("id") String id, @FormParam("name") String name) {
+            return id + ":" + name;
+        }
+
+        @Path("/testStream")
+        @OperationType(Type.REST_GET)
+        public Stream<String> testStream(@QueryParam("count") int count) {
+            return IntStream.range(0, count).mapToObj(i -> "line" + i + "\n");
+        }
+
+        @Path("/testStreamJSON")
+        @OperationType(Type.REST_GET)
+        public Stream<PersonOne> testStreamJSON(@QueryParam("count") int count) {
+            return IntStream.range(0, count).mapToObj(i -> new PersonOne("name" + i, "lastname" + i));
+        }
+
+        @Path("/testLimitedStream")
+        @OperationType(Type.REST_GET)
+        @InFlightLimit(maxInFlight = 1)
+        public Stream<String> testLimitedStream() {
+            return Stream.generate(() -> "item\n");
+        }
+
+        @Path("/testEndlessStream")
+        @OperationType(Type.REST_GET)
+        public Stream<String> testEndlessStream() {
+            final CountDownLatch closed = streamClosed;
+            return Stream.generate(() -> "item\n").onClose(closed::countDown);
+        }
+
+        @Path("/testCacheable")
+        @OperationType(Type.REST_GET)
+        @Cacheable(ttl = 10000, maxEntries = 10)
+        public String testCacheable(@QueryParam("name") String name) {
+            return name + ":" + cacheableInvocations.incrementAndGet();
+        }
+
+        @Path("/testCacheableEventBus")
+        @OperationType(Type.EVENTBUS)
+        @Cacheable
+        public void testCacheableEventBus(String name, EBMessageReply reply) {
+            reply.reply(name + ":" + cacheableEventBusInvocations.incrementAndGet());
+        }
+
+        @Path("/testEncodingFailure")
+        @OperationType(Type.REST_GET)
+        public Unencodable testEncodingFailure() {
+            return new Unencodable();
+        }
+
+        @Path("/testIdempotentEncodingFailure")
+        @OperationType(Type.REST_GET)
+        @Idempotent
+        public CompletableFuture<Unencodable> testIdempotentEncodingFailure() {
+            final CompletableFuture<Unencodable> result = new CompletableFuture<>();
+            vertx.setTimer(300, id -> result.complete(new Unencodable()));
+            return result;
+        }
+
+        @Path("/testIdempotent")
+        @OperationType(Type.REST_GET)
+        @Idempotent
+        public CompletableFuture<String> testIdempotent(@QueryParam("name") String name) {
+            final CompletableFuture<String> result = new CompletableFuture<>();
+            final String reply = name + ":" + idempotentInvocations.incrementAndGet();
+            vertx.setTimer(300, id -> result.complete(reply));
+            return result;
+        }
+
+        @Path("/testVirtualThread")
+        @OperationType(Type.EVENTBUS)
+        @RunOnVirtualThread
+        public String testVirtualThread(String name) {
+            return name + ":" + Context.isOnEventLoopThread();
+        }
+
     }
 
 }
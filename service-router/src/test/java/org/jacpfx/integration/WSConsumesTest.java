@@ -11,6 +11,7 @@ import io.vertx.core.json.JsonObject;
 import io.vertx.core.spi.cluster.ClusterManager;
 import io.vertx.test.core.VertxTestBase;
 import io.vertx.test.fakecluster.FakeClusterManager;
+import org.jacpfx.common.BinarySchema;
 import org.jacpfx.common.WSMessageReply;
 import org.jacpfx.common.OperationType;
 import org.jacpfx.common.Serializer;
@@ -128,6 +129,8 @@ public class WSConsumesTest extends VertxTestBase {
     public void testSimpleObjectBySerialisation() throws InterruptedException {
         final PersonOne message = new PersonOne("Andy","M");
 
+        // a client sending java serialized parameters needs the legacy decoding of the service
+        BinarySchema.setLegacyDecoding(true);
         getClient().websocket(8080, HOST, SERVICE_REST_GET + "/testSimpleObjectBySerialisation", ws -> {
             long startTime = System.currentTimeMillis();
             ws.handler((data) -> {
@@ -150,7 +153,11 @@ public class WSConsumesTest extends VertxTestBase {
         });
 
 
-        await();
+        try {
+            await();
+        } finally {
+            BinarySchema.setLegacyDecoding(false);
+        }
 
     }
     @Test
@@ -197,7 +204,7 @@ public class WSConsumesTest extends VertxTestBase {
             });
 
             try {
-                byte[] tmp = Serializer.serialize(message);
+                byte[] tmp = BinarySchema.register(PersonOne.class).get().encode(message);
                 ws.writeBinaryMessage(Buffer.buffer(tmp));
             } catch (IOException e) {
                 e.printStackTrace();
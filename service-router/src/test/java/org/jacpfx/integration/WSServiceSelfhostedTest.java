@@ -9,21 +9,33 @@ import io.vertx.core.json.JsonObject;
 import io.vertx.core.spi.cluster.ClusterManager;
 import io.vertx.test.core.VertxTestBase;
 import io.vertx.test.fakecluster.FakeClusterManager;
+import io.vertx.core.impl.ConcurrentHashSet;
+import org.jacpfx.common.HttpServerProfile;
+import org.jacpfx.common.InFlightLimit;
+import org.jacpfx.common.Operation;
 import org.jacpfx.common.OperationType;
+import org.jacpfx.common.Parameter;
+import org.jacpfx.common.ParameterMap;
 import org.jacpfx.common.Selfhosted;
+import org.jacpfx.common.ServiceInfo;
 import org.jacpfx.common.Type;
 import org.jacpfx.common.WSMessageReply;
+import org.jacpfx.vertx.registry.ServiceDiscovery;
 import org.jacpfx.vertx.services.ServiceVerticle;
 import org.junit.Before;
 import org.junit.Test;
 
 import javax.ws.rs.ApplicationPath;
+import javax.ws.rs.FormParam;
 import javax.ws.rs.Path;
+import javax.ws.rs.QueryParam;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 /**
  * Created by Andy Moncsek on 23.04.15.
@@ -33,6 +45,9 @@ public class WSServiceSelfhostedTest extends VertxTestBase {
     public static final String SERVICE_REST_GET = "/wsService";
     private static final String HOST="localhost";
     public static final int PORT = 9090;
+    public static final String SERVICE_INSTANCES = "/wsServiceInstances";
+    public static final int PORT_INSTANCES = 9091;
+    private static volatile CountDownLatch streamClosed = new CountDownLatch(1);
 
     protected int getNumNodes() {
         return 1;
@@ -311,6 +326,181 @@ public class WSServiceSelfhostedTest extends VertxTestBase {
         latch.await();
     }
 
+    @Test
+    public void multipleInstancesServeTraffic() throws InterruptedException {
+        final int instances = 4;
+        final CountDownLatch deployed = new CountDownLatch(1);
+        final DeploymentOptions options = new DeploymentOptions().setInstances(instances);
+        options.setConfig(new JsonObject().put("clustered", false).put("host", HOST));
+        getVertx().deployVerticle(WsServiceInstances.class.getName(), options, asyncResult -> {
+            assertTrue(asyncResult.succeeded());
+            deployed.countDown();
+        });
+        awaitLatch(deployed);
+
+        ServiceDiscovery.getInstance(getVertx()).service(SERVICE_INSTANCES, serviceResult -> {
+            assertTrue(serviceResult.succeeded());
+            final ServiceInfo info = serviceResult.getServiceInfo();
+            assertEquals(instances, info.getInstances());
+            assertEquals(instances, info.getInstanceAddresses().length);
+            // the router enforces the in-flight limit of all instances
+            final Operation limited = info.getOperations("/limited").findFirst().get();
+            assertEquals(2 * instances, limited.getMaxInFlight());
+            assertEquals(instances, limited.getMaxQueued());
+            final Set<String> threads = new ConcurrentHashSet<>();
+            final AtomicInteger replies = new AtomicInteger();
+            for (String address : info.getInstanceAddresses()) {
+                getVertx().eventBus().<JsonObject>send(address, "", reply -> {
+                    assertTrue(reply.succeeded());
+                    threads.add(reply.result().body().getString("thread"));
+                    if (replies.incrementAndGet() == instances) {
+                        // the instances are spread over the event loops
+                        assertTrue(threads.size() > 1);
+                        getClient().websocket(PORT_INSTANCES, HOST, SERVICE_INSTANCES + "/hello", ws -> {
+                            ws.handler(data -> {
+                                assertEquals("xhello-instances", new String(data.getBytes()));
+                                ws.close();
+                                testComplete();
+                            });
+                            ws.writeFrame(new WebSocketFrameImpl("xhello"));
+                        });
+                    }
+                });
+            }
+        });
+
+        await();
+    }
+
+    @Test
+    public void httpServerProfile() throws InterruptedException {
+        final JsonObject profile = new JsonObject().put("tcpNoDelay", true).put("acceptBacklog", 4096).put("idleTimeout", 30).
+                put("maxWebsocketFrameSize", 1024).put("compressionSupported", true);
+        final DeploymentOptions options = new DeploymentOptions().setConfig(new JsonObject().put("clustered", false).put("host", HOST).
+                put(HttpServerProfile.CONFIG_KEY, profile));
+        getVertx().deployVerticle(WsServiceInstances.class.getName(), options, asyncResult -> {
+            assertTrue(asyncResult.succeeded());
+            getClient().websocket(PORT_INSTANCES, HOST, SERVICE_INSTANCES + "/hello", ws -> {
+                ws.handler(data -> {
+                    assertEquals("xhello-instances", new String(data.getBytes()));
+                    ws.close();
+                    testComplete();
+                });
+                ws.writeFrame(new WebSocketFrameImpl("xhello"));
+            });
+        });
+
+        await();
+    }
+
+    @Test
+    public void invalidHttpServerProfile() throws InterruptedException {
+        final DeploymentOptions options = new DeploymentOptions().setConfig(new JsonObject().put("clustered", false).put("host", HOST).
+                put(HttpServerProfile.CONFIG_KEY, new JsonObject().put("acceptBacklog", 0)));
+        getVertx().deployVerticle(WsServiceInstances.class.getName(), options, asyncResult -> {
+            assertTrue(asyncResult.failed());
+            assertTrue(asyncResult.cause() instanceof IllegalArgumentException);
+            assertTrue(asyncResult.cause().getMessage().contains("acceptBacklog"));
+            testComplete();
+        });
+
+        await();
+    }
+
+    @Test
+    public void selfHostedRESTEventBus() throws InterruptedException {
+        final CountDownLatch deployed = new CountDownLatch(1);
+        final DeploymentOptions options = new DeploymentOptions().setConfig(new JsonObject().put("clustered", false).put("host", HOST).
+                put(ServiceVerticle.REST_EVENT_BUS_CONFIG_KEY, true));
+        getVertx().deployVerticle(WsServiceInstances.class.getName(), options, asyncResult -> {
+            assertTrue(asyncResult.succeeded());
+            deployed.countDown();
+        });
+        awaitLatch(deployed);
+
+        final ParameterMap<String> params = new ParameterMap<>();
+        params.add("name", "eb");
+        getVertx().eventBus().send(SERVICE_INSTANCES + "/greeting", new Parameter<>(params), reply -> {
+            assertTrue(reply.succeeded());
+            assertEquals("hello eb", reply.result().body());
+            getClient().getNow(PORT_INSTANCES, HOST, SERVICE_INSTANCES + "/greeting?name=http", response -> response.bodyHandler(body -> {
+                assertEquals("hello http", body.toString());
+                testComplete();
+            }));
+        });
+
+        await();
+    }
+
+    @Test
+    public void selfHostedRESTMethods() throws InterruptedException {
+        final CountDownLatch deployed = new CountDownLatch(1);
+        final DeploymentOptions options = new DeploymentOptions().setConfig(new JsonObject().put("clustered", false).put("host", HOST));
+        getVertx().deployVerticle(WsServiceInstances.class.getName(), options, asyncResult -> {
+            assertTrue(asyncResult.succeeded());
+            deployed.countDown();
+        });
+        awaitLatch(deployed);
+
+        // self hosted REST operations have no event bus consumer
+        final ParameterMap<String> params = new ParameterMap<>();
+        params.add("name", "eb");
+        getVertx().eventBus().send(SERVICE_INSTANCES + "/greeting", new Parameter<>(params), reply -> {
+            assertTrue(reply.failed());
+            getClient().post(PORT_INSTANCES, HOST, SERVICE_INSTANCES + "/item?id=1", post -> post.bodyHandler(created -> {
+                assertEquals("post 1:a", created.toString());
+                getClient().put(PORT_INSTANCES, HOST, SERVICE_INSTANCES + "/item?id=1", put -> put.bodyHandler(updated -> {
+                    assertEquals("put 1:b", updated.toString());
+                    getClient().delete(PORT_INSTANCES, HOST, SERVICE_INSTANCES + "/item?id=1", delete -> delete.bodyHandler(deleted -> {
+                        assertEquals("delete 1", deleted.toString());
+                        testComplete();
+                    })).end();
+                })).putHeader("content-type", "application/x-www-form-urlencoded").end("name=b");
+            })).putHeader("content-type", "application/x-www-form-urlencoded").end("name=a");
+        });
+
+        await();
+    }
+
+    @Test
+    public void selfHostedRESTFailure() throws InterruptedException {
+        final CountDownLatch deployed = new CountDownLatch(1);
+        final DeploymentOptions options = new DeploymentOptions().setConfig(new JsonObject().put("clustered", false).put("host", HOST));
+        getVertx().deployVerticle(WsServiceInstances.class.getName(), options, asyncResult -> {
+            assertTrue(asyncResult.succeeded());
+            deployed.countDown();
+        });
+        awaitLatch(deployed);
+
+        getClient().getNow(PORT_INSTANCES, HOST, SERVICE_INSTANCES + "/failure", response -> response.bodyHandler(body -> {
+            assertEquals(500, response.statusCode());
+            assertEquals("not available", body.toString());
+            testComplete();
+        }));
+
+        await();
+    }
+
+    @Test
+    public void selfHostedStreamClosedWithConnection() throws InterruptedException {
+        final CountDownLatch deployed = new CountDownLatch(1);
+        final DeploymentOptions options = new DeploymentOptions().setConfig(new JsonObject().put("clustered", false).put("host", HOST));
+        getVertx().deployVerticle(WsServiceInstances.class.getName(), options, asyncResult -> {
+            assertTrue(asyncResult.succeeded());
+            deployed.countDown();
+        });
+        awaitLatch(deployed);
+
+        final CountDownLatch closed = new CountDownLatch(1);
+        streamClosed = closed;
+        getClient().getNow(PORT_INSTANCES, HOST, SERVICE_INSTANCES + "/endless", response -> {
+            assertEquals(200, response.statusCode());
+            // the client goes away in the middle of the stream
+            response.handler(chunk -> response.netSocket().close());
+        });
+        awaitLatch(closed);
+    }
+
     public HttpClient getClient() {
         return client;
     }
@@ -393,4 +583,59 @@ public class WSServiceSelfhostedTest extends VertxTestBase {
             System.out.println("wsEndpointAsyncReply-1: " + name + "   :::" + this);
         }
     }
+
+    @ApplicationPath(SERVICE_INSTANCES)
+    @Selfhosted(port = PORT_INSTANCES)
+    public static class WsServiceInstances extends ServiceVerticle {
+
+        @Path("/hello")
+        @OperationType(Type.WEBSOCKET)
+        public void wsEndpointHello(String name, WSMessageReply reply) {
+            reply.reply(name + "-instances");
+        }
+
+        @Path("/item")
+        @OperationType(Type.REST_POST)
+        public String createItem(@QueryParam("id") String id, @FormParam("name") String name) {
+            return "post " + id + ":" + name;
+        }
+
+        @Path("/item")
+        @OperationType(Type.REST_PUT)
+        public String updateItem(@QueryParam("id") String id, @FormParam("name") String name) {
+            return "put " + id + ":" + name;
+        }
+
+        @Path("/item")
+        @OperationType(Type.REST_DELETE)
+        public String deleteItem(@QueryParam("id") String id) {
+            return "delete " + id;
+        }
+
+        @Path("/greeting")
+        @OperationType(Type.REST_GET)
+        public String greeting(@QueryParam("name") String name) {
+            return "hello " + name;
+        }
+
+        @Path("/endless")
+        @OperationType(Type.REST_GET)
+        public Stream<String> endless() {
+            final CountDownLatch closed = streamClosed;
+            return Stream.generate(() -> "item\n").onClose(closed::countDown);
+        }
+
+        @Path("/limited")
+        @OperationType(Type.REST_GET)
+        @InFlightLimit(maxInFlight = 2, maxQueued = 1)
+        public String limited() {
+            return "limited";
+        }
+
+        @Path("/failure")
+        @OperationType(Type.REST_GET)
+        public String failure() {
+            throw new IllegalStateException("not available");
+        }
+    }
 }